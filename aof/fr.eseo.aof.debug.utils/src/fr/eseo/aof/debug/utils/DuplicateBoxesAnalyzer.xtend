@@ -29,6 +29,7 @@ import org.eclipse.papyrus.aof.core.IUnaryFunction
 import org.eclipse.papyrus.aof.core.impl.Box
 import org.eclipse.papyrus.aof.core.impl.operation.Operation
 import org.eclipse.papyrus.aof.core.impl.utils.FactoryObserver
+import org.eclipse.papyrus.aof.emf.impl.ContentsAdapter
 import org.eclipse.papyrus.aof.emf.impl.FeatureDelegate
 
 import static org.eclipse.papyrus.aof.core.impl.Box.*
@@ -65,7 +66,9 @@ class DuplicateBoxesAnalyzer implements BoxesAnalyzer {
 	}
 
     def isAllContentsRoot(IBox<?> box) {
-        stackTracePerBox.get(box).stackTrace.get(8).methodName == "_allContents"
+        stackTracePerBox.get(box).stackTrace.exists[
+            className == ContentsAdapter.name && methodName == "getExtent"
+        ]
     }
 
     def isEmptyConstant(IBox<?> box) {
@@ -88,7 +88,7 @@ public class PipesWalker {
 
 	protected static IObserver<?> unwrap(IObserver<?> observer) {
 		String observerClassName = observer.getClass().getName();
-		if(observerClassName.endsWith(".Operation$SilentObserver")) {	// necessary because SilentObserver is private
+		if(observerClassName.endsWith(".Operation$SilentObserver") || observerClassName.endsWith(".Operation$SilentBatchObserver")) {	// necessary because SilentObserver is private
 			observer = javaGet(observer, "wrappedObserver");
 		}
 		return observer;
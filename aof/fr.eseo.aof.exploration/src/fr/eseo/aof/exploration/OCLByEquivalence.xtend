@@ -126,7 +126,8 @@ class OCLByEquivalence {
 		]
 
 		"max".serialize[
-			it.max
+			// IBox.max is the native operation
+			OCLByEquivalence.max(it)
 		]
 
 		"equals".serialize[
@@ -227,6 +228,8 @@ class OCLByEquivalence {
 
 
 	// TODO: sum & max would be better if based on a directly implemented reduce, or even better if directly implemented (notably for sum) 
+	//	=> done in core: IBox.min/max/count, IIntBox.sum/average and IDoubleBox.sum/average (the equivalences below are kept
+	//	as a reference)
 
 	def static IOne<Integer> max(IBox<Integer> box) {
 		box.iterate(Integer.MIN_VALUE)[e, acc |
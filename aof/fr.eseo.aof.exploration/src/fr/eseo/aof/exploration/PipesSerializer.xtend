@@ -82,6 +82,9 @@ class PipesSerializer {
 				if(observerClassName.equals(OPERATION_PACKAGE + "Operation$SilentObserver")) {	// necessary because SilentObserver is private
 					observer = javaGet(observer, "wrappedObserver")
 					observerClassName = observer.getClass().getName()
+				} else if(observerClassName.equals(OPERATION_PACKAGE + "Operation$SilentBatchObserver")) {
+					observer = javaGet(observer, "wrappedBatchObserver")
+					observerClassName = observer.getClass().getName()
 				}
 
 				if(observerClassName.startsWith(OPERATION_PACKAGE)) {
@@ -15,12 +15,15 @@
 
 package fr.eseo.aof.exploration.helperboxes
 
+import java.util.Comparator
 import java.util.stream.IntStream
 import org.eclipse.papyrus.aof.core.AOFFactory
 import org.eclipse.papyrus.aof.core.IBinaryFunction
 import org.eclipse.papyrus.aof.core.IBox
 import org.eclipse.papyrus.aof.core.IConstraints
+import org.eclipse.papyrus.aof.core.IDoubleFunction
 import org.eclipse.papyrus.aof.core.IFactory
+import org.eclipse.papyrus.aof.core.IIntFunction
 import org.eclipse.papyrus.aof.core.IMetaClass
 import org.eclipse.papyrus.aof.core.IOne
 import org.eclipse.papyrus.aof.core.IPair
@@ -152,6 +155,14 @@ class Naturals implements Constant<Integer>, ReadOnly<Integer>, IBox<Integer> {
 		throw new UnsupportedOperationException("TODO: auto-generated method stub")
 	}
 	
+	override collectInt(IIntFunction<? super Integer> collector) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+
+	override collectDouble(IDoubleFunction<? super Integer> collector) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+
 	override <P> collectMutable(IFactory factory, Object containingClass, Object property) {
 		throw new UnsupportedOperationException("TODO: auto-generated method stub")
 	}
@@ -236,4 +247,44 @@ class Naturals implements Constant<Integer>, ReadOnly<Integer>, IBox<Integer> {
 		throw new UnsupportedOperationException("TODO: auto-generated method stub")
 	}
 	
+	override <F,R> zipWithAligned(IBox<F> that, IBinaryFunction<Integer, F, R> zipper) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override sortedBy(IUnaryFunction<? super Integer, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies, boolean ascending) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override sortedBy(IUnaryFunction<? super Integer, ? extends IOne<? extends Comparable<?>>> comparatorBody, boolean ascending) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override <K> groupBy(IUnaryFunction<? super Integer, ? extends IOne<K>> keyFunction) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override <K> selectBy(IOne<K> keyBox, IUnaryFunction<? super Integer, ? extends IOne<K>> keyFunction) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override count(Integer element) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override min() {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override min(Comparator<? super Integer> comparator) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override max() {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
+	override max(Comparator<? super Integer> comparator) {
+		throw new UnsupportedOperationException("TODO: auto-generated method stub")
+	}
+	
 }
\ No newline at end of file
@@ -25,6 +25,10 @@ interface ReadOnly<E> extends IWritable<E> {
 	override add(int index, E element) {
 		error
 	}
+
+	override addAll(int index, Iterable<E> elements) {
+		error
+	}
 	
 	override assign(Iterable<E> iterable) {
 		error
@@ -53,11 +57,19 @@ interface ReadOnly<E> extends IWritable<E> {
 	override removeAt(int index) {
 		error
 	}
+
+	override removeRange(int fromIndex, int toIndex) {
+		error
+	}
 	
 	override set(int index, E element) {
 		error
 	}
 
+	override batch(Runnable mutations) {
+		error
+	}
+
 	def static error() {
 		throw new UnsupportedOperationException("A read-only box cannot be modified")
 	}
@@ -84,7 +84,8 @@ interface AOFExtensions {
 		})
 	}
 	def <E, K> selectBy(IBox<E> source, IBox<K> key, IUnaryFunction<E, IBox<K>> collector) {
-		new SelectBy(source, key.asOne(null))[collector.apply(it).asOne(null)].result
+		// null elements have no key, and duplicates of the source are only selected once
+		source.select[it !== null].selectBy(key.asOne(null))[collector.apply(it).asOne(null)].asSet
 	}
 	def <E> reverse(IBox<E> it) {
 		new Reverse(it).result
@@ -18,33 +18,17 @@ package fr.eseo.aof.extensions
 
 import org.eclipse.emf.common.notify.Notifier
 import org.eclipse.emf.ecore.EObject
-import org.eclipse.emf.ecore.util.EContentAdapter
 import org.eclipse.papyrus.aof.core.AOFFactory
 import org.eclipse.papyrus.aof.core.IBox
 import org.eclipse.papyrus.aof.core.IMetaClass
 import org.eclipse.papyrus.aof.core.ISet
+import org.eclipse.papyrus.aof.emf.impl.ContentsAdapter
 
 class AllContents {
 	// warning: does not preserve ordering
+	// the content adapter of the root is shared by all the calls, and keeps one set per type
 	static def <C> _allContents(Notifier it, IMetaClass<C> type) {
-		val ret = AOFFactory.INSTANCE.<C>createSet
-		// adding the EContentAdapter automatically does the initialization
-		// TODO: make it possible to register the EContentAdapter only once for multiple allContents calls on the same subtree
-		eAdapters.add(new EContentAdapter {
-			override addAdapter(Notifier it) {
-				super.addAdapter(it)
-				if(type === null || type.isInstance(it)) {
-					ret.add(it as C)
-				}
-			}
-			override removeAdapter(Notifier it) {
-				super.removeAdapter(it)
-				if(type === null || type.isInstance(it)) {
-					ret.remove(it as C)
-				}
-			}
-		})
-		ret
+		ContentsAdapter.allContents(it, type)
 	}
 
 	// TODO: fix this, not usable yet
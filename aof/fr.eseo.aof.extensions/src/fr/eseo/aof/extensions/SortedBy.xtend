@@ -34,6 +34,7 @@ import org.eclipse.xtend.lib.annotations.Data
 //	- create specific projects to regroup all active operations (& utils) created outside of AOF
 //		- fr.eseo.aof.core.extensions, for:
 //			- includes, selectBy, groupBy
+//				=> done in core for selectBy and groupBy: IBox.groupBy (GroupBy), and IBox.selectBy reading its groups
 //				- from incquery/viatra benchmark solution
 //			- sortedBy, sum, take, drop, reverse, OpaqueOperation
 //				- from this project (i.e., AOF solution to TTC 2018 live contest)
@@ -46,6 +47,7 @@ import org.eclipse.xtend.lib.annotations.Data
 //		- fr.eseo.aof.emf.extensions, for:
 //			- allContents
 //				- from this project
+//				=> done in org.eclipse.papyrus.aof.emf: ContentsAdapter, shared per root with one extent per type
 //			- Resource contents
 //			- ...
 //		- fr.eseo.aof.core.extensions.tests, for:
@@ -69,22 +71,31 @@ import org.eclipse.xtend.lib.annotations.Data
 //		- each Operation has a list of observers that should no longer be necessary once DisablableObserver is generalized
 //			- unless maybe for order-preserving CollectBox
 //		- Singletons should not use ListDelegate
+//			=> done: BaseFactory gives them a SingletonDelegate, and delegates store their first observer inline
 //		- using per-transformation cache would make HashMap possible for cache instead of WeakKeysWeakValues caches
 //			- although this may be a problem when many elements are removed and others added into a model
 //			- possibly use a StrongKeysStrongValuesCache (i.e., a HashMap) for elements that are still in the source or target models,
 //			and move them to a Weak cache if they are removed from source and target models
+//			=> done: CacheScope gives operations strong per-scope caches, and EMFCacheScope demotes the entries of
+//			elements removed from its resource set to a weak tier
 //	- create all variants of boxes and operations for primitive types
 //		- e.g., using an active operation that derives them automatically
+//		=> started in core: unboxed int/double/boolean ones and sequences (IIntBox...), collectInt/collectDouble, sum,
+//		and size/isEmpty/notEmpty results; other operations still box their elements
 //	- implement aligned zip for when it works
 //		- failing when not working
 //		=> started to do it in ActiveMap project
+//		=> done in core: IBox.zipWithAligned (AlignedZipWith)
 //	- extract the weighted-balanced tree from the SortedBy class so that it can be reused
+//		=> done in core: WeightBalancedTree, TreeList and TreeDelegate (ListDelegate switches to a TreeList on large
+//		boxes); SortedBy still uses its own keyed tree
 //	- try adding virtual result boxes everywhere (possibly also for property boxes)
 //		- virtual boxes could start storing an actual list if the downstream operation attempts random access
 //			- ideally, requiring storage should be discovered by static analysis, but this approach should work for AOF1
 //			- possibly using other kinds of collections such as HashSets
 //			- some boxes such as ListFeatureDelegate.proxyBox could work in the same way, but enable random access during
 //			initialization and only forbidding it during propagation
+//			=> done for property boxes: DirectListFeatureDelegate reads the EMF list without any proxy box
 //	- try adding some properties to boxes such as:
 //		- supports random-access
 //			- or rely on the scheme by which virtual boxes start using a list when one random access is attempted
@@ -117,13 +128,13 @@ import org.eclipse.xtend.lib.annotations.Data
 //		- notably for tests for which snapshot is not enough
 // TODO:
 //	- virtual box indexOf
-//	- silencing the observers takes a relatively large amount of time, being O(n) in the number of elements...
-//		=> ideally doing this for all operations
 //	- fix remaining balancing issues
 //	- it may be more efficient to store the outputs of bodies in the tree
 //		- makes it possible to find an element by its old bodies values (for inner box replace), instead of temporarily setting the inner box to its old value
+//		=> done in core: IBox.sortedBy caches the keys of each element in its entry, and never writes the key boxes
 //	- improve tests
 //	- currently a reversed sort... add a parameter for direction
+//		=> done in core: IBox.sortedBy(comparatorBodies, ascending)
 //	- make non-API methods private
 // DONE:
 //	- Node.remove
@@ -143,11 +154,13 @@ import org.eclipse.xtend.lib.annotations.Data
 //	- make result box wrap the tree instead of using a default ArrayList
 //	- silencing the observers takes a relatively large amount of time, being O(n) in the number of elements...
 //		=> try using regular observers + a single boolean
+//		=> done for all operations: Operation.SilentObserver now checks a single boolean shared by the operation
 //		=> ideally not using a separate SilentObserver and actual observer
 //			e.g., by making silentObserver use original method names, and subclasses
 //			use different ones
 //	- weak binary cache could have a single Map with a pair of WeakReferences
 //		- better than one nested WeakHashMap per different K1
+//		=> done: WeakKeysWeakValuesFlatBinaryCache, used by CollectBox and Cache
 class SortedBy<E, C extends Comparable<?>> extends Operation<E> {
 	val IBox<E> sourceBox
 	val IUnaryFunction<E, IOne<C>>[] bodies
@@ -61,12 +61,24 @@ annotation AOFAccessors {
 							val suffix = if(n == 0) {""} else {n}
 	
 							val retType = iBoxType.newTypeReference(f.EType.instanceClass.findTypeGlobally.newTypeReference)
+							// the accessor is resolved once, so that _feature(o) skips the meta-class and accessor lookups
+							val accessorName = '''_«c.name»_«f.name»_accessor'''
+							cls.addField(accessorName)[
+								primarySourceElement = cls.primarySourceElement
+								static = true
+								final = true
+								visibility = Visibility.PRIVATE
+								type = "org.eclipse.papyrus.aof.core.IUnaryFunction".findTypeGlobally.newTypeReference(cType, retType)
+								initializer = '''
+									«c.name».getPropertyAccessor(«ePackageName».eINSTANCE.get«c.name»_«f.name.toFirstUpper»())
+								'''
+							]
 							cls.addMethod('''_«f.name»''')[
 								primarySourceElement = cls.primarySourceElement
 								addParameter("o", cType)
 								returnType = retType
 								body = '''
-									return «factory».createPropertyBox(o, «ePackageName».eINSTANCE.get«c.name»_«f.name.toFirstUpper»());
+									return «accessorName».apply(o);
 								'''
 							]
 							cls.addMethod('''«f.name»«suffix»''')[
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.Accessors;
+
+/**
+ * Compares the resolved accessors of {@link Accessors} with the reflective calls they replace:
+ * <ul>
+ * <li>property reading: Method.invoke on a getter found by bean introspection (AOFMetaClass)</li>
+ * <li>default instantiation: Class.newInstance (AOFMetaClass, TupleRule.apply)</li>
+ * <li>wrapping instantiation: constructor search then Constructor.newInstance on each call (TupleRule.wrap)</li>
+ * </ul>
+ * Not a JUnit test: run it as a Java application.
+ */
+public class AccessorBenchmark {
+
+	private static final int CALLS = 10000000;
+
+	public static class Tuple {
+
+		public Object element;
+
+		public Tuple() {
+		}
+
+		public Tuple(Object element) {
+			this.element = element;
+		}
+
+		public Object getElement() {
+			return element;
+		}
+
+	}
+
+	private static abstract class Benchmark {
+
+		private String name;
+
+		private Benchmark(String name) {
+			this.name = name;
+		}
+
+		protected abstract Object call(Object argument) throws Exception;
+
+		private void run() throws Exception {
+			Object argument = new Tuple("element");
+			for (int warmup = 0; warmup < 3; warmup++) {
+				calls(argument);
+			}
+			long start = System.nanoTime();
+			int count = calls(argument);
+			long time = System.nanoTime() - start;
+			System.out.println(name + "\t" + String.format("%.1f", (double) time / CALLS) + " ns/call\t(" + count + ")");
+		}
+
+		private int calls(Object argument) throws Exception {
+			// the results are used, so that the calls are not optimized away
+			int count = 0;
+			for (int i = 0; i < CALLS; i++) {
+				if (call(argument) != null) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+	}
+
+	public static void main(String[] args) throws Exception {
+		Method readMethod = null;
+		for (PropertyDescriptor descriptor : Introspector.getBeanInfo(Tuple.class).getPropertyDescriptors()) {
+			if (descriptor.getName().equals("element")) {
+				readMethod = descriptor.getReadMethod();
+			}
+		}
+		final Method method = readMethod;
+		final IUnaryFunction<Tuple, Object> reader = Accessors.getPropertyReader(Tuple.class, "element");
+		final Accessors.Instantiator<Tuple> defaultConstructor = Accessors.getDefaultConstructor(Tuple.class);
+		final Accessors.Instantiator<Tuple> wrappingConstructor = Accessors.getFirstConstructor(Tuple.class, true);
+		Benchmark[] benchmarks = {
+			new Benchmark("read: Method.invoke") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					return method.invoke(argument);
+				}
+			},
+			new Benchmark("read: Accessors.getPropertyReader") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					return reader.apply((Tuple) argument);
+				}
+			},
+			new Benchmark("create: Class.newInstance") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					return Tuple.class.newInstance();
+				}
+			},
+			new Benchmark("create: Accessors.getDefaultConstructor") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					return defaultConstructor.newInstance();
+				}
+			},
+			new Benchmark("wrap: constructor search + newInstance") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					for (Constructor<?> constructor : Tuple.class.getConstructors()) {
+						if (constructor.getParameterTypes().length > 0) {
+							return constructor.newInstance(argument);
+						}
+					}
+					return null;
+				}
+			},
+			new Benchmark("wrap: Accessors.getFirstConstructor") {
+				@Override
+				protected Object call(Object argument) throws Exception {
+					return wrappingConstructor.newInstance(argument);
+				}
+			}
+		};
+		for (Benchmark benchmark : benchmarks) {
+			benchmark.run();
+		}
+	}
+
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class BatchTest extends BaseTest {
+
+	private static IUnaryFunction<Integer, Integer> increment = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i + 1;
+		}
+	};
+
+	private static IUnaryFunction<Integer, Integer> decrement = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i - 1;
+		}
+	};
+
+	private static IUnaryFunction<Integer, Boolean> isOdd = new IUnaryFunction<Integer, Boolean>() {
+		@Override
+		public Boolean apply(Integer i) {
+			return i % 2 != 0;
+		}
+	};
+
+	// records per-element notifications as strings, and batches as lists of changes
+	private static class TraceObserver extends DefaultObserver<Integer> {
+
+		protected List<Object> trace = new ArrayList<Object>();
+
+		public void added(int index, Integer element) {
+			trace.add("add " + index + " " + element);
+		}
+
+		public void removed(int index, Integer element) {
+			trace.add("rem " + index + " " + element);
+		}
+
+		public void replaced(int index, Integer newElement, Integer oldElement) {
+			trace.add("rep " + index + " " + newElement + " " + oldElement);
+		}
+
+		public void moved(int newIndex, int oldIndex, Integer element) {
+			trace.add("mov " + newIndex + " " + oldIndex + " " + element);
+		}
+	}
+
+	private static class BatchTraceObserver extends TraceObserver implements IBatchObserver<Integer> {
+
+		@Override
+		public void changed(List<IChange<Integer>> changes) {
+			List<String> batch = new ArrayList<String>();
+			for (IChange<Integer> change : changes) {
+				batch.add(change.toString());
+			}
+			trace.add(batch);
+		}
+	}
+
+	// Notification
+
+	@Test
+	public void testBatchNotification() {
+		final IBox<Integer> a = factory.createSequence(1, 2, 3);
+		TraceObserver observer = new TraceObserver();
+		BatchTraceObserver batchObserver = new BatchTraceObserver();
+		a.addObserver(observer);
+		a.addObserver(batchObserver);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(4);
+				a.removeAt(0);
+				a.move(0, 2);
+			}
+		});
+		assertEquals(Arrays.asList("add 3 4", "rem 0 1", "mov 0 2 4"), observer.trace);
+		assertEquals(Arrays.asList(Arrays.asList("ADDED(3, 4)", "REMOVED(0, 1)", "MOVED(0, 2, 4)")), batchObserver.trace);
+		assertEquals(Arrays.asList(4, 2, 3), a);
+	}
+
+	@Test
+	public void testBatchCompaction() {
+		final IBox<Integer> a = factory.createSequence(1, 2, 3);
+		BatchTraceObserver batchObserver = new BatchTraceObserver();
+		a.addObserver(batchObserver);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(1, 10); // cancelled by the removal
+				a.removeAt(1);
+				a.add(0, 20); // merged with the replacement
+				a.set(0, 21);
+				a.set(3, 30); // merged into a single replacement
+				a.set(3, 31);
+				a.move(1, 1); // dropped
+			}
+		});
+		assertEquals(Arrays.asList(Arrays.asList("ADDED(0, 21)", "REPLACED(3, 31, 3)")), batchObserver.trace);
+		assertEquals(Arrays.asList(21, 1, 2, 31), a);
+	}
+
+	@Test
+	public void testBatchNested() {
+		final IBox<Integer> a = factory.createSequence();
+		BatchTraceObserver batchObserver = new BatchTraceObserver();
+		a.addObserver(batchObserver);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(1);
+				a.batch(new Runnable() {
+					@Override
+					public void run() {
+						a.add(2);
+					}
+				});
+				a.add(3);
+			}
+		});
+		assertEquals(Arrays.asList(Arrays.asList("ADDED(0, 1)", "ADDED(1, 2)", "ADDED(2, 3)")), batchObserver.trace);
+	}
+
+	@Test
+	public void testBatchObserverRemovedDuringBatch() {
+		final IBox<Integer> a = factory.createSequence();
+		final BatchTraceObserver batchObserver = new BatchTraceObserver();
+		a.addObserver(batchObserver);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(1);
+				a.removeObserver(batchObserver);
+			}
+		});
+		assertEquals(Arrays.asList(), batchObserver.trace);
+	}
+
+	@Test
+	public void testBatchObserverAddedDuringBatch() {
+		final IBox<Integer> a = factory.createSequence();
+		final BatchTraceObserver batchObserver = new BatchTraceObserver();
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(1);
+				a.addObserver(batchObserver);
+				a.add(2);
+			}
+		});
+		// only notified of the changes that occurred after its registration, as they occurred
+		assertEquals(Arrays.asList("add 1 2"), batchObserver.trace);
+	}
+
+	// Propagation
+
+	@Test
+	public void testBatchPropagationThroughOperations() {
+		final IBox<Integer> a = factory.createSequence(1, 2, 3, 4);
+		IBox<Integer> b = a.collect(increment).select(isOdd);
+		IOne<Integer> size = a.size();
+		BatchTraceObserver batchObserver = new BatchTraceObserver();
+		b.addObserver(batchObserver);
+		TraceObserver sizeObserver = new TraceObserver();
+		size.addObserver(sizeObserver);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.assign(5, 6, 7, 8, 9, 10);
+			}
+		});
+		assertEquals(a.collect(increment).select(isOdd), b);
+		assertEquals(6, size.get());
+		// a single batch reaches the end of the pipe, and the size is updated once
+		assertEquals(1, batchObserver.trace.size());
+		assertEquals(Arrays.asList("rep 0 6 4"), sizeObserver.trace);
+	}
+
+	@Test
+	public void testBatchPropagationThroughMutableSelect() {
+		final Map<Integer, IOne<Boolean>> selected = new HashMap<Integer, IOne<Boolean>>();
+		for (int i = 0; i < 10; i++) {
+			selected.put(i, AOFFactory.INSTANCE.createOne(i % 2 == 0));
+		}
+		final IBox<Integer> a = factory.createSequence(0, 1, 2, 3, 4);
+		IBox<Integer> b = a.selectMutable(new IUnaryFunction<Integer, IOne<Boolean>>() {
+			@Override
+			public IOne<Boolean> apply(Integer i) {
+				return selected.get(i);
+			}
+		});
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add(0, 5);
+				a.removeAt(2);
+				// the presence of an element flips before the batch of its source box is propagated
+				selected.get(4).set(0, false);
+				selected.get(3).set(0, true);
+				a.add(6);
+			}
+		});
+		assertEquals(Arrays.asList(5, 0, 2, 3, 4, 6), a);
+		assertEquals(Arrays.asList(0, 2, 3, 6), b);
+	}
+
+	@Test
+	public void testBatchOnResultOfBidirectionalCollect() {
+		final IBox<Integer> a = factory.createSequence(1, 2, 3);
+		final IBox<Integer> b = a.collect(increment, decrement);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				// the change of b is propagated to a while a is in a batch, and must not come back to b
+				b.add(10);
+				a.add(20);
+			}
+		});
+		assertEquals(Arrays.asList(1, 2, 3, 9, 20), a);
+		assertEquals(Arrays.asList(2, 3, 4, 10, 21), b);
+	}
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.StrongKeysStrongValuesBinaryCache2;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesBinaryCache2;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
+
+/**
+ * Compares the memory footprint and the lookup throughput of the binary caches, for the two ways they are used:
+ * <ul>
+ * <li>many first keys with one second key each (CollectBox: source box, collector)</li>
+ * <li>few first keys with many second keys each (Cache: link, source)</li>
+ * </ul>
+ * Not a JUnit test: run it as a Java application, preferably with -XX:+UseSerialGC for stable heap measures.
+ */
+public class BinaryCacheBenchmark {
+
+	private static final int ENTRIES = 200000;
+
+	private static final int LOOKUPS = 5000000;
+
+	private static abstract class CacheFactory {
+
+		private String name;
+
+		private CacheFactory(String name) {
+			this.name = name;
+		}
+
+		protected abstract IBinaryCache<Object, Object, Object> create();
+
+	}
+
+	private static final CacheFactory[] FACTORIES = {
+		new CacheFactory("WeakKeysWeakValuesBinaryCache (nested)") {
+			@Override
+			protected IBinaryCache<Object, Object, Object> create() {
+				return new WeakKeysWeakValuesBinaryCache<Object, Object, Object>();
+			}
+		},
+		new CacheFactory("WeakKeysWeakValuesBinaryCache2 (pair keys)") {
+			@Override
+			protected IBinaryCache<Object, Object, Object> create() {
+				return new WeakKeysWeakValuesBinaryCache2<Object, Object, Object>();
+			}
+		},
+		new CacheFactory("WeakKeysWeakValuesFlatBinaryCache") {
+			@Override
+			protected IBinaryCache<Object, Object, Object> create() {
+				return new WeakKeysWeakValuesFlatBinaryCache<Object, Object, Object>();
+			}
+		},
+		new CacheFactory("StrongKeysStrongValuesBinaryCache2 (reference)") {
+			@Override
+			protected IBinaryCache<Object, Object, Object> create() {
+				return new StrongKeysStrongValuesBinaryCache2<Object, Object, Object>();
+			}
+		}
+	};
+
+	private static long usedMemory() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static Object[] createKeys(int count) {
+		Object[] keys = new Object[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = new Object();
+		}
+		return keys;
+	}
+
+	private static void run(CacheFactory factory, String pattern, Object[] keys1, Object[] keys2) throws InterruptedException {
+		// keys and values are created beforehand, so that only the cache is measured
+		List<Object> values = new ArrayList<Object>(ENTRIES);
+		for (int i = 0; i < ENTRIES; i++) {
+			values.add(new Object());
+		}
+		long before = usedMemory();
+		IBinaryCache<Object, Object, Object> cache;
+		try {
+			cache = factory.create();
+		} catch (RuntimeException exception) {
+			System.out.println(pattern + "\t" + factory.name + "\tunusable: " + exception.getMessage());
+			return;
+		}
+		for (int i = 0; i < ENTRIES; i++) {
+			cache.put(keys1[i % keys1.length], keys2[i % keys2.length], values.get(i));
+		}
+		long after = usedMemory();
+		for (int warmup = 0; warmup < 3; warmup++) {
+			lookups(cache, keys1, keys2, values);
+		}
+		long start = System.nanoTime();
+		lookups(cache, keys1, keys2, values);
+		long time = System.nanoTime() - start;
+		System.out.println(pattern + "\t" + factory.name + "\t" + (after - before) / ENTRIES + " bytes/entry\t" + time / LOOKUPS + " ns/lookup");
+	}
+
+	private static void lookups(IBinaryCache<Object, Object, Object> cache, Object[] keys1, Object[] keys2, List<Object> values) {
+		for (int j = 0; j < LOOKUPS; j++) {
+			int i = j % ENTRIES;
+			if (cache.get(keys1[i % keys1.length], keys2[i % keys2.length]) != values.get(i)) {
+				throw new IllegalStateException("Wrong cached value for entry " + i);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		Object[] manyKeys = createKeys(ENTRIES);
+		Object[] fewKeys = createKeys(10);
+		Object[] oneKey = createKeys(1);
+		for (CacheFactory factory : FACTORIES) {
+			run(factory, "many k1 x one k2", manyKeys, oneKey);
+			run(factory, "few k1 x many k2", fewKeys, manyKeys);
+		}
+	}
+
+}
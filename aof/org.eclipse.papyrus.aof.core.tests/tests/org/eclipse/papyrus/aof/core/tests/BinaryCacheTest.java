@@ -0,0 +1,116 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class BinaryCacheTest extends BaseTest {
+
+	private WeakKeysWeakValuesFlatBinaryCache<Object, Object, Object> cache = new WeakKeysWeakValuesFlatBinaryCache<Object, Object, Object>();
+
+	// keys with few distinct hash codes, so that probe sequences overlap
+	private static class Key {
+
+		private int id;
+
+		private Key(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof Key) && (((Key) other).id == id);
+		}
+	}
+
+	// collects until the cache has the expected size
+	private void collect(int expectedSize) throws InterruptedException {
+		for (int i = 0; (i < 100) && (cache.size() != expectedSize); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(expectedSize, cache.size());
+	}
+
+	@Test
+	public void testPutGet() {
+		Object key1 = new Object();
+		Object key2 = new Object();
+		Object value = new Object();
+		assertEquals(null, cache.get(key1, key2));
+		cache.put(key1, key2, value);
+		assertEquals(value, cache.get(key1, key2));
+		assertEquals(null, cache.get(key2, key1));
+		Object newValue = new Object();
+		cache.put(key1, key2, newValue);
+		assertEquals(newValue, cache.get(key1, key2));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testNullKeys() {
+		Object key = new Object();
+		Object value1 = new Object();
+		Object value2 = new Object();
+		cache.put(null, key, value1);
+		cache.put(key, null, value2);
+		assertEquals(value1, cache.get(null, key));
+		assertEquals(value2, cache.get(key, null));
+		assertEquals(null, cache.get(null, null));
+	}
+
+	@Test
+	public void testEqualKeys() {
+		Object value = new Object();
+		cache.put(new Key(1), new Key(2), value);
+		assertEquals(value, cache.get(new Key(1), new Key(2)));
+		assertEquals(null, cache.get(new Key(2), new Key(1)));
+	}
+
+	@Test
+	public void testCollectedKeys() throws InterruptedException {
+		List<Key> keys1 = new ArrayList<Key>();
+		List<Key> keys2 = new ArrayList<Key>();
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 0; i < 300; i++) {
+			keys1.add(new Key(i));
+			keys2.add(new Key(-i));
+			values.add(new Object());
+			cache.put(keys1.get(i), keys2.get(i), values.get(i));
+		}
+		assertEquals(300, cache.size());
+		// the first key, the second key or the value of three entries out of four are no longer used
+		for (int i = 0; i < 300; i += 4) {
+			keys1.set(i, null);
+			keys2.set(i + 1, null);
+			values.set(i + 2, null);
+		}
+		collect(75);
+		for (int i = 0; i < 300; i++) {
+			if ((keys1.get(i) != null) && (keys2.get(i) != null) && (values.get(i) != null)) {
+				assertEquals(values.get(i), cache.get(keys1.get(i), keys2.get(i)));
+			}
+		}
+	}
+
+}
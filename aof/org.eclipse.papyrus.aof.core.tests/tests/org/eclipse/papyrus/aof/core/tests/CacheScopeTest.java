@@ -0,0 +1,220 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IUnaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesUnaryCache;
+import org.junit.After;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class CacheScopeTest extends BaseTest {
+
+	private static class Element {
+	}
+
+	// a scope whose elements are the instances of Element
+	private static class ElementScope extends CacheScope {
+
+		private static ElementScope openElementScope() {
+			return (ElementScope) new ElementScope().makeCurrent();
+		}
+
+		@Override
+		protected boolean isElement(Object object) {
+			return object instanceof Element;
+		}
+
+	}
+
+	private static IUnaryFunction<Integer, IBox<Integer>> singleton = new IUnaryFunction<Integer, IBox<Integer>>() {
+		@Override
+		public IBox<Integer> apply(Integer i) {
+			return factory.createOne(i);
+		}
+	};
+
+	private IBinaryCache<Object, Object, Object> globalCache = new WeakKeysWeakValuesFlatBinaryCache<Object, Object, Object>();
+
+	@After
+	public void closeScopes() {
+		while (CacheScope.getCurrent() != null) {
+			CacheScope.getCurrent().close();
+		}
+	}
+
+	// collects until the referent has the expected collected state
+	private void collect(WeakReference<?> reference, boolean expectedCollected) throws InterruptedException {
+		for (int i = 0; (i < 100) && ((reference.get() == null) != expectedCollected); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(expectedCollected, reference.get() == null);
+	}
+
+	// Opening and closing
+
+	@Test
+	public void testScopedCacheWithoutScope() {
+		assertEquals(null, CacheScope.getCurrent());
+		assertSame(globalCache, CacheScope.scoped(globalCache));
+		IUnaryCache<Object, Object> unaryCache = new WeakKeysWeakValuesUnaryCache<Object, Object>();
+		assertSame(unaryCache, CacheScope.scoped(unaryCache));
+	}
+
+	@Test
+	public void testScopedCacheWithinScope() {
+		Object key1 = new Object();
+		Object key2 = new Object();
+		globalCache.put(key1, key2, "global");
+		CacheScope scope = CacheScope.open();
+		IBinaryCache<Object, Object, Object> scopedCache = CacheScope.scoped(globalCache);
+		assertNotSame(globalCache, scopedCache);
+		assertSame(scopedCache, CacheScope.scoped(globalCache));
+		assertEquals(null, scopedCache.get(key1, key2));
+		scopedCache.put(key1, key2, "scoped");
+		assertEquals("scoped", scopedCache.get(key1, key2));
+		scope.close();
+		assertTrue(scope.isClosed());
+		assertSame(globalCache, CacheScope.scoped(globalCache));
+		assertEquals("global", globalCache.get(key1, key2));
+	}
+
+	@Test
+	public void testNestedScopes() {
+		CacheScope outer = CacheScope.open();
+		IBinaryCache<Object, Object, Object> outerCache = CacheScope.scoped(globalCache);
+		CacheScope inner = CacheScope.open();
+		assertSame(inner, CacheScope.getCurrent());
+		assertNotSame(outerCache, CacheScope.scoped(globalCache));
+		inner.close();
+		assertSame(outer, CacheScope.getCurrent());
+		assertSame(outerCache, CacheScope.scoped(globalCache));
+		outer.close();
+		assertEquals(null, CacheScope.getCurrent());
+	}
+
+	// the scope opened by a thread is not the current one of other threads
+	@Test
+	public void testScopePerThread() throws InterruptedException {
+		final CacheScope scope = CacheScope.open();
+		final IBinaryCache<Object, Object, Object> scopedCache = CacheScope.scoped(globalCache);
+		final Object[] seen = new Object[2];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				seen[0] = CacheScope.getCurrent();
+				CacheScope other = CacheScope.open();
+				seen[1] = CacheScope.scoped(globalCache);
+				other.close();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(null, seen[0]);
+		assertNotSame(scopedCache, seen[1]);
+		assertSame(scope, CacheScope.getCurrent());
+		assertSame(scopedCache, CacheScope.scoped(globalCache));
+	}
+
+	@Test
+	public void testCloseOutOfOrder() {
+		CacheScope outer = CacheScope.open();
+		CacheScope.open();
+		thrown.expect(IllegalStateException.class);
+		outer.close();
+	}
+
+	// Operation caches
+
+	@Test
+	public void testCollectMutableWithinScope() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<Integer> globalResult = a.collectMutable(singleton);
+		assertSame(globalResult, a.collectMutable(singleton));
+		CacheScope scope = CacheScope.open();
+		IBox<Integer> scopedResult = a.collectMutable(singleton);
+		assertNotSame(globalResult, scopedResult);
+		assertSame(scopedResult, a.collectMutable(singleton));
+		assertEquals(factory.createSequence(1, 2, 3), scopedResult);
+		scope.close();
+		assertSame(globalResult, a.collectMutable(singleton));
+	}
+
+	// Demotion
+
+	@Test
+	public void testDemotion() throws InterruptedException {
+		ElementScope scope = ElementScope.openElementScope();
+		IBinaryCache<Object, Object, Object> cache = CacheScope.scoped(globalCache);
+		Element element = new Element();
+		Object key = new Object();
+		Object value = new Object();
+		WeakReference<Object> valueReference = new WeakReference<Object>(value);
+		cache.put(element, key, value);
+		value = null;
+		// the entry is strongly held before demotion
+		collect(valueReference, false);
+		assertSame(valueReference.get(), cache.get(element, key));
+		scope.demote(element);
+		// the entry is weakly held once demoted, but still found while its value is used
+		value = valueReference.get();
+		assertSame(value, cache.get(element, key));
+		value = null;
+		collect(valueReference, true);
+		assertEquals(null, cache.get(element, key));
+		scope.close();
+	}
+
+	@Test
+	public void testDemotionOfNonElement() throws InterruptedException {
+		ElementScope scope = ElementScope.openElementScope();
+		IBinaryCache<Object, Object, Object> cache = CacheScope.scoped(globalCache);
+		Object key1 = new Object();
+		Object key2 = new Object();
+		Object value = new Object();
+		WeakReference<Object> valueReference = new WeakReference<Object>(value);
+		cache.put(key1, key2, value);
+		value = null;
+		scope.demote(key1);
+		collect(valueReference, false);
+		assertSame(valueReference.get(), cache.get(key1, key2));
+		scope.close();
+	}
+
+	@Test
+	public void testDemotionOfBothKeys() {
+		ElementScope scope = ElementScope.openElementScope();
+		IBinaryCache<Object, Object, Object> cache = CacheScope.scoped(globalCache);
+		Element element1 = new Element();
+		Element element2 = new Element();
+		Object value = new Object();
+		cache.put(element1, element2, value);
+		scope.demote(element2);
+		scope.demote(element1);
+		assertSame(value, cache.get(element1, element2));
+		scope.close();
+	}
+
+}
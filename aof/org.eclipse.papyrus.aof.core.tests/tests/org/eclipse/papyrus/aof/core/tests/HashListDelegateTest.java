@@ -0,0 +1,133 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.BaseFactory;
+import org.eclipse.papyrus.aof.core.impl.HashListDelegate;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class HashListDelegateTest extends BaseTest {
+
+	private static IUnaryFunction<Integer, Integer> identity = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i;
+		}
+	};
+
+	private Random random = new Random(0);
+
+	private IBox<Integer> createOrderedSet() {
+		return ((BaseFactory) factory).createBox(IConstraints.ORDERED_SET, new HashListDelegate<Integer>());
+	}
+
+	private static List<Integer> toList(IBox<Integer> box) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer element : box) {
+			list.add(element);
+		}
+		return list;
+	}
+
+	// the copy (a sequence) checks that the notified changes are consistent with the contents of the box
+	private void check(List<Integer> expected, IBox<Integer> box, IBox<Integer> copy) {
+		assertEquals(expected, toList(box));
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), box.get(i));
+			assertEquals(i, box.indexOf(expected.get(i)));
+		}
+		assertEquals(expected, toList(copy));
+	}
+
+	// removals at both ends shift all the remaining elements
+	@Test
+	public void testAlternatingRemovals() {
+		IBox<Integer> box = createOrderedSet();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			box.add(i);
+			expected.add(i);
+		}
+		IBox<Integer> copy = box.collect(identity);
+		for (int i = 0; i < 40; i++) {
+			box.remove(i);
+			expected.remove((Integer) i);
+			box.remove(99 - i);
+			expected.remove((Integer) (99 - i));
+			assertEquals(0, box.indexOf(i + 1));
+			assertEquals(expected.size() - 1, box.indexOf(98 - i));
+		}
+		check(expected, box, copy);
+	}
+
+	@Test
+	public void testSetAndMove() {
+		IBox<Integer> box = createOrderedSet();
+		box.assign(1, 2, 3, 4);
+		IBox<Integer> copy = box.collect(identity);
+		box.set(1, 5);
+		assertEquals(-1, box.indexOf(2));
+		box.move(0, 3);
+		check(Arrays.asList(4, 1, 5, 3), box, copy);
+		assertEquals(false, box.contains(2));
+	}
+
+	@Test
+	public void testRandomMutations() {
+		IBox<Integer> box = createOrderedSet();
+		IBox<Integer> copy = box.collect(identity);
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 3000; i++) {
+			int choice = random.nextInt(10);
+			if ((box.length() == 0) || (choice < 4)) {
+				int index = random.nextInt(box.length() + 1);
+				box.add(index, i);
+				expected.add(index, i);
+			} else if (choice < 6) {
+				Integer element = expected.get(random.nextInt(expected.size()));
+				box.remove(element);
+				expected.remove(element);
+			} else if (choice < 7) {
+				int index = random.nextInt(box.length());
+				box.removeAt(index);
+				expected.remove(index);
+			} else if (choice < 8) {
+				int index = random.nextInt(box.length());
+				box.set(index, -i);
+				expected.set(index, -i);
+			} else {
+				int newIndex = random.nextInt(box.length());
+				int oldIndex = random.nextInt(box.length());
+				box.move(newIndex, oldIndex);
+				expected.add(newIndex, expected.remove(oldIndex));
+			}
+			if (i % 100 == 0) {
+				check(expected, box, copy);
+			}
+		}
+		check(expected, box, copy);
+		box.clear();
+		expected.clear();
+		check(expected, box, copy);
+	}
+
+}
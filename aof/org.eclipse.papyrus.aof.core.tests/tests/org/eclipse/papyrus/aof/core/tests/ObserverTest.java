@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.tests;
 
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -18,6 +22,7 @@ import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.junit.Assume;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
@@ -130,6 +135,60 @@ public class ObserverTest extends BaseTest {
 	}
 
 
+	@Test
+	public void testObserverRemoveFirstObserverOnSeq() {
+		testObserverRemoveFirstObserver(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testObserverRemoveFirstObserverOnOne() {
+		testObserverRemoveFirstObserver(IConstraints.ONE);
+	}
+
+	// the remaining observers keep their order, and are still notified
+	public void testObserverRemoveFirstObserver(IConstraints inputType) {
+		IBox<Integer> box = factory.createBox(inputType, 1);
+		TraceObserver first = new TraceObserver();
+		TraceObserver second = new TraceObserver();
+		TraceObserver third = new TraceObserver();
+		box.addObserver(first);
+		box.addObserver(second);
+		box.addObserver(third);
+		box.removeObserver(first);
+		assertEquals(Arrays.asList(second, third), box.getObservers());
+		box.set(0, 2);
+		box.removeObserver(second);
+		box.addObserver(first);
+		assertEquals(Arrays.asList(third, first), box.getObservers());
+		box.set(0, 3);
+		assertEquals(Arrays.asList("rep", 0, 2, 3), first.getTrace());
+		assertEquals(Arrays.asList("rep", 0, 1, 2), second.getTrace());
+		assertEquals(Arrays.asList("rep", 0, 1, 2, "rep", 0, 2, 3), third.getTrace());
+	}
+
+	// observers added or removed during a notification are only taken into account for the next ones
+	@Test
+	public void testObserverRemoveDuringNotification() {
+		final IBox<Integer> box = factory.createOne(0);
+		final TraceObserver second = new TraceObserver();
+		final TraceObserver third = new TraceObserver();
+		box.addObserver(new TraceObserver() {
+			@Override
+			public void replaced(int index, Integer newElement, Integer oldElement) {
+				if (newElement == 1) {
+					box.removeObserver(second);
+					box.addObserver(third);
+				}
+			}
+		});
+		box.addObserver(second);
+		box.set(0, 1);
+		box.set(0, 2);
+		assertEquals(Arrays.asList("rep", 0, 0, 1), second.getTrace());
+		assertEquals(Arrays.asList("rep", 0, 1, 2), third.getTrace());
+	}
+
+
 	// Addition observation
 
 	@Test
@@ -310,4 +369,97 @@ public class ObserverTest extends BaseTest {
 		assertEquals(Arrays.asList(expectedTrace), observer.getTrace());
 	}
 
+	// Observers added/removed during notification
+
+	@Test
+	public void testObserverAddRemoveDuringNotification() {
+		IBox<Integer> box = factory.createSequence();
+		final TraceObserver addedObserver = new TraceObserver();
+		final TraceObserver removedObserver = new TraceObserver();
+		final IBox<Integer> observedBox = box;
+		box.addObserver(new TraceObserver() {
+			@Override
+			public void added(int index, Integer element) {
+				observedBox.addObserver(addedObserver);
+				observedBox.removeObserver(removedObserver);
+			}
+		});
+		box.addObserver(removedObserver);
+		box.add(1);
+		// the notification in progress still reaches the removed observer but not the added one
+		assertEquals(Arrays.asList("add", 0, 1), removedObserver.getTrace());
+		assertEquals(Arrays.asList(), addedObserver.getTrace());
+	}
+
+	// Notification allocations
+
+	private static class CountObserver extends DefaultObserver<Integer> {
+
+		private int count;
+
+		@Override
+		public void added(int index, Integer element) {
+			count++;
+		}
+
+		@Override
+		public void removed(int index, Integer element) {
+			count++;
+		}
+
+		@Override
+		public void replaced(int index, Integer newElement, Integer oldElement) {
+			count++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, Integer element) {
+			count++;
+		}
+	}
+
+	// per-thread allocation counter of HotSpot VMs, if available (com.sun.management.ThreadMXBean)
+	private static Method allocatedBytesMethod;
+
+	private static long allocatedBytes() {
+		try {
+			return (Long) allocatedBytesMethod.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void testObserverNotificationDoesNotAllocate() throws Exception {
+		try {
+			allocatedBytesMethod = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+			allocatedBytesMethod.setAccessible(true);
+			allocatedBytes();
+		} catch (Exception e) {
+			Assume.assumeNoException(e);
+		}
+		IBox<Integer> box = factory.createSequence(0, 0, 0);
+		CountObserver[] observers = new CountObserver[3];
+		for (int i = 0; i < observers.length; i++) {
+			observers[i] = new CountObserver();
+			box.addObserver(observers[i]);
+		}
+		int count = 10000;
+		for (int i = 0; i < count; i++) { // warm up
+			box.set(i % 3, i % 100);
+			box.move(i % 3, (i + 1) % 3);
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < count; i++) {
+			box.set(i % 3, i % 100);
+			box.move(i % 3, (i + 1) % 3);
+		}
+		long allocated = allocatedBytes() - before;
+		// a few bytes are tolerated for the measurement itself, copying the observer list would take ~1 MB
+		assertTrue("Notifications allocated " + allocated + " bytes", allocated < count);
+		for (CountObserver observer : observers) {
+			assertEquals(4 * count, observer.count);
+		}
+	}
+
 }
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBoolOne;
+import org.eclipse.papyrus.aof.core.IBoolSequence;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
+import org.eclipse.papyrus.aof.core.IIntObserver;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.IIntSequence;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class PrimitiveBoxTest extends BaseTest {
+
+	// applies unboxed notifications to a copy of the box contents
+	private static class IntMirrorObserver implements IIntObserver {
+
+		private List<Integer> mirror = new ArrayList<Integer>();
+
+		@Override
+		public void added(int index, int element) {
+			mirror.add(index, element);
+		}
+
+		@Override
+		public void removed(int index, int element) {
+			org.junit.Assert.assertEquals(element, (int) mirror.remove(index));
+		}
+
+		@Override
+		public void replaced(int index, int newElement, int oldElement) {
+			org.junit.Assert.assertEquals(oldElement, (int) mirror.set(index, newElement));
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, int element) {
+			mirror.add(newIndex, mirror.remove(oldIndex));
+		}
+	}
+
+	// applies regular notifications to a copy of the box contents
+	private static class MirrorObserver<E> extends DefaultObserver<E> {
+
+		private List<E> mirror = new ArrayList<E>();
+
+		@Override
+		public void added(int index, E element) {
+			mirror.add(index, element);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			mirror.remove(index);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			mirror.set(index, newElement);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			mirror.add(newIndex, mirror.remove(oldIndex));
+		}
+	}
+
+	// Sequences
+
+	@Test
+	public void testCreateIntSequence() {
+		IIntSequence a = factory.createIntSequence(1, 2, 2, 3);
+		assertEquals(factory.createSequence(1, 2, 2, 3), a);
+		assertEquals(2, a.getInt(2));
+		assertEquals(1, a.indexOf(2));
+		assertEquals(-1, a.indexOf(null));
+	}
+
+	@Test
+	public void testRandomMutationsOnIntSequence() {
+		Random random = new Random(0);
+		IIntSequence a = factory.createIntSequence();
+		IntMirrorObserver intObserver = new IntMirrorObserver();
+		MirrorObserver<Integer> observer = new MirrorObserver<Integer>();
+		a.addIntObserver(intObserver);
+		a.addObserver(observer);
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			int choice = random.nextInt(6);
+			int element = random.nextInt(1000);
+			if (expected.isEmpty() || (choice == 0)) {
+				int index = random.nextInt(expected.size() + 1);
+				a.addInt(index, element);
+				expected.add(index, element);
+			} else if (choice == 1) {
+				a.add(element);
+				expected.add(element);
+			} else if (choice == 2) {
+				int index = random.nextInt(expected.size());
+				a.removeAt(index);
+				expected.remove(index);
+			} else if (choice == 3) {
+				int index = random.nextInt(expected.size());
+				a.setInt(index, element);
+				expected.set(index, element);
+			} else {
+				int newIndex = random.nextInt(expected.size());
+				int oldIndex = random.nextInt(expected.size());
+				a.move(newIndex, oldIndex);
+				expected.add(newIndex, expected.remove(oldIndex));
+			}
+		}
+		assertEquals(expected, a);
+		assertEquals(expected, intObserver.mirror);
+		assertEquals(expected, observer.mirror);
+	}
+
+	@Test
+	public void testRemoveIntObserver() {
+		IIntSequence a = factory.createIntSequence(1, 2);
+		IntMirrorObserver observer = new IntMirrorObserver();
+		observer.mirror.addAll(Arrays.asList(1, 2));
+		a.addIntObserver(observer);
+		a.addInt(3);
+		a.removeIntObserver(observer);
+		a.addInt(4);
+		assertEquals(Arrays.asList(1, 2, 3), observer.mirror);
+		org.junit.Assert.assertFalse(a.isObserved());
+	}
+
+	@Test
+	public void testDoubleSequence() {
+		IDoubleSequence a = factory.createDoubleSequence(1.5, Double.NaN, -0.0);
+		assertEquals(factory.createSequence(1.5, Double.NaN, -0.0), a);
+		// same equality as Double.equals
+		assertEquals(1, a.indexOf(Double.NaN));
+		assertEquals(-1, a.indexOf(0.0));
+		a.addDouble(0, 2.5);
+		assertEquals(2.5, a.getDouble(0));
+	}
+
+	@Test
+	public void testBoolSequence() {
+		IBoolSequence a = factory.createBoolSequence(true, false);
+		a.addBool(true);
+		a.setBool(1, true);
+		assertEquals(factory.createSequence(true, true, true), a);
+		assertEquals(-1, a.indexOf(false));
+	}
+
+	@Test
+	public void testSnapshotOfIntSequence() {
+		IIntSequence a = factory.createIntSequence(1, 2, 3);
+		IBox<Integer> b = a.snapshot();
+		org.junit.Assert.assertTrue(b instanceof IIntSequence);
+		a.addInt(4);
+		assertEquals(factory.createSequence(1, 2, 3), b);
+	}
+
+	@Test
+	public void testAssignOnIntSequence() {
+		IIntSequence a = factory.createIntSequence(1, 2, 3, 4);
+		IntMirrorObserver observer = new IntMirrorObserver();
+		observer.mirror.addAll(Arrays.asList(1, 2, 3, 4));
+		a.addIntObserver(observer);
+		a.assign(1, 5, 3);
+		assertEquals(factory.createSequence(1, 5, 3), a);
+		assertEquals(Arrays.asList(1, 5, 3), observer.mirror);
+	}
+
+	// Ones
+
+	@Test
+	public void testIntOne() {
+		IIntOne a = factory.createIntOne(3);
+		IntMirrorObserver observer = new IntMirrorObserver();
+		observer.mirror.add(3);
+		a.addIntObserver(observer);
+		assertEquals(3, a.getInt());
+		a.setInt(5);
+		assertEquals(5, a.getInt());
+		assertEquals(factory.createOne(3, 5), a);
+		a.clear();
+		assertEquals(3, a.getInt());
+		a.set(7);
+		assertEquals(Arrays.asList(7), observer.mirror);
+		org.junit.Assert.assertTrue(a.snapshot() instanceof IIntOne);
+	}
+
+	@Test
+	public void testDoubleOne() {
+		IDoubleOne a = factory.createDoubleOne(1.0);
+		a.setDouble(2.5);
+		assertEquals(2.5, a.get());
+		a.clear();
+		assertEquals(1.0, a.getDouble());
+	}
+
+	@Test
+	public void testBoolOne() {
+		IBoolOne a = factory.createBoolOne(true);
+		MirrorObserver<Boolean> observer = new MirrorObserver<Boolean>();
+		observer.mirror.add(true);
+		a.addObserver(observer);
+		a.setBool(false);
+		assertEquals(false, a.getBool());
+		assertEquals(Arrays.asList(false), observer.mirror);
+	}
+
+	// Cardinality operations produce unboxed ones
+
+	@Test
+	public void testSizeIsIntOne() {
+		IBox<String> a = factory.createOrderedSet("a", "b");
+		IIntOne size = (IIntOne) a.size();
+		IBoolOne isEmpty = (IBoolOne) a.isEmpty();
+		IBoolOne notEmpty = (IBoolOne) a.notEmpty();
+		a.add("c");
+		assertEquals(3, size.getInt());
+		a.clear();
+		assertEquals(0, size.getInt());
+		assertEquals(true, isEmpty.getBool());
+		assertEquals(false, notEmpty.getBool());
+	}
+
+}
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.tests;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.junit.FixMethodOrder;
@@ -359,4 +363,49 @@ public class ReadableTest extends BaseTest {
 		assertEquals(found, box.contains(elementToSearchFor));
 	}
 
+	// Search after mutations (indices of unique boxes are maintained lazily)
+
+	@Test
+	public void testReadableForSearchAfterMutationsOnOSet() {
+		testReadableForSearchAfterMutations(IConstraints.ORDERED_SET);
+	}
+
+	@Test
+	public void testReadableForSearchAfterMutationsOnSet() {
+		testReadableForSearchAfterMutations(IConstraints.SET);
+	}
+
+	public void testReadableForSearchAfterMutations(IConstraints inputType) {
+		Random random = new Random(0);
+		IBox<Integer> box = factory.createBox(inputType);
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			int choice = random.nextInt(5);
+			if ((expected.size() == 0) || (choice < 2)) {
+				int index = random.nextInt(expected.size() + 1);
+				box.add(index, i);
+				expected.add(index, i);
+			} else if (choice == 2) {
+				int index = random.nextInt(expected.size());
+				box.removeAt(index);
+				expected.remove(index);
+			} else if (choice == 3) {
+				int index = random.nextInt(expected.size());
+				box.set(index, -i);
+				expected.set(index, -i);
+			} else {
+				int newIndex = random.nextInt(expected.size());
+				int oldIndex = random.nextInt(expected.size());
+				box.move(newIndex, oldIndex);
+				expected.add(newIndex, expected.remove(oldIndex));
+			}
+			Integer element = random.nextInt(i + 1) * (random.nextBoolean() ? 1 : -1);
+			assertEquals(expected.indexOf(element), box.indexOf(element));
+			assertEquals(expected.contains(element), box.contains(element));
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(i, box.indexOf(expected.get(i)));
+		}
+	}
+
 }
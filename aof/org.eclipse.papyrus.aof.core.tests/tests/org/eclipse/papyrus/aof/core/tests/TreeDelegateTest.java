@@ -0,0 +1,134 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.BaseDelegate;
+import org.eclipse.papyrus.aof.core.impl.BaseFactory;
+import org.eclipse.papyrus.aof.core.impl.ListDelegate;
+import org.eclipse.papyrus.aof.core.impl.TreeDelegate;
+import org.eclipse.papyrus.aof.core.impl.utils.TreeList;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TreeDelegateTest extends BaseTest {
+
+	// a list delegate switching to a tree beyond a small length
+	private static class SmallThresholdDelegate<E> extends ListDelegate<E> {
+
+		private SmallThresholdDelegate() {
+			super(64);
+		}
+
+	}
+
+	private static IUnaryFunction<Integer, Integer> identity = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i;
+		}
+	};
+
+	private Random random = new Random(0);
+
+	// reference implementation
+	private List<Integer> expected = new ArrayList<Integer>();
+
+	private IBox<Integer> createSequence(BaseDelegate<Integer> delegate) {
+		return ((BaseFactory) factory).createBox(IConstraints.SEQUENCE, delegate);
+	}
+
+	private void mutate(IBox<Integer> box, int count, int addPercentage) {
+		for (int i = 0; i < count; i++) {
+			int choice = random.nextInt(100);
+			int length = expected.size();
+			if ((length == 0) || (choice < addPercentage)) {
+				int index = random.nextInt(length + 1);
+				box.add(index, i);
+				expected.add(index, i);
+			} else if (choice < addPercentage + (100 - addPercentage) / 2) {
+				int index = random.nextInt(length);
+				box.removeAt(index);
+				expected.remove(index);
+			} else if (choice % 2 == 0) {
+				int index = random.nextInt(length);
+				box.set(index, -i);
+				expected.set(index, -i);
+			} else {
+				int newIndex = random.nextInt(length);
+				int oldIndex = random.nextInt(length);
+				box.move(newIndex, oldIndex);
+				expected.add(newIndex, expected.remove(oldIndex));
+			}
+		}
+	}
+
+	private void check(IBox<Integer> box, IBox<Integer> copy) {
+		assertEquals(expected.size(), box.length());
+		assertEquals(expected, box);
+		assertEquals(box, copy);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), box.get(i));
+			assertEquals(expected.indexOf(expected.get(i)), box.indexOf(expected.get(i)));
+		}
+	}
+
+	@Test
+	public void testTreeDelegate() {
+		IBox<Integer> box = createSequence(new TreeDelegate<Integer>());
+		IBox<Integer> copy = box.collect(identity);
+		mutate(box, 2000, 60);
+		check(box, copy);
+		mutate(box, 2000, 30);
+		check(box, copy);
+	}
+
+	@Test
+	public void testListDelegateAcrossThreshold() {
+		IBox<Integer> box = createSequence(new SmallThresholdDelegate<Integer>());
+		IBox<Integer> copy = box.collect(identity);
+		// grows beyond the threshold...
+		mutate(box, 1000, 80);
+		check(box, copy);
+		// ...then shrinks below a quarter of it, and grows again
+		mutate(box, 1000, 10);
+		check(box, copy);
+		mutate(box, 1000, 80);
+		check(box, copy);
+	}
+
+	@Test
+	public void testTreeList() {
+		TreeList<Integer> list = new TreeList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			int index = random.nextInt(list.size() + 1);
+			list.add(index, i);
+			expected.add(index, i);
+		}
+		list.move(10, 90);
+		expected.add(10, expected.remove(90));
+		assertEquals(expected, list);
+		assertEquals(expected, new TreeList<Integer>(expected));
+		assertEquals(expected.indexOf(42), list.indexOf(42));
+		assertEquals(-1, list.indexOf(100));
+		list.clear();
+		assertEquals(0, list.size());
+	}
+
+}
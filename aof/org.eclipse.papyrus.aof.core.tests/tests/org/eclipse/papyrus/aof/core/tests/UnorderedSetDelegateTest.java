@@ -0,0 +1,112 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.BaseFactory;
+import org.eclipse.papyrus.aof.core.impl.UnorderedSetDelegate;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class UnorderedSetDelegateTest extends BaseTest {
+
+	private static IUnaryFunction<Integer, Integer> identity = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i;
+		}
+	};
+
+	private Random random = new Random(0);
+
+	private IBox<Integer> createSet() {
+		return ((BaseFactory) factory).createBox(IConstraints.SET, new UnorderedSetDelegate<Integer>());
+	}
+
+	private static List<Integer> toList(IBox<Integer> box) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer element : box) {
+			list.add(element);
+		}
+		return list;
+	}
+
+	// the copy (a bag) checks that the notified changes are consistent with the contents of the box
+	private void check(Set<Integer> expected, IBox<Integer> box, IBox<Integer> copy) {
+		assertEquals(expected.size(), box.length());
+		for (int i = 0; i < box.length(); i++) {
+			assertTrue(expected.contains(box.get(i)));
+			assertEquals(i, box.indexOf(box.get(i)));
+		}
+		assertEquals(toList(box), copy);
+	}
+
+	@Test
+	public void testRemove() {
+		IBox<Integer> box = createSet();
+		box.assign(1, 2, 3, 4);
+		IBox<Integer> copy = box.collect(identity);
+		box.remove(2);
+		assertEquals(Arrays.asList(1, 4, 3), box);
+		box.remove(3);
+		assertEquals(Arrays.asList(1, 4), box);
+		assertEquals(toList(box), copy);
+		assertEquals(-1, box.indexOf(2));
+	}
+
+	@Test
+	public void testRandomMutations() {
+		IBox<Integer> box = createSet();
+		IBox<Integer> copy = box.collect(identity);
+		Set<Integer> expected = new HashSet<Integer>();
+		List<Integer> candidates = new ArrayList<Integer>();
+		for (int i = 0; i < 3000; i++) {
+			int choice = random.nextInt(10);
+			if ((box.length() == 0) || (choice < 5)) {
+				box.add(i);
+				expected.add(i);
+				candidates.add(i);
+			} else if (choice < 8) {
+				Integer element = box.get(random.nextInt(box.length()));
+				box.remove(element);
+				expected.remove(element);
+			} else if (choice < 9) {
+				int index = random.nextInt(box.length());
+				expected.remove(box.get(index));
+				box.removeAt(index);
+			} else {
+				box.move(random.nextInt(box.length()), random.nextInt(box.length()));
+			}
+		}
+		check(expected, box, copy);
+		box.assign(candidates.subList(0, 100));
+		expected.clear();
+		expected.addAll(candidates.subList(0, 100));
+		check(expected, box, copy);
+		box.clear();
+		expected.clear();
+		check(expected, box, copy);
+	}
+
+}
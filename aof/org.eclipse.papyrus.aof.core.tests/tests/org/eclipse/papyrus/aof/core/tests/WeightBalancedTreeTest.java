@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class WeightBalancedTreeTest extends BaseTest {
+
+	private Random random = new Random(0);
+
+	private WeightBalancedTree<Integer> tree = new WeightBalancedTree<Integer>();
+
+	// reference implementation: values and weights in two parallel lists
+	private List<Integer> values = new ArrayList<Integer>();
+
+	private List<Integer> weights = new ArrayList<Integer>();
+
+	private void add(int index, int value, int weight) {
+		tree.add(index, value, weight);
+		values.add(index, value);
+		weights.add(index, weight);
+	}
+
+	private void check() {
+		assertEquals(values.size(), tree.size());
+		assertEquals(values, tree);
+		int sum = 0;
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(values.get(i), tree.get(i));
+			assertEquals(sum, tree.weightBefore(i));
+			assertEquals(sum, tree.weightBefore(tree.getNode(i)));
+			assertEquals(i, tree.indexOf(tree.getNode(i)));
+			for (int w = 0; w < weights.get(i); w++) {
+				assertEquals(i, tree.indexOfWeight(sum + w));
+			}
+			sum += weights.get(i);
+		}
+		assertEquals(sum, tree.totalWeight());
+		assertEquals(-1, tree.indexOfWeight(sum));
+	}
+
+	@Test
+	public void testAddAtEnd() {
+		for (int i = 0; i < 100; i++) {
+			add(i, i, i % 2);
+		}
+		check();
+	}
+
+	@Test
+	public void testAddAtStart() {
+		for (int i = 0; i < 100; i++) {
+			add(0, i, 1);
+		}
+		check();
+	}
+
+	@Test
+	public void testRemove() {
+		for (int i = 0; i < 100; i++) {
+			add(i, i, 1);
+		}
+		for (int i = 0; i < 50; i++) {
+			int index = random.nextInt(values.size());
+			tree.removeAt(index);
+			values.remove(index);
+			weights.remove(index);
+		}
+		check();
+	}
+
+	@Test
+	public void testNodeIdentity() {
+		for (int i = 0; i < 100; i++) {
+			add(i, i, 1);
+		}
+		WeightBalancedTree.Node<Integer> node = tree.getNode(42);
+		for (int i = 0; i < 20; i++) {
+			tree.removeAt(0);
+			values.remove(0);
+			weights.remove(0);
+			add(values.size(), 100 + i, 0);
+		}
+		tree.setWeight(node, 3);
+		weights.set(22, 3);
+		assertEquals(22, tree.indexOf(node));
+		assertEquals(Integer.valueOf(42), node.getValue());
+		check();
+	}
+
+	@Test
+	public void testMove() {
+		for (int i = 0; i < 50; i++) {
+			add(i, i, i % 3);
+		}
+		WeightBalancedTree.Node<Integer> node = tree.getNode(10);
+		tree.move(40, 10);
+		values.add(40, values.remove(10));
+		weights.add(40, weights.remove(10));
+		assertEquals(40, tree.indexOf(node));
+		check();
+	}
+
+	@Test
+	public void testRandomMutations() {
+		for (int i = 0; i < 2000; i++) {
+			int size = values.size();
+			int choice = random.nextInt(5);
+			if ((size == 0) || (choice < 2)) {
+				add(random.nextInt(size + 1), i, random.nextInt(3));
+			} else if (choice == 2) {
+				int index = random.nextInt(size);
+				tree.removeAt(index);
+				values.remove(index);
+				weights.remove(index);
+			} else if (choice == 3) {
+				int newIndex = random.nextInt(size);
+				int oldIndex = random.nextInt(size);
+				tree.move(newIndex, oldIndex);
+				values.add(newIndex, values.remove(oldIndex));
+				weights.add(newIndex, weights.remove(oldIndex));
+			} else {
+				int index = random.nextInt(size);
+				int weight = random.nextInt(3);
+				tree.setWeight(tree.getNode(index), weight);
+				weights.set(index, weight);
+			}
+		}
+		check();
+	}
+
+}
@@ -13,9 +13,11 @@ package org.eclipse.papyrus.aof.core.tests;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
@@ -28,6 +30,14 @@ public class WritableTest extends BaseTest {
 		return new ArrayList<Integer>(Arrays.asList(elements));
 	}
 
+	private List<Integer> toJavaList(IBox<Integer> box) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer element : box) {
+			list.add(element);
+		}
+		return list;
+	}
+
 	// Add
 
 	@Test
@@ -796,4 +806,230 @@ public class WritableTest extends BaseTest {
 		assertEquals(box.isOptional() ? 0 : 1, box.length());
 	}
 
+	// Add all
+
+	@Test
+	public void testWritableForAddAllOnSeq() {
+		testWritableForAddAll(IConstraints.SEQUENCE, 2, Arrays.asList(5, 2, 5), 1, 2, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForAddAllOnBag() {
+		testWritableForAddAll(IConstraints.BAG, 0, Arrays.asList(5, 2, 5), 1, 2, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForAddAllOnSet() {
+		testWritableForAddAll(IConstraints.SET, 4, Arrays.asList(5, 6, 7), 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForAddAllOnOSet() {
+		testWritableForAddAll(IConstraints.ORDERED_SET, 1, Arrays.asList(5, 6, 7), 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForAddAllDuplicateOnOSet() {
+		thrown.expect(AssertionError.class);
+		testWritableForAddAll(IConstraints.ORDERED_SET, 1, Arrays.asList(5, 3), 1, 2, 3, 4);
+	}
+
+	public void testWritableForAddAll(IConstraints inputType, int index, List<Integer> elementsToAdd, Integer... elements) {
+		IBox<Integer> box = factory.createBox(inputType, elements);
+		box.addAll(index, elementsToAdd);
+		List<Integer> expected = createJavaList(elements);
+		expected.addAll(index, elementsToAdd);
+		assertEquals(expected, box);
+	}
+
+	// Remove range
+
+	@Test
+	public void testWritableForRemoveRangeOnSeq() {
+		testWritableForRemoveRange(IConstraints.SEQUENCE, 1, 5, 1, 2, 2, 3, 3, 3, 4);
+	}
+
+	@Test
+	public void testWritableForRemoveRangeOnBag() {
+		testWritableForRemoveRange(IConstraints.BAG, 0, 7, 1, 2, 2, 3, 3, 3, 4);
+	}
+
+	@Test
+	public void testWritableForRemoveRangeOnSet() {
+		testWritableForRemoveRange(IConstraints.SET, 2, 2, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForRemoveRangeOnOSet() {
+		testWritableForRemoveRange(IConstraints.ORDERED_SET, 2, 4, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForRemoveRangeOutOfUpperOnSeq() {
+		thrown.expect(AssertionError.class);
+		testWritableForRemoveRange(IConstraints.SEQUENCE, 2, 5, 1, 2, 3, 4);
+	}
+
+	public void testWritableForRemoveRange(IConstraints inputType, int fromIndex, int toIndex, Integer... elements) {
+		IBox<Integer> box = factory.createBox(inputType, elements);
+		box.removeRange(fromIndex, toIndex);
+		List<Integer> expected = createJavaList(elements);
+		expected.subList(fromIndex, toIndex).clear();
+		assertEquals(expected, box);
+	}
+
+	// Assign: only the edit script between the old and the new contents is notified
+
+	// applies the notifications of a box to a copy of its contents, and counts them
+	private class MirrorObserver extends DefaultObserver<Integer> {
+
+		private List<Integer> mirror;
+
+		private int count;
+
+		public MirrorObserver(IBox<Integer> box) {
+			mirror = toJavaList(box);
+			box.addObserver(this);
+		}
+
+		public void added(int index, Integer element) {
+			mirror.add(index, element);
+			count++;
+		}
+
+		public void removed(int index, Integer element) {
+			assertEquals(mirror.remove(index), element);
+			count++;
+		}
+
+		public void replaced(int index, Integer newElement, Integer oldElement) {
+			assertEquals(mirror.set(index, newElement), oldElement);
+			count++;
+		}
+
+		public void moved(int newIndex, int oldIndex, Integer element) {
+			mirror.add(newIndex, mirror.remove(oldIndex));
+			count++;
+		}
+	}
+
+	@Test
+	public void testWritableForAssignEditsOnSeq() {
+		testWritableForAssignEdits(IConstraints.SEQUENCE, createJavaList(1, 2, 9, 4, 6, 7), 3, 1, 2, 3, 4, 5, 6);
+	}
+
+	@Test
+	public void testWritableForAssignEditsOnBag() {
+		testWritableForAssignEdits(IConstraints.BAG, createJavaList(1, 1, 2, 2, 1, 1), 1, 1, 1, 2, 1, 1);
+	}
+
+	@Test
+	public void testWritableForAssignEditsOnOSet() {
+		// the moved element is removed then inserted again
+		testWritableForAssignEdits(IConstraints.ORDERED_SET, createJavaList(4, 1, 2, 3), 2, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testWritableForAssignEditsWithDuplicatesOnOSet() {
+		testWritableForAssignEdits(IConstraints.ORDERED_SET, createJavaList(3, 1, 3, 2, 1), 2, 1, 2, 3);
+	}
+
+	@Test
+	public void testWritableForAssignEditsOnEmptySeq() {
+		testWritableForAssignEdits(IConstraints.SEQUENCE, createJavaList(1, 2, 3), 3);
+	}
+
+	@Test
+	public void testWritableForAssignEditsToEmptySeq() {
+		testWritableForAssignEdits(IConstraints.SEQUENCE, createJavaList(), 3, 1, 2, 3);
+	}
+
+	public void testWritableForAssignEdits(IConstraints inputType, List<Integer> newElements, int expectedCount, Integer... elements) {
+		IBox<Integer> box = factory.createBox(inputType, elements);
+		MirrorObserver observer = new MirrorObserver(box);
+		box.assign(newElements);
+		List<Integer> expected = new ArrayList<Integer>();
+		for (Integer element : newElements) {
+			if (!box.isUnique() || !expected.contains(element)) {
+				expected.add(element);
+			}
+		}
+		assertEquals(expected, box);
+		assertEquals(expected, observer.mirror);
+		assertEquals(expectedCount, observer.count);
+	}
+
+	@Test
+	public void testWritableForAssignFewChangesOnLargeSeq() {
+		List<Integer> elements = new ArrayList<Integer>();
+		for (int i = 0; i < 50000; i++) {
+			elements.add(i);
+		}
+		IBox<Integer> box = factory.createSequence();
+		box.assign(elements);
+		MirrorObserver observer = new MirrorObserver(box);
+		Random random = new Random(0);
+		for (int i = 0; i < 10; i++) {
+			elements.set(random.nextInt(elements.size()), -i);
+		}
+		box.assign(elements);
+		assertEquals(elements, box);
+		assertEquals(elements, observer.mirror);
+		assertEquals(10, observer.count);
+	}
+
+	@Test
+	public void testWritableForAssignAllChangesOnLargeSeq() {
+		List<Integer> elements = new ArrayList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			elements.add(i);
+		}
+		IBox<Integer> box = factory.createSequence();
+		box.assign(elements);
+		MirrorObserver observer = new MirrorObserver(box);
+		for (int i = 0; i < elements.size(); i++) {
+			elements.set(i, -i - 1);
+		}
+		box.assign(elements);
+		assertEquals(elements, box);
+		assertEquals(elements, observer.mirror);
+	}
+
+	@Test
+	public void testWritableForRandomAssignsOnSeq() {
+		testWritableForRandomAssigns(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testWritableForRandomAssignsOnOSet() {
+		testWritableForRandomAssigns(IConstraints.ORDERED_SET);
+	}
+
+	public void testWritableForRandomAssigns(IConstraints inputType) {
+		Random random = new Random(0);
+		IBox<Integer> box = factory.createBox(inputType);
+		MirrorObserver observer = new MirrorObserver(box);
+		for (int i = 0; i < 200; i++) {
+			List<Integer> elements = toJavaList(box);
+			for (int j = random.nextInt(5); j > 0; j--) {
+				if (elements.isEmpty() || random.nextBoolean()) {
+					elements.add(random.nextInt(elements.size() + 1), random.nextInt(20));
+				} else if (random.nextBoolean()) {
+					elements.remove(random.nextInt(elements.size()));
+				} else {
+					elements.set(random.nextInt(elements.size()), random.nextInt(20));
+				}
+			}
+			box.assign(elements);
+			List<Integer> expected = new ArrayList<Integer>();
+			for (Integer element : elements) {
+				if (!box.isUnique() || !expected.contains(element)) {
+					expected.add(element);
+				}
+			}
+			assertEquals(expected, box);
+			assertEquals(expected, observer.mirror);
+		}
+	}
+
 }
@@ -10,13 +10,19 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.tests.operation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
 import org.eclipse.papyrus.aof.core.tests.population.Person;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
@@ -1202,6 +1208,162 @@ public class AOFCollectBoxTest extends CollectBoxTest {
 		// test succeeds if there is no thrown exception
 	}
 
+	// Inner box positions: collector applications and random mutations
 
+	private static class CountingCollector implements IUnaryFunction<IBox<Integer>, IBox<Integer>> {
+
+		private int count;
+
+		@Override
+		public IBox<Integer> apply(IBox<Integer> box) {
+			count++;
+			return (box == null) ? AOFFactory.INSTANCE.<Integer> createSequence() : box;
+		}
+	}
+
+	private List<Integer> flatten(IBox<IBox<Integer>> boxes) {
+		List<Integer> elements = new ArrayList<Integer>();
+		for (IBox<Integer> box : boxes) {
+			for (Integer element : box) {
+				elements.add(element);
+			}
+		}
+		return elements;
+	}
+
+	@Test
+	public void testCollectBoxInnerMutationsDoNotApplyCollector() {
+		List<IBox<Integer>> inners = new ArrayList<IBox<Integer>>();
+		for (int i = 0; i < 100; i++) {
+			inners.add(factory.createSequence(i, i));
+		}
+		IBox<IBox<Integer>> a = factory.createSequence();
+		a.assign(inners);
+		CountingCollector collector = new CountingCollector();
+		IBox<Integer> b = a.collectMutable(collector);
+		int count = collector.count;
+		inners.get(99).add(0, -1);
+		inners.get(50).removeAt(1);
+		inners.get(10).set(0, -2);
+		inners.get(0).move(1, 0);
+		assertEquals(count, collector.count);
+		assertEquals(flatten(a), b);
+	}
+
+	@Test
+	public void testCollectBoxRandomMutations() {
+		Random random = new Random(0);
+		List<IBox<Integer>> inners = new ArrayList<IBox<Integer>>();
+		for (int i = 0; i < 20; i++) {
+			inners.add(factory.<Integer> createSequence());
+		}
+		IBox<IBox<Integer>> a = factory.createSequence();
+		IBox<Integer> b = a.collectMutable(new CountingCollector());
+		for (int i = 0; i < 2000; i++) {
+			IBox<Integer> inner = inners.get(random.nextInt(inners.size()));
+			int choice = random.nextInt(6);
+			if ((choice == 0) || (a.length() == 0)) {
+				a.add(random.nextInt(a.length() + 1), inner);
+			} else if (choice == 1) {
+				a.removeAt(random.nextInt(a.length()));
+			} else if (choice == 2) {
+				if (random.nextBoolean()) {
+					a.move(random.nextInt(a.length()), random.nextInt(a.length()));
+				} else {
+					a.set(random.nextInt(a.length()), inner);
+				}
+			} else if ((choice == 3) || (inner.length() == 0)) {
+				inner.add(random.nextInt(inner.length() + 1), i);
+			} else if (choice == 4) {
+				inner.removeAt(random.nextInt(inner.length()));
+			} else {
+				inner.set(random.nextInt(inner.length()), i);
+			}
+		}
+		assertEquals(flatten(a), b);
+	}
+
+	// Source moves and replacements: inner boxes moved as blocks
+
+	private static class CountObserver extends DefaultObserver<Integer> {
+
+		protected int changes;
+
+		protected int moves;
+
+		@Override
+		public void added(int index, Integer element) {
+			changes++;
+		}
+
+		@Override
+		public void removed(int index, Integer element) {
+			changes++;
+		}
+
+		@Override
+		public void replaced(int index, Integer newElement, Integer oldElement) {
+			changes++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, Integer element) {
+			moves++;
+		}
+
+	}
+
+	private static class BatchCountObserver extends CountObserver implements IBatchObserver<Integer> {
+
+		private int batches;
+
+		@Override
+		public void changed(List<IChange<Integer>> changes) {
+			batches++;
+		}
+	}
+
+	@Test
+	public void testCollectBoxSourceMoveAsBlock() {
+		IBox<Integer> large = factory.createSequence();
+		for (int i = 0; i < 500; i++) {
+			large.add(i);
+		}
+		IBox<IBox<Integer>> a = factory.createSequence(factory.createSequence(-1, -2), large, factory.createSequence(-3));
+		IBox<Integer> b = a.collectMutable(new CountingCollector());
+		CountObserver observer = new CountObserver();
+		BatchCountObserver batchObserver = new BatchCountObserver();
+		b.addObserver(observer);
+		b.addObserver(batchObserver);
+		a.move(2, 1);
+		assertEquals(flatten(a), b);
+		assertEquals(1, batchObserver.batches);
+		assertEquals(0, observer.changes);
+		assertEquals(500, observer.moves);
+		a.move(0, 2);
+		assertEquals(flatten(a), b);
+		assertEquals(2, batchObserver.batches);
+		assertEquals(0, observer.changes);
+		assertEquals(1000, observer.moves);
+	}
+
+	@Test
+	public void testCollectBoxSourceReplaceBySameInnerBox() {
+		final IBox<Integer> inner = factory.createSequence(1, 2, 3);
+		IBox<String> a = factory.createSequence("a", "b");
+		IBox<Integer> b = a.collectMutable(new IUnaryFunction<String, IBox<Integer>>() {
+			@Override
+			public IBox<Integer> apply(String s) {
+				return ((s != null) && s.startsWith("a")) ? inner : AOFFactory.INSTANCE.<Integer> createSequence(4);
+			}
+		});
+		CountObserver observer = new CountObserver();
+		b.addObserver(observer);
+		a.set(0, "aa");
+		assertEquals(0, observer.changes);
+		inner.add(4);
+		assertEquals(Arrays.asList(1, 2, 3, 4, 4), b);
+		assertEquals(1, observer.changes);
+	}
 
 }
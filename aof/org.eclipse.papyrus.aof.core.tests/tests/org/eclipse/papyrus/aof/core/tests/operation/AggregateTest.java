@@ -0,0 +1,253 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - JUnit testing of apply operation on all box types
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests.operation;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
+import org.eclipse.papyrus.aof.core.IIntSequence;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IOption;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests for IBox.count(), min() and max(), and for the sum and average of unboxed boxes
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class AggregateTest extends BaseTest {
+
+	private Random random = new Random(0);
+
+	// Count
+
+	@Test
+	public void testCountOnSequence() {
+		testCount(IConstraints.SEQUENCE, 2);
+	}
+
+	@Test
+	public void testCountOnBag() {
+		testCount(IConstraints.BAG, 2);
+	}
+
+	@Test
+	public void testCountOnOrderedSet() {
+		testCount(IConstraints.ORDERED_SET, 1);
+	}
+
+	@Test
+	public void testCountOnSet() {
+		testCount(IConstraints.SET, 1);
+	}
+
+	public void testCount(IConstraints inputType, int expectedCount) {
+		IBox<Integer> a = factory.createBox(inputType, 1, 2, 2, 3);
+		IOne<Integer> twos = a.count(2);
+		IOne<Integer> fives = a.count(5);
+		assertEquals(factory.createOne(expectedCount), twos);
+		assertEquals(factory.createOne(0), fives);
+		a.add(5);
+		assertEquals(factory.createOne(1), fives);
+		a.remove(2);
+		assertEquals(factory.createOne(expectedCount - 1), twos);
+		a.set(0, 2);
+		assertEquals(factory.createOne(expectedCount), twos);
+		assertEquals(factory.createOne(0), a.count(1));
+	}
+
+	// the multiplicities are shared by all the count operations on a box
+	@Test
+	public void testCountShared() {
+		IBox<String> a = factory.createSequence("a", "b", "a", null);
+		assertSame(a.count("a"), a.count("a"));
+		assertEquals(factory.createOne(1), a.count(null));
+		IBox<String> b = factory.createSequence("a");
+		assertEquals(factory.createOne(1), b.count("a"));
+	}
+
+	@Test
+	public void testCountRandomMutations() {
+		IBox<Integer> a = factory.createSequence();
+		List<IOne<Integer>> counts = new ArrayList<IOne<Integer>>();
+		for (int i = 0; i < 10; i++) {
+			counts.add(a.count(i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			mutate(a, 10);
+		}
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Collections.frequency(toList(a), i), counts.get(i).get(0));
+		}
+	}
+
+	// Min and max
+
+	@Test
+	public void testMinMax() {
+		IBox<Integer> a = factory.createSequence(3, 1, 2);
+		IOption<Integer> min = a.min();
+		IOption<Integer> max = a.max();
+		assertEquals(factory.createOption(1), min);
+		assertEquals(factory.createOption(3), max);
+		a.remove(1);
+		assertEquals(factory.createOption(2), min);
+		a.set(0, 0);
+		assertEquals(factory.createOption(0), min);
+		assertEquals(factory.createOption(2), max);
+		a.clear();
+		assertEquals(factory.createOption(), min);
+		assertEquals(factory.createOption(), max);
+		a.add(4);
+		assertEquals(factory.createOption(4), min);
+		assertEquals(factory.createOption(4), max);
+	}
+
+	@Test
+	public void testMinMaxWithComparator() {
+		Comparator<String> byLength = new Comparator<String>() {
+			@Override
+			public int compare(String s1, String s2) {
+				return s1.length() - s2.length();
+			}
+		};
+		IBox<String> a = factory.createSequence("ccc", "a", "bb", "d");
+		IOption<String> shortest = a.min(byLength);
+		IOption<String> longest = a.max(byLength);
+		// the first one added among equal elements
+		assertEquals(factory.createOption("a"), shortest);
+		assertEquals(factory.createOption("ccc"), longest);
+		a.remove("a");
+		assertEquals(factory.createOption("d"), shortest);
+	}
+
+	@Test
+	public void testMinOfEqualElements() {
+		String first = new String("a");
+		String second = new String("a");
+		IBox<String> a = factory.createSequence(first, "b", second);
+		IOption<String> min = a.min();
+		assertSame(first, min.get(0));
+		a.removeAt(0);
+		assertSame(second, min.get(0));
+		a.add(0, first);
+		assertSame(second, min.get(0));
+		a.removeAt(2);
+		assertSame(first, min.get(0));
+	}
+
+	@Test
+	public void testMinMaxRandomMutations() {
+		IBox<Integer> a = factory.createSequence();
+		IOption<Integer> min = a.min();
+		IOption<Integer> max = a.max();
+		for (int i = 0; i < 2000; i++) {
+			mutate(a, 1000);
+			if (a.length() == 0) {
+				assertEquals(0, min.length());
+				assertEquals(0, max.length());
+			} else {
+				assertEquals(Collections.min(toList(a)), min.get(0));
+				assertEquals(Collections.max(toList(a)), max.get(0));
+			}
+		}
+	}
+
+	// Average
+
+	@Test
+	public void testAverageOfInts() {
+		IIntSequence a = factory.createIntSequence(1, 2, 3, 6);
+		IDoubleOne average = a.average();
+		assertEquals(3.0, average.getDouble());
+		a.removeAt(3);
+		assertEquals(2.0, average.getDouble());
+		a.setInt(0, 4);
+		assertEquals(3.0, average.getDouble());
+		a.clear();
+		assertTrue(Double.isNaN(average.getDouble()));
+		a.addInt(Integer.MAX_VALUE);
+		a.addInt(Integer.MAX_VALUE);
+		assertEquals((double) Integer.MAX_VALUE, average.getDouble());
+	}
+
+	@Test
+	public void testAverageOfDoubles() {
+		IDoubleSequence a = factory.createDoubleSequence();
+		IDoubleOne average = a.average();
+		assertTrue(Double.isNaN(average.getDouble()));
+		a.addDouble(1.5);
+		a.addDouble(2.5);
+		assertEquals(2.0, average.getDouble());
+		a.setDouble(1, 0.5);
+		assertEquals(1.0, average.getDouble());
+	}
+
+	// Compensated sum
+
+	// after many updates, the sum is still the rounded exact sum of the current elements
+	@Test
+	public void testSumOfDoublesDoesNotDrift() {
+		IDoubleSequence a = factory.createDoubleSequence();
+		IDoubleOne sum = a.sum();
+		a.addDouble(1e10);
+		for (int i = 0; i < 10000; i++) {
+			if ((a.length() < 2) || random.nextBoolean()) {
+				a.addDouble(random.nextDouble() / 10);
+			} else {
+				a.removeAt(1 + random.nextInt(a.length() - 1));
+			}
+		}
+		BigDecimal exact = BigDecimal.ZERO;
+		for (int i = 0; i < a.length(); i++) {
+			exact = exact.add(new BigDecimal(a.getDouble(i)));
+		}
+		assertEquals(exact.doubleValue(), sum.getDouble());
+	}
+
+	// Utilities
+
+	private static List<Integer> toList(IBox<Integer> box) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer element : box) {
+			list.add(element);
+		}
+		return list;
+	}
+
+	private void mutate(IBox<Integer> box, int range) {
+		int length = box.length();
+		int choice = random.nextInt(10);
+		if ((length == 0) || (choice < 5)) {
+			box.add(random.nextInt(length + 1), random.nextInt(range));
+		} else if (choice < 8) {
+			box.removeAt(random.nextInt(length));
+		} else if (choice < 9) {
+			box.set(random.nextInt(length), random.nextInt(range));
+		} else {
+			box.move(random.nextInt(length), random.nextInt(length));
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests.operation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBinaryFunction;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class AlignedZipWithTest extends BaseTest {
+
+	private static IUnaryFunction<Integer, Integer> twice = new IUnaryFunction<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return (i == null) ? null : 2 * i;
+		}
+	};
+
+	private static IUnaryFunction<Integer, String> toString = new IUnaryFunction<Integer, String>() {
+		@Override
+		public String apply(Integer i) {
+			return String.valueOf(i);
+		}
+	};
+
+	private static class CountingZipper implements IBinaryFunction<Integer, String, String> {
+
+		private int count;
+
+		@Override
+		public String apply(Integer i, String s) {
+			count++;
+			return i + "/" + s;
+		}
+	}
+
+	// Create and mutations
+
+	@Test
+	public void testMutationForZipWithAlignedOnSeq() {
+		testMutationForZipWithAligned(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testMutationForZipWithAlignedOnOSet() {
+		testMutationForZipWithAligned(IConstraints.ORDERED_SET);
+	}
+
+	@Test
+	public void testMutationForZipWithAlignedOnOpt() {
+		testMutationForZipWithAligned(IConstraints.OPTION);
+	}
+
+	@Test
+	public void testMutationForZipWithAlignedOnOne() {
+		testMutationForZipWithAligned(IConstraints.ONE);
+	}
+
+	// the left and right boxes are collected from the same source box, whose observers are notified in order
+	public void testMutationForZipWithAligned(IConstraints inputType) {
+		IBox<Integer> a = factory.createBox(inputType, 1, 2, 3, 4);
+		IBox<Integer> left = a.collect(twice);
+		IBox<String> right = a.collect(toString);
+		CountingZipper zipper = new CountingZipper();
+		IBox<String> b = left.zipWithAligned(right, zipper);
+		assertEquals(left.zipWith(right, new CountingZipper()), b);
+		if (!a.isSingleton()) {
+			zipper.count = 0;
+			a.add(0, 5);
+			a.removeAt(2);
+			a.set(1, 6);
+			a.move(3, 0);
+			assertEquals(2, zipper.count);
+		} else {
+			a.set(0, 5);
+			a.removeAt(0);
+		}
+		assertEquals(left.zipWith(right, new CountingZipper()), b);
+	}
+
+	@Test
+	public void testZipWithAlignedOnSelf() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<Integer> b = a.zipWithAligned(a, new IBinaryFunction<Integer, Integer, Integer>() {
+			@Override
+			public Integer apply(Integer i, Integer j) {
+				return i + j;
+			}
+		});
+		a.add(1, 4);
+		a.removeAt(0);
+		assertEquals(factory.createSequence(8, 4, 6), b);
+	}
+
+	// Batches: each collected box replays the whole batch of the source box before the other one
+
+	private IBox<String> zipCollected(IBox<Integer> a) {
+		return a.collect(twice).zipWithAligned(a.collect(toString), new CountingZipper());
+	}
+
+	@Test
+	public void testZipWithAlignedOnAddAll() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<String> b = zipCollected(a);
+		a.addAll(0, Arrays.asList(7, 8));
+		a.addAll(4, Arrays.asList(9));
+		assertEquals(factory.createSequence("14/7", "16/8", "2/1", "4/2", "18/9", "6/3"), b);
+	}
+
+	@Test
+	public void testZipWithAlignedOnRemoveRange() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3, 4, 5);
+		IBox<String> b = zipCollected(a);
+		a.removeRange(1, 4);
+		assertEquals(factory.createSequence("2/1", "10/5"), b);
+	}
+
+	@Test
+	public void testZipWithAlignedOnAssign() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3, 4, 5);
+		IBox<String> b = zipCollected(a);
+		a.assign(6, 2, 3, 7, 5, 8);
+		assertEquals(factory.createSequence("12/6", "4/2", "6/3", "14/7", "10/5", "16/8"), b);
+		a.assign();
+		assertEquals(0, b.length());
+	}
+
+	// Zipper applications: once per changed element
+
+	@Test
+	public void testZipWithAlignedRandomMutations() {
+		Random random = new Random(0);
+		IBox<Integer> a = factory.createSequence();
+		IBox<Integer> left = a.collect(twice);
+		IBox<String> right = a.collect(toString);
+		CountingZipper zipper = new CountingZipper();
+		IBox<String> b = left.zipWithAligned(right, zipper);
+		int changes = 0;
+		for (int i = 0; i < 1000; i++) {
+			int choice = random.nextInt(4);
+			if ((choice == 0) || (a.length() == 0)) {
+				a.add(random.nextInt(a.length() + 1), i);
+				changes++;
+			} else if (choice == 1) {
+				a.removeAt(random.nextInt(a.length()));
+			} else if (choice == 2) {
+				a.set(random.nextInt(a.length()), i);
+				changes++;
+			} else {
+				a.move(random.nextInt(a.length()), random.nextInt(a.length()));
+			}
+		}
+		assertEquals(changes, zipper.count);
+		assertEquals(left.zipWith(right, new CountingZipper()), b);
+	}
+
+	// Misalignments
+
+	@Test
+	public void testZipWithAlignedOnDifferentLengths() {
+		thrown.expect(IllegalArgumentException.class);
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<String> b = factory.createSequence("1", "2");
+		a.zipWithAligned(b, new CountingZipper());
+	}
+
+	@Test
+	public void testZipWithAlignedOnMisalignedChanges() {
+		thrown.expect(IllegalStateException.class);
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<String> b = factory.createSequence("1", "2", "3");
+		a.zipWithAligned(b, new CountingZipper());
+		a.add(0, 0);
+		b.add(1, "0");
+	}
+
+	@Test
+	public void testZipWithAlignedOnUnmatchedChange() {
+		thrown.expect(IllegalStateException.class);
+		IBox<Integer> a = factory.createSequence(1, 2, 3);
+		IBox<String> b = factory.createSequence("1", "2", "3");
+		a.zipWithAligned(b, new CountingZipper());
+		a.set(0, 0);
+		a.set(1, 0);
+	}
+
+}
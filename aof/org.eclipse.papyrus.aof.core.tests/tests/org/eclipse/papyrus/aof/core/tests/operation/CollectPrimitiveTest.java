@@ -0,0 +1,141 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests.operation;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IDoubleFunction;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
+import org.eclipse.papyrus.aof.core.IIntFunction;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.IIntSequence;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests for IBox.collectInt(), collectDouble() and IIntBox.sum()
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class CollectPrimitiveTest extends BaseTest {
+
+	private static IIntFunction<String> length = new IIntFunction<String>() {
+		@Override
+		public int apply(String s) {
+			return s.length();
+		}
+	};
+
+	private static IUnaryFunction<String, Integer> boxedLength = new IUnaryFunction<String, Integer>() {
+		@Override
+		public Integer apply(String s) {
+			return s.length();
+		}
+	};
+
+	private static IDoubleFunction<Integer> half = new IDoubleFunction<Integer>() {
+		@Override
+		public double apply(Integer i) {
+			return i / 2.0;
+		}
+	};
+
+	// Collect
+
+	@Test
+	public void testCollectIntOnSequence() {
+		testCollectInt(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testCollectIntOnOrderedSet() {
+		testCollectInt(IConstraints.ORDERED_SET);
+	}
+
+	@Test
+	public void testCollectIntOnBag() {
+		testCollectInt(IConstraints.BAG);
+	}
+
+	@Test
+	public void testCollectIntOnOne() {
+		testCollectInt(IConstraints.ONE);
+	}
+
+	public void testCollectInt(IConstraints inputType) {
+		IBox<String> a = factory.createBox(inputType, "a", "bb", "ccc");
+		IIntSequence b = a.collectInt(length);
+		assertEquals(a.collect(boxedLength).asSequence(), b);
+		if (a.isSingleton()) {
+			a.set(0, "dddd");
+		} else {
+			a.add(1, "dddd");
+			a.removeAt(0);
+			a.set(1, "eeeee");
+			a.move(0, 2);
+		}
+		assertEquals(a.collect(boxedLength).asSequence(), b);
+	}
+
+	@Test
+	public void testCollectIntInBatch() {
+		final IBox<String> a = factory.createSequence("a", "bb");
+		IIntSequence b = a.collectInt(length);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				a.add("ccc");
+				a.removeAt(0);
+				a.set(0, "dddd");
+			}
+		});
+		assertEquals(factory.createSequence(4, 3), b);
+	}
+
+	// Sum
+
+	@Test
+	public void testSumOfIntSequence() {
+		IIntSequence a = factory.createIntSequence(1, 2, 3);
+		IIntOne sum = a.sum();
+		assertEquals(6, sum.getInt());
+		a.addInt(0, 10);
+		a.removeAt(1);
+		a.setInt(2, 30);
+		a.move(0, 2);
+		assertEquals(42, sum.getInt());
+		a.clear();
+		assertEquals(0, sum.getInt());
+	}
+
+	@Test
+	public void testSumOfCollectedDoubles() {
+		IBox<Integer> a = factory.createBag(1, 2, 3);
+		IDoubleSequence halves = a.collectDouble(half);
+		IDoubleOne sum = halves.sum();
+		assertEquals(3.0, sum.getDouble());
+		a.add(5);
+		a.remove(2);
+		assertEquals(4.5, sum.getDouble());
+	}
+
+	@Test
+	public void testSumOfSize() {
+		IBox<String> a = factory.createSequence("a", "b");
+		IIntOne sum = ((IIntOne) a.size()).sum();
+		a.add("c");
+		assertEquals(3, sum.getInt());
+	}
+
+}
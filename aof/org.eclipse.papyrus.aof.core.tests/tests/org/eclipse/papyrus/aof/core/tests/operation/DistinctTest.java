@@ -12,6 +12,8 @@ package org.eclipse.papyrus.aof.core.tests.operation;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.eclipse.papyrus.aof.core.tests.BaseTest;
@@ -466,6 +468,49 @@ public class DistinctTest extends BaseTest {
 		assertEquals(b, a.distinct());
 	}
 
+	// Random mutations
+
+	@Test
+	public void testRandomMutationsForDistinctOnSequence() {
+		Random random = new Random(0);
+		IBox<Integer> a = factory.createSequence(1, 2, 2, 3, 2, 3, 3, 3, 4, 5, 5, 6);
+		IBox<Integer> b = a.distinct();
+		for (int i = 0; i < 500; i++) {
+			int choice = random.nextInt(4);
+			if ((a.length() == 0) || (choice == 0)) {
+				a.add(random.nextInt(a.length() + 1), random.nextInt(8));
+			} else if (choice == 1) {
+				a.removeAt(random.nextInt(a.length()));
+			} else if (choice == 2) {
+				a.set(random.nextInt(a.length()), random.nextInt(8));
+			} else {
+				a.move(random.nextInt(a.length()), random.nextInt(a.length()));
+			}
+			assertEquals(a.distinct(), b);
+		}
+	}
+
+	@Test
+	public void testRandomMutationsForBidirDistinctOnSequence() {
+		Random random = new Random(0);
+		IBox<Integer> a = factory.createSequence(1, 2, 2, 3, 2, 3, 3, 3, 4, 5, 5, 6);
+		IBox<Integer> b = a.distinct();
+		for (int i = 0; i < 500; i++) {
+			int choice = random.nextInt(4);
+			int element = 10 * (i + 1) + random.nextInt(8);
+			if ((b.length() == 0) || (choice == 0)) {
+				b.add(random.nextInt(b.length() + 1), element);
+			} else if (choice == 1) {
+				b.removeAt(random.nextInt(b.length()));
+			} else if (choice == 2) {
+				b.set(random.nextInt(b.length()), element);
+			} else {
+				b.move(random.nextInt(b.length()), random.nextInt(b.length()));
+			}
+			assertEquals(a.distinct(), b);
+		}
+	}
+
 	// Clear bidir
 
 	@Test
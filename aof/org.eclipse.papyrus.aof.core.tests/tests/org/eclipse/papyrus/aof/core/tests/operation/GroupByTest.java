@@ -0,0 +1,312 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests.operation;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IPair;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class GroupByTest extends BaseTest {
+
+	// an element with a mutable key
+	private static class Item {
+
+		private String name;
+
+		private IOne<Integer> color = factory.createOne(0);
+
+		private Item(String name, Integer color) {
+			this.name = name;
+			this.color.set(color);
+		}
+
+		@Override
+		public String toString() {
+			return name + "/" + color.get(0);
+		}
+
+	}
+
+	private static IUnaryFunction<Item, IOne<Integer>> color = new IUnaryFunction<Item, IOne<Integer>>() {
+		@Override
+		public IOne<Integer> apply(Item item) {
+			return item.color;
+		}
+	};
+
+	private static class ChangeCounter<E> extends DefaultObserver<E> {
+
+		private int changes;
+
+		@Override
+		public void added(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			changes++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			changes++;
+		}
+
+	}
+
+	private Random random = new Random(0);
+
+	// passive grouping: the groups are created in source order of their first elements
+	private static Map<Integer, List<Item>> group(IBox<Item> source) {
+		Map<Integer, List<Item>> groups = new LinkedHashMap<Integer, List<Item>>();
+		for (Item item : source) {
+			List<Item> group = groups.get(item.color.get(0));
+			if (group == null) {
+				group = new ArrayList<Item>();
+				groups.put(item.color.get(0), group);
+			}
+			group.add(item);
+		}
+		return groups;
+	}
+
+	private void assertGrouped(IBox<Item> source, IBox<IPair<Integer, IBox<Item>>> groups) {
+		Map<Integer, List<Item>> expected = group(source);
+		assertEquals(expected.size(), groups.length());
+		int index = 0;
+		for (Map.Entry<Integer, List<Item>> entry : expected.entrySet()) {
+			IPair<Integer, IBox<Item>> pair = groups.get(index++);
+			assertEquals(entry.getKey(), pair.getLeft());
+			assertEquals(entry.getValue(), pair.getRight());
+		}
+	}
+
+	private void assertSelected(IBox<Item> source, Integer key, IBox<Item> selected) {
+		List<Item> expected = group(source).get(key);
+		if (expected == null) {
+			assertEquals(0, selected.length());
+		} else {
+			assertEquals(expected, selected);
+		}
+	}
+
+	// Group by
+
+	@Test
+	public void testGroupByOnSeq() {
+		testGroupBy(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testGroupByOnOSet() {
+		testGroupBy(IConstraints.ORDERED_SET);
+	}
+
+	public void testGroupBy(IConstraints inputType) {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		Item item3 = new Item("c", 1);
+		IBox<Item> a = factory.createBox(inputType, item1, item2, item3);
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		assertTrue(b.isOrdered());
+		assertTrue(b.isUnique());
+		assertGrouped(a, b);
+		assertEquals(a.isUnique(), b.get(0).getRight().isUnique());
+		assertEquals(Arrays.asList(item1, item3), b.get(0).getRight());
+	}
+
+	// a key change moves the element from its old group to its new one, and the groups are reordered by their first
+	// elements, while keeping the same group boxes
+	@Test
+	public void testKeyChanges() {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		Item item3 = new Item("c", 1);
+		IBox<Item> a = factory.createSequence(item1, item2, item3);
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		IBox<Item> group1 = b.get(0).getRight();
+		IBox<Item> group2 = b.get(1).getRight();
+		item1.color.set(2);
+		assertGrouped(a, b);
+		assertSame(group2, b.get(0).getRight());
+		assertSame(group1, b.get(1).getRight());
+		assertEquals(factory.createSequence(item1, item2), group2);
+		item3.color.set(3);
+		assertGrouped(a, b);
+		assertEquals(2, b.length());
+		item1.color.set(3);
+		item2.color.set(3);
+		assertGrouped(a, b);
+		assertEquals(factory.createSequence(item1, item2, item3), b.get(0).getRight());
+	}
+
+	@Test
+	public void testMovedElements() {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		Item item3 = new Item("c", 1);
+		IBox<Item> a = factory.createSequence(item1, item2, item3);
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		a.move(0, 2);
+		assertGrouped(a, b);
+		a.move(0, 2);
+		assertGrouped(a, b);
+		assertEquals(2, b.get(0).getLeft());
+	}
+
+	// the key boxes of removed elements are no more observed
+	@Test
+	public void testRemovedElement() {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		IBox<Item> a = factory.createSequence(item1, item2);
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		a.remove(item1);
+		item1.color.set(2);
+		assertGrouped(a, b);
+		assertEquals(factory.createSequence(item2), b.get(0).getRight());
+	}
+
+	// the groupBy operations of the same source box and key function share the same index
+	@Test
+	public void testSharedIndex() {
+		IBox<Item> a = factory.createSequence(new Item("a", 1));
+		assertSame(a.groupBy(color), a.groupBy(color));
+	}
+
+	// Select by
+
+	@Test
+	public void testSelectBy() {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		Item item3 = new Item("c", 1);
+		IBox<Item> a = factory.createSequence(item1, item2, item3);
+		IOne<Integer> key = factory.createOne(1);
+		IBox<Item> b = a.selectBy(key, color);
+		assertTrue(b.isOrdered());
+		assertEquals(factory.createSequence(item1, item3), b);
+		item2.color.set(1);
+		assertEquals(factory.createSequence(item1, item2, item3), b);
+		a.move(0, 2);
+		assertEquals(factory.createSequence(item3, item1, item2), b);
+		key.set(4);
+		assertEquals(0, b.length());
+		item1.color.set(4);
+		assertEquals(factory.createSequence(item1), b);
+	}
+
+	// a key box change updates the result by a minimal edit script, replacing elements rather than removing them
+	// then adding the elements of the new group
+	@Test
+	public void testSelectByKeyChange() {
+		Item item1 = new Item("a", 1);
+		Item item2 = new Item("b", 2);
+		Item item3 = new Item("c", 1);
+		Item item4 = new Item("d", 2);
+		IBox<Item> a = factory.createSequence(item1, item2, item3, item4);
+		IOne<Integer> key = factory.createOne(1);
+		IBox<Item> b = a.selectBy(key, color);
+		item2.color.set(1);
+		item3.color.set(2);
+		ChangeCounter<Item> counter = new ChangeCounter<Item>();
+		b.addObserver(counter);
+		key.set(2);
+		assertEquals(factory.createSequence(item3, item4), b);
+		assertEquals(2, counter.changes);
+		item1.color.set(2);
+		counter.changes = 0;
+		key.set(1);
+		assertEquals(factory.createSequence(item2), b);
+		assertEquals(3, counter.changes);
+	}
+
+	// Random mutations against a passive grouping
+
+	@Test
+	public void testRandomMutations() {
+		IBox<Item> a = factory.createSequence();
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		IOne<Integer> key = factory.createOne(0);
+		IBox<Item> c = a.selectBy(key, color);
+		List<Item> items = new ArrayList<Item>();
+		for (int i = 0; i < 2000; i++) {
+			int length = a.length();
+			int choice = random.nextInt(10);
+			if ((length == 0) || (choice < 4)) {
+				Item item = new Item(String.valueOf(i), random.nextInt(10));
+				items.add(item);
+				a.add(random.nextInt(length + 1), item);
+			} else if (choice < 5) {
+				a.removeAt(random.nextInt(length));
+			} else if (choice < 6) {
+				Item item = new Item(String.valueOf(i), random.nextInt(10));
+				items.add(item);
+				a.set(random.nextInt(length), item);
+			} else if (choice < 7) {
+				a.move(random.nextInt(length), random.nextInt(length));
+			} else if (choice < 9) {
+				items.get(random.nextInt(items.size())).color.set(random.nextInt(10));
+			} else {
+				key.set(random.nextInt(10));
+			}
+			if (i % 100 == 0) {
+				assertGrouped(a, b);
+				assertSelected(a, key.get(0), c);
+			}
+		}
+		assertGrouped(a, b);
+		assertSelected(a, key.get(0), c);
+	}
+
+	@Test
+	public void testBatch() {
+		final IBox<Item> a = factory.createSequence();
+		IBox<IPair<Integer, IBox<Item>>> b = a.groupBy(color);
+		IBox<Item> c = a.selectBy(factory.createOne(3), color);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 100; i++) {
+					a.add(new Item(String.valueOf(i), random.nextInt(10)));
+				}
+				a.removeAt(50);
+			}
+		});
+		assertGrouped(a, b);
+		assertSelected(a, 3, c);
+	}
+
+}
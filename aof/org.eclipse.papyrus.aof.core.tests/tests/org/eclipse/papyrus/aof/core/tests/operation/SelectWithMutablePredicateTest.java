@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.tests.operation;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.papyrus.aof.core.AOFFactory;
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
@@ -40,7 +43,7 @@ public class SelectWithMutablePredicateTest extends AbstractSelectTest {
 	}
 
 	// collectMutable should be tested in the same way, but can it really fail in a similar way?
-	// This test currently fails
+	// This test used to fail, it passes since presence values are cached in the operation
 	// Some other changes would not explicitly fail unless internal state checks of SelectWithMutablePredicate are enabled in InnerBoxObserver
 	// AOF2 should be able to handle it by taking it into account (source < inner) in the topological sort
 	@Test
@@ -55,4 +58,34 @@ public class SelectWithMutablePredicateTest extends AbstractSelectTest {
 		});
 		a.add(0, 1);
 	}
+
+	@Test
+	public void testInnerBoxFlips() {
+		final Map<Integer, IOne<Boolean>> selected = new HashMap<Integer, IOne<Boolean>>();
+		IBox<Integer> a = factory.createSequence();
+		for (int i = 0; i < 20; i++) {
+			selected.put(i, AOFFactory.INSTANCE.createOne(i % 3 == 0));
+			a.add(i);
+		}
+		IBox<Integer> b = a.selectMutable(new IUnaryFunction<Integer, IOne<Boolean>>() {
+			@Override
+			public IOne<Boolean> apply(Integer i) {
+				return selected.get(i);
+			}
+		});
+		selected.get(4).set(true);
+		selected.get(0).set(false);
+		a.move(0, 4);
+		selected.get(19).set(true);
+		a.removeAt(10);
+		selected.get(12).set(false);
+		selected.get(4).set(false);
+		IBox<Integer> expected = factory.createSequence();
+		for (Integer i : a) {
+			if (selected.get(i).get()) {
+				expected.add(i);
+			}
+		}
+		assertEquals(expected, b);
+	}
 }
@@ -144,5 +144,33 @@ public class SelectWithPredicateTest extends AbstractSelectTest {
 		assertEquals(a.select(selectorClass), b);
 	}
 
+	// Selector applications: once per changed element
+
+	private static class CountingSelector implements IUnaryFunction<Integer, Boolean> {
+
+		private int count;
+
+		@Override
+		public Boolean apply(Integer i) {
+			count++;
+			return isOdd.apply(i);
+		}
+	}
+
+	@Test
+	public void testSelectorAppliedOncePerChange() {
+		IBox<Integer> a = factory.createSequence(1, 2, 3, 4, 5, 6, 7, 8, 9);
+		CountingSelector selector = new CountingSelector();
+		IBox<Integer> b = a.select(selector);
+		assertEquals(9, selector.count);
+		a.add(9, 11);
+		a.removeAt(7);
+		a.move(0, 8);
+		assertEquals(10, selector.count);
+		a.set(4, 10);
+		assertEquals(11, selector.count);
+		assertEquals(a.select(isOdd), b);
+	}
+
 
 }
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.tests.operation;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class SortedByTest extends BaseTest {
+
+	// an element with two mutable keys
+	private static class Item {
+
+		private IOne<Integer> rank = factory.createOne(0);
+
+		private IOne<String> name = factory.createOne("");
+
+		private Item(Integer rank, String name) {
+			this.rank.set(rank);
+			this.name.set(name);
+		}
+
+		@Override
+		public String toString() {
+			return rank.get(0) + "/" + name.get(0);
+		}
+
+	}
+
+	private static IUnaryFunction<Item, IOne<Integer>> rank = new IUnaryFunction<Item, IOne<Integer>>() {
+		@Override
+		public IOne<Integer> apply(Item item) {
+			return item.rank;
+		}
+	};
+
+	private static IUnaryFunction<Item, IOne<String>> name = new IUnaryFunction<Item, IOne<String>>() {
+		@Override
+		public IOne<String> apply(Item item) {
+			return item.name;
+		}
+	};
+
+	@SuppressWarnings("unchecked")
+	private static IUnaryFunction<Item, ? extends IOne<? extends Comparable<?>>>[] rankThenName = new IUnaryFunction[] { rank, name };
+
+	private static class ChangeCounter<E> extends DefaultObserver<E> {
+
+		private int changes;
+
+		@Override
+		public void added(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			changes++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			changes++;
+		}
+
+	}
+
+	private Random random = new Random(0);
+
+	// passive sort
+
+	private static int compare(Comparable<Object> key1, Comparable<Object> key2) {
+		if (key1 == null) {
+			return (key2 == null) ? 0 : -1;
+		} else if (key2 == null) {
+			return 1;
+		} else {
+			return key1.compareTo(key2);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparator<Item> comparator(final boolean ascending) {
+		return new Comparator<Item>() {
+			@Override
+			public int compare(Item item1, Item item2) {
+				int result = SortedByTest.compare((Comparable<Object>) (Object) item1.rank.get(0), (Comparable<Object>) (Object) item2.rank.get(0));
+				if (result == 0) {
+					result = SortedByTest.compare((Comparable<Object>) (Object) item1.name.get(0), (Comparable<Object>) (Object) item2.name.get(0));
+				}
+				return ascending ? result : -result;
+			}
+		};
+	}
+
+	// the order of elements with equal keys is not specified: the sorted box must contain the same elements as the
+	// source box, in an order consistent with a passive sort of them
+	private void assertSorted(IBox<Item> source, IBox<Item> sorted, boolean ascending) {
+		List<Item> expected = new ArrayList<Item>();
+		for (Item item : source) {
+			expected.add(item);
+		}
+		Collections.sort(expected, comparator(ascending));
+		assertEquals(expected.size(), sorted.length());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(0, comparator(ascending).compare(expected.get(i), sorted.get(i)));
+			assertTrue(source.contains(sorted.get(i)));
+		}
+	}
+
+	// Constraints
+
+	@Test
+	public void testSortedByOnSeq() {
+		testSortedBy(IConstraints.SEQUENCE);
+	}
+
+	@Test
+	public void testSortedByOnOSet() {
+		testSortedBy(IConstraints.ORDERED_SET);
+	}
+
+	@Test
+	public void testSortedByOnBag() {
+		testSortedBy(IConstraints.BAG);
+	}
+
+	@Test
+	public void testSortedByOnSet() {
+		testSortedBy(IConstraints.SET);
+	}
+
+	public void testSortedBy(IConstraints inputType) {
+		IBox<Item> a = factory.createBox(inputType, new Item(3, "c"), new Item(1, "a"), new Item(2, "b"));
+		IBox<Item> b = a.sortedBy(rank, true);
+		assertTrue(b.isOrdered());
+		assertEquals(a.isUnique(), b.isUnique());
+		assertEquals(a.isOptional(), b.isOptional());
+		assertSorted(a, b, true);
+		assertEquals(1, b.get(0).rank.get(0));
+		assertEquals(3, b.get(2).rank.get(0));
+	}
+
+	@Test
+	public void testSortedByOnOne() {
+		IBox<Item> a = factory.createOne(new Item(1, "a"));
+		assertSame(a, a.sortedBy(rank, true));
+	}
+
+	// Keys
+
+	@Test
+	public void testSortedByDescending() {
+		IBox<Item> a = factory.createSequence(new Item(2, "b"), new Item(3, "c"), new Item(1, "a"));
+		IBox<Item> b = a.sortedBy(rank, false);
+		assertSorted(a, b, false);
+		assertEquals(3, b.get(0).rank.get(0));
+		assertEquals(1, b.get(2).rank.get(0));
+	}
+
+	@Test
+	public void testSortedByTwoKeys() {
+		Item item1 = new Item(1, "b");
+		Item item2 = new Item(2, "a");
+		Item item3 = new Item(1, "a");
+		IBox<Item> a = factory.createSequence(item1, item2, item3);
+		IBox<Item> b = a.sortedBy(rankThenName, true);
+		assertEquals(factory.createSequence(item3, item1, item2), b);
+		item3.name.set("c");
+		assertEquals(factory.createSequence(item1, item3, item2), b);
+		item2.rank.set(0);
+		assertEquals(factory.createSequence(item2, item1, item3), b);
+	}
+
+	@Test
+	public void testSortedByNullKeys() {
+		Item item1 = new Item(1, "a");
+		Item item2 = new Item(null, "b");
+		IBox<Item> a = factory.createSequence(item1, item2);
+		assertEquals(factory.createSequence(item2, item1), a.sortedBy(rank, true));
+		assertEquals(factory.createSequence(item1, item2), a.sortedBy(rank, false));
+	}
+
+	// a key change that keeps the order does not change the result, otherwise it moves a single element; the key
+	// boxes are never written by the operation
+	@Test
+	public void testKeyChanges() {
+		Item item1 = new Item(10, "a");
+		Item item2 = new Item(20, "b");
+		Item item3 = new Item(30, "c");
+		IBox<Item> a = factory.createSequence(item1, item2, item3);
+		IBox<Item> b = a.sortedBy(rank, true);
+		ChangeCounter<Item> resultCounter = new ChangeCounter<Item>();
+		b.addObserver(resultCounter);
+		ChangeCounter<Integer> keyCounter = new ChangeCounter<Integer>();
+		item2.rank.addObserver(keyCounter);
+		item2.rank.set(15);
+		assertEquals(0, resultCounter.changes);
+		item2.rank.set(40);
+		assertEquals(factory.createSequence(item1, item3, item2), b);
+		assertEquals(1, resultCounter.changes);
+		assertEquals(2, keyCounter.changes);
+	}
+
+	// the key boxes of removed elements are no more observed
+	@Test
+	public void testRemovedElement() {
+		Item item1 = new Item(1, "a");
+		Item item2 = new Item(2, "b");
+		IBox<Item> a = factory.createSequence(item1, item2);
+		IBox<Item> b = a.sortedBy(rank, true);
+		a.remove(item1);
+		item1.rank.set(3);
+		assertEquals(factory.createSequence(item2), b);
+	}
+
+	// Random mutations against a passive sort
+
+	@Test
+	public void testRandomMutationsAscending() {
+		testRandomMutations(true);
+	}
+
+	@Test
+	public void testRandomMutationsDescending() {
+		testRandomMutations(false);
+	}
+
+	public void testRandomMutations(boolean ascending) {
+		IBox<Item> a = factory.createSequence();
+		IBox<Item> b = a.sortedBy(rankThenName, ascending);
+		List<Item> items = new ArrayList<Item>();
+		for (int i = 0; i < 2000; i++) {
+			int length = a.length();
+			int choice = random.nextInt(10);
+			if ((length == 0) || (choice < 4)) {
+				Item item = new Item(random.nextInt(50), String.valueOf((char) ('a' + random.nextInt(5))));
+				items.add(item);
+				a.add(random.nextInt(length + 1), item);
+			} else if (choice < 5) {
+				a.removeAt(random.nextInt(length));
+			} else if (choice < 6) {
+				Item item = new Item(random.nextInt(50), "a");
+				items.add(item);
+				a.set(random.nextInt(length), item);
+			} else if (choice < 7) {
+				a.move(random.nextInt(length), random.nextInt(length));
+			} else if (choice < 9) {
+				items.get(random.nextInt(items.size())).rank.set(random.nextInt(50));
+			} else {
+				items.get(random.nextInt(items.size())).name.set(String.valueOf((char) ('a' + random.nextInt(5))));
+			}
+			if (i % 100 == 0) {
+				assertSorted(a, b, ascending);
+			}
+		}
+		assertSorted(a, b, ascending);
+	}
+
+	@Test
+	public void testBatch() {
+		final IBox<Item> a = factory.createSequence();
+		IBox<Item> b = a.sortedBy(rank, true);
+		a.batch(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 100; i++) {
+					a.add(new Item(random.nextInt(10), "a"));
+				}
+				a.removeAt(50);
+			}
+		});
+		assertSorted(a, b, true);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+import java.util.List;
+
+/**
+ * An observer that can process the mutations of a batch all at once
+ * (see {@link org.eclipse.papyrus.aof.core.IWritable#batch(Runnable)}).
+ * <p>
+ * While a box is in a batch, its batch observers are not notified element per element: they receive the list of
+ * changes once the batch is over, possibly compacted (e.g. an addition immediately followed by the removal of the
+ * added element does not appear in the list). Observers that do not implement this interface are still notified of
+ * each change as soon as it occurs.
+ * 
+ * @param <E>
+ *            type of the elements contained in the observable
+ *            that this batch observer observes
+ */
+public interface IBatchObserver<E> extends IObserver<E> {
+
+	/**
+	 * Notifies this observer of all the changes that have occurred during a batch.
+	 * <p>
+	 * When this method is called, the observable contents already reflects all the changes, so that an observer that
+	 * needs the state of the contents before a given change must compute it from the changes.
+	 * 
+	 * @param changes
+	 *            the changes in the order they occurred, never empty
+	 */
+	void changed(List<IChange<E>> changes);
+
+}
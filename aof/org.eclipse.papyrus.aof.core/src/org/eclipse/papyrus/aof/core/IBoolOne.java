@@ -0,0 +1,33 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents one boxes containing exactly one unboxed boolean (see {@link org.eclipse.papyrus.aof.core.IBoolBox}).
+ */
+public interface IBoolOne extends IBoolBox, IOne<Boolean> {
+
+	/**
+	 * Returns the element of this one box.
+	 * 
+	 * @return the element of this one box
+	 */
+	boolean getBool();
+
+	/**
+	 * Replaces the element of this one box.
+	 * 
+	 * @param element
+	 *            the new element of this one box
+	 */
+	void setBool(boolean element);
+
+}
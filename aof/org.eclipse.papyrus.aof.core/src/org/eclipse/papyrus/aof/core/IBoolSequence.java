@@ -0,0 +1,38 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents sequence boxes of unboxed booleans (see {@link org.eclipse.papyrus.aof.core.IBoolBox}).
+ */
+public interface IBoolSequence extends IBoolBox, ISequence<Boolean> {
+
+	/**
+	 * Appends the specified element to the end of this sequence.
+	 * 
+	 * @param element
+	 *            element to be appended to this sequence
+	 */
+	void addBool(boolean element);
+
+	/**
+	 * Inserts the specified element at the specified position in this sequence.
+	 * 
+	 * @param index
+	 *            index at which the specified element is to be inserted
+	 * @param element
+	 *            element to be inserted into this sequence
+	 * @throws IndexOutOfBoundException
+	 *             if index is less than 0, or greater than the size of the sequence
+	 */
+	void addBool(int index, boolean element);
+
+}
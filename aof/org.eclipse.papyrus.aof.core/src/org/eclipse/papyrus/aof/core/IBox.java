@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core;
 
+import java.util.Comparator;
 
 /**
  * Represents the first-class objects of AOF: boxes.
@@ -205,6 +206,77 @@ public interface IBox<E> extends IConstrained, IReadable<E>, IWritable<E>, IObse
 	 */
 	IOne<Boolean> notEmpty();
 
+	/**
+	 * Returns a boxed integer giving the number of occurrences of the specified element in this box.
+	 * <p>
+	 * The boxed number is updated in constant time whenever elements are added to, removed from or replaced in this
+	 * box. The occurrences of all the elements of this box are counted once for all the count operations on this
+	 * box, so that counting an element does not scan this box.
+	 * <p>
+	 * The operation is unidirectional.
+	 * <p>
+	 * The operation is equivalent to OCL count() function.
+	 * 
+	 * @param element
+	 *            element whose occurrences are counted
+	 * @return a boxed integer giving the number of occurrences of the specified element in this box
+	 */
+	IOne<Integer> count(E element);
+
+
+	// Aggregate operations
+
+	/**
+	 * Returns an option box containing the lowest element of this box according to the natural ordering of its
+	 * elements, or empty if this box is empty.
+	 * <p>
+	 * The option box is updated in logarithmic time whenever elements are added to, removed from or replaced in this
+	 * box, including when the lowest element is removed. Null elements are ignored. If several elements are equal to
+	 * the lowest one, the first one added to this box is given.
+	 * <p>
+	 * The operation is unidirectional.
+	 * <p>
+	 * The operation is equivalent to OCL min() function.
+	 * 
+	 * @return an option box containing the lowest element of this box
+	 * @throws ClassCastException
+	 *             if the elements of this box are not comparable
+	 */
+	IOption<E> min();
+
+	/**
+	 * Returns an option box containing the lowest element of this box according to the specified comparator, or
+	 * empty if this box is empty.
+	 * 
+	 * @param comparator
+	 *            comparator used to compare the elements of this box
+	 * @return an option box containing the lowest element of this box
+	 * @see #min()
+	 */
+	IOption<E> min(Comparator<? super E> comparator);
+
+	/**
+	 * Returns an option box containing the greatest element of this box according to the natural ordering of its
+	 * elements, or empty if this box is empty.
+	 * 
+	 * @return an option box containing the greatest element of this box
+	 * @throws ClassCastException
+	 *             if the elements of this box are not comparable
+	 * @see #min()
+	 */
+	IOption<E> max();
+
+	/**
+	 * Returns an option box containing the greatest element of this box according to the specified comparator, or
+	 * empty if this box is empty.
+	 * 
+	 * @param comparator
+	 *            comparator used to compare the elements of this box
+	 * @return an option box containing the greatest element of this box
+	 * @see #min()
+	 */
+	IOption<E> max(Comparator<? super E> comparator);
+
 
 	// Collect operations
 
@@ -263,6 +335,30 @@ public interface IBox<E> extends IConstrained, IReadable<E>, IWritable<E>, IObse
 	 */
 	<R> IBox<R> collect(IUnaryFunction<? super E, ? extends R> collector);
 
+	/**
+	 * Creates and returns a sequence of unboxed integers that contains the elements of this box transformed by the
+	 * specified collector function.
+	 * <p>
+	 * This active operation is the unboxed counterpart of {@link #collect(IUnaryFunction)}, with the same limitation.
+	 * Whatever the constraints of this box are, the result box is a sequence that follows the order of this box.
+	 * 
+	 * @param collector
+	 *            function used to transform elements of this box
+	 * @return a sequence of unboxed integers that contains the elements of this box transformed by the collector
+	 */
+	IIntSequence collectInt(IIntFunction<? super E> collector);
+
+	/**
+	 * Creates and returns a sequence of unboxed doubles that contains the elements of this box transformed by the
+	 * specified collector function.
+	 * 
+	 * @param collector
+	 *            function used to transform elements of this box
+	 * @return a sequence of unboxed doubles that contains the elements of this box transformed by the collector
+	 * @see #collectInt(IIntFunction)
+	 */
+	IDoubleSequence collectDouble(IDoubleFunction<? super E> collector);
+
 	/**
 	 * Creates and returns a box that contains the elements of this box transformed by the specified collector function,
 	 * providing bidirectionality through the specified inverse collector.
@@ -1025,6 +1121,110 @@ public interface IBox<E> extends IConstrained, IReadable<E>, IWritable<E>, IObse
 	 */
 	<F, R> IBox<R> zipWith(IBox<F> that, boolean leftRightDependency, IBinaryFunction<E, F, R> zipper, IUnaryFunction<R, IPair<E, F>> unzipper);
 
+	/**
+	 * Creates and returns a box that contains elements of this box and a specified box transformed by the specified
+	 * zipper binary function, provided that both boxes change in lockstep.
+	 * <p>
+	 * This operation is similar to {@link #zipWith(IBox, IBinaryFunction)}, but requires this box and that box to
+	 * always have the same length, and each change of one box to be matched by the same change of the other box (e.g.
+	 * when both boxes are collected from the same source box). The zipper is then only applied at the changed index,
+	 * instead of at all the following indices.
+	 * 
+	 * @param that
+	 *            box containing elements to be paired then transformed, aligned with this box
+	 * @param zipper
+	 *            binary function used to transformed the paired elements of this box and that box
+	 * @return a box that contains elements of this box and a specified box transformed by the specified
+	 *         zipper binary function
+	 * @throws IllegalArgumentException
+	 *             if this box and that box do not have the same length
+	 * @throws IllegalStateException
+	 *             when a change of one box is not matched by the same change of the other box
+	 */
+	<F, R> IBox<R> zipWithAligned(IBox<F> that, IBinaryFunction<E, F, R> zipper);
+
+
+	// Sort operations
+
+	/**
+	 * Creates and returns a box that contains the elements of this box sorted by the values of the specified
+	 * comparator bodies.
+	 * <p>
+	 * Each comparator body returns a one box holding a key of an element, which may change over time. Elements are
+	 * compared by their first keys, then by their second keys when the first ones are equal, and so on. Null keys are
+	 * lower than any other key. Elements with equal keys are kept in the order they are inserted in the result box.
+	 * <p>
+	 * The result box has the same constraints than this box, except the ordered constraint that is always true. If
+	 * this box is a singleton box, the operation returns <code>this</code>.
+	 * <p>
+	 * This operation is unidirectional.
+	 * 
+	 * @param comparatorBodies
+	 *            functions returning the one boxes of the keys of an element, from the primary key to the last one
+	 * @param ascending
+	 *            whether the elements are sorted by ascending keys, or by descending keys
+	 * @return a box that contains the elements of this box sorted by the values of the specified comparator bodies
+	 */
+	IBox<E> sortedBy(IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies, boolean ascending);
+
+	/**
+	 * Creates and returns a box that contains the elements of this box sorted by the value of the specified
+	 * comparator body.
+	 * <p>
+	 * This operation is equivalent to {@link #sortedBy(IUnaryFunction[], boolean)} with a single comparator body.
+	 * 
+	 * @param comparatorBody
+	 *            function returning the one box of the key of an element
+	 * @param ascending
+	 *            whether the elements are sorted by ascending keys, or by descending keys
+	 * @return a box that contains the elements of this box sorted by the value of the specified comparator body
+	 */
+	IBox<E> sortedBy(IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>> comparatorBody, boolean ascending);
+
+
+	// Group operations
+
+	/**
+	 * Creates and returns a box that partitions the elements of this box by the values of the specified key
+	 * function.
+	 * <p>
+	 * The result box contains one pair per key of the elements of this box, associating the key to the box of the
+	 * elements having this key. The elements of a group box are in the order of this box, and the pairs are in the
+	 * order of the first elements of their groups. When the key of an element changes, the element is moved from its
+	 * old group box to its new one, and a group box remains the same box as long as it is not empty.
+	 * <p>
+	 * The result box is an ordered set. The group boxes are ordered sets if this box is unique, and sequences
+	 * otherwise.
+	 * <p>
+	 * This operation is unidirectional.
+	 * 
+	 * @param keyFunction
+	 *            function returning the one box of the key of an element
+	 * @return a box of pairs associating each key to the box of the elements having this key
+	 */
+	<K> IBox<IPair<K, IBox<E>>> groupBy(IUnaryFunction<? super E, ? extends IOne<K>> keyFunction);
+
+	/**
+	 * Creates and returns a box that contains the elements of this box whose key, as returned by the specified key
+	 * function, is the value of the specified key box.
+	 * <p>
+	 * The elements of the result box are in the order of this box. When the value of the key box changes, the result
+	 * box is updated by the minimal changes leading to the elements having the new key rather than being rebuilt.
+	 * The index of the elements by key is shared with the {@link #groupBy(IUnaryFunction)} operations of this box
+	 * using the same key function.
+	 * <p>
+	 * The result box is ordered and optional, and is unique if this box is unique.
+	 * <p>
+	 * This operation is unidirectional.
+	 * 
+	 * @param keyBox
+	 *            one box of the key of the selected elements
+	 * @param keyFunction
+	 *            function returning the one box of the key of an element
+	 * @return a box that contains the elements of this box having the key of the key box
+	 */
+	<K> IBox<E> selectBy(IOne<K> keyBox, IUnaryFunction<? super E, ? extends IOne<K>> keyFunction);
+
 
 	// Conversion operations
 
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents a mutation of an observable contents, as delivered to batch observers at the end of a batch
+ * (see {@link org.eclipse.papyrus.aof.core.IBatchObserver} and {@link org.eclipse.papyrus.aof.core.IWritable#batch(Runnable)}).
+ * <p>
+ * Indices of a change are relative to the contents as it was just before the change, once all the previous changes of
+ * the batch have been applied.
+ * 
+ * @param <E>
+ *            type of the elements contained in the observable contents
+ */
+public interface IChange<E> {
+
+	enum Kind {
+		ADDED, REMOVED, REPLACED, MOVED
+	}
+
+	/**
+	 * Returns the kind of this change, which tells which method of {@link org.eclipse.papyrus.aof.core.IObserver}
+	 * would have been called to notify it.
+	 * 
+	 * @return the kind of this change
+	 */
+	Kind getKind();
+
+	/**
+	 * Returns the position of the change (the new position for a move).
+	 * 
+	 * @return the position of the change
+	 */
+	int getIndex();
+
+	/**
+	 * Returns the old position of a moved element (the position of the change for other kinds of change).
+	 * 
+	 * @return the old position of the change
+	 */
+	int getOldIndex();
+
+	/**
+	 * Returns the added, removed or moved element, or the new element of a replacement.
+	 * 
+	 * @return the element of the change
+	 */
+	E getElement();
+
+	/**
+	 * Returns the old element of a replacement (the element of the change for other kinds of change).
+	 * 
+	 * @return the old element of the change
+	 */
+	E getOldElement();
+
+	/**
+	 * Notifies the given observer of this change by calling the corresponding per-element method.
+	 * 
+	 * @param observer
+	 *            the observer to notify
+	 */
+	void replay(IObserver<E> observer);
+
+}
@@ -225,6 +225,63 @@ public interface IFactory {
 	 */
 	<E> IBag<E> createBag(E... elements);
 
+	/**
+	 * Returns a new one box of unboxed integers, with a specified default element, and containing the same default
+	 * element.
+	 * 
+	 * @param defaultElement
+	 *            the element to be defined as the default element and added to the returned box
+	 * @return a new one box of unboxed integers containing the specified default element
+	 */
+	IIntOne createIntOne(int defaultElement);
+
+	/**
+	 * Returns a new sequence box of unboxed integers containing the specified elements.
+	 * 
+	 * @param elements
+	 *            the elements to be added to the returned box
+	 * @return a new sequence box of unboxed integers containing the specified elements
+	 */
+	IIntSequence createIntSequence(int... elements);
+
+	/**
+	 * Returns a new one box of unboxed doubles, with a specified default element, and containing the same default
+	 * element.
+	 * 
+	 * @param defaultElement
+	 *            the element to be defined as the default element and added to the returned box
+	 * @return a new one box of unboxed doubles containing the specified default element
+	 */
+	IDoubleOne createDoubleOne(double defaultElement);
+
+	/**
+	 * Returns a new sequence box of unboxed doubles containing the specified elements.
+	 * 
+	 * @param elements
+	 *            the elements to be added to the returned box
+	 * @return a new sequence box of unboxed doubles containing the specified elements
+	 */
+	IDoubleSequence createDoubleSequence(double... elements);
+
+	/**
+	 * Returns a new one box of unboxed booleans, with a specified default element, and containing the same default
+	 * element.
+	 * 
+	 * @param defaultElement
+	 *            the element to be defined as the default element and added to the returned box
+	 * @return a new one box of unboxed booleans containing the specified default element
+	 */
+	IBoolOne createBoolOne(boolean defaultElement);
+
+	/**
+	 * Returns a new sequence box of unboxed booleans containing the specified elements.
+	 * 
+	 * @param elements
+	 *            the elements to be added to the returned box
+	 * @return a new sequence box of unboxed booleans containing the specified elements
+	 */
+	IBoolSequence createBoolSequence(boolean... elements);
+
 	/**
 	 * Returns a new pair containing the specified left and right elements.
 	 * <p>
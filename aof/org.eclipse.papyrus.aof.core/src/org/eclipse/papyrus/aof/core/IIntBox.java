@@ -0,0 +1,84 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents boxes of integers that store their elements unboxed.
+ * <p>
+ * Such a box is a regular box of {@link java.lang.Integer}, so that it can be used by any operation, but it also provides
+ * an unboxed access to its elements, as well as unboxed observers. Elements are only boxed when they are read through
+ * the {@link org.eclipse.papyrus.aof.core.IBox} interface, or when the box has regular observers. A box of integers
+ * cannot contain null.
+ */
+public interface IIntBox extends IBox<Integer> {
+
+	/**
+	 * Returns the element at the specified position in this box.
+	 * 
+	 * @param index
+	 *            index of the element to return
+	 * @return the element at the specified position in this box
+	 * @throws IndexOutOfBoundException
+	 *             if index is less than 0, or greater or equal than the size of this box
+	 */
+	int getInt(int index);
+
+	/**
+	 * Replaces the element at the specified position in this box with the specified element.
+	 * 
+	 * @param index
+	 *            index of the element to replace
+	 * @param element
+	 *            element to be stored at the specified position
+	 * @throws IndexOutOfBoundException
+	 *             if index is less than 0, or greater or equal than the size of this box
+	 * @see org.eclipse.papyrus.aof.core.IWritable#set(int, Object)
+	 */
+	void setInt(int index, int element);
+
+	/**
+	 * Registers an unboxed observer to this box.
+	 * 
+	 * @param observer
+	 *            the observer to register
+	 */
+	void addIntObserver(IIntObserver observer);
+
+	/**
+	 * Unregisters an unboxed observer from this box.
+	 * 
+	 * @param observer
+	 *            the observer to unregister
+	 */
+	void removeIntObserver(IIntObserver observer);
+
+	/**
+	 * Returns a one box giving the sum of the elements of this box.
+	 * <p>
+	 * The sum is updated in constant time whenever elements are added to, removed from or replaced in this box.
+	 * The operation is unidirectional.
+	 * 
+	 * @return a one box giving the sum of the elements of this box
+	 */
+	IIntOne sum();
+
+	/**
+	 * Returns a one box giving the arithmetic mean of the elements of this box, or NaN if this box is empty.
+	 * <p>
+	 * The mean is updated in constant time whenever elements are added to, removed from or replaced in this box. The sum of the elements is
+	 * kept exact as a long integer.
+	 * The operation is unidirectional.
+	 * 
+	 * @return a one box giving the arithmetic mean of the elements of this box
+	 */
+	IDoubleOne average();
+
+}
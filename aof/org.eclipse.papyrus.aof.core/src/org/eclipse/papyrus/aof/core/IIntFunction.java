@@ -0,0 +1,30 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents functions returning an unboxed integer, wrapped into objects that can be passed as arguments to methods.
+ *
+ * @param <P>
+ *            type of the parameter of this function
+ */
+public interface IIntFunction<P> {
+
+	/**
+	 * Applies this function to the specified parameter.
+	 * 
+	 * @param parameter
+	 *            the function parameter
+	 * @return the result of the function
+	 */
+	int apply(P parameter);
+
+}
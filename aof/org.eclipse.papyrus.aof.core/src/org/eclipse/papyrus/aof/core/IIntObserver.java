@@ -0,0 +1,66 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Defines the way of observing mutations performed on a box of integers without boxing its elements
+ * (see {@link org.eclipse.papyrus.aof.core.IIntBox#addIntObserver(IIntObserver)}).
+ * <p>
+ * It is the unboxed counterpart of {@link org.eclipse.papyrus.aof.core.IObserver}. Unboxed observers are notified of
+ * each mutation as soon as it is performed, including during batches, and before the observers of the box.
+ */
+public interface IIntObserver {
+
+	/**
+	 * Notifies this observer that a specified element has just been inserted at a given position.
+	 * 
+	 * @param index
+	 *            position of the inserted element
+	 * @param element
+	 *            element that has just been inserted
+	 */
+	void added(int index, int element);
+
+	/**
+	 * Notifies this observer that a specified element has just been removed from a given position.
+	 * 
+	 * @param index
+	 *            position of the removed element
+	 * @param element
+	 *            element that has just been removed
+	 */
+	void removed(int index, int element);
+
+	/**
+	 * Notifies this observer that a specified old element has just been replaced by a new element at a given position.
+	 * 
+	 * @param index
+	 *            position of the new element
+	 * @param newElement
+	 *            element located at the given position after the replacement
+	 * @param oldElement
+	 *            element located at the given position before the replacement
+	 */
+	void replaced(int index, int newElement, int oldElement);
+
+	/**
+	 * Notifies this observer that a specified element has just been moved from an old position to a new position.
+	 * 
+	 * @param newIndex
+	 *            position of the element after the move
+	 * @param oldIndex
+	 *            position of the element before the move
+	 * @param element
+	 *            element that has just been moved
+	 */
+	void moved(int newIndex, int oldIndex, int element);
+
+}
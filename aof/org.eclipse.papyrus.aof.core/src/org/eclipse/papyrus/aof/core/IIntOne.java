@@ -0,0 +1,33 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core;
+
+/**
+ * Represents one boxes containing exactly one unboxed integer (see {@link org.eclipse.papyrus.aof.core.IIntBox}).
+ */
+public interface IIntOne extends IIntBox, IOne<Integer> {
+
+	/**
+	 * Returns the element of this one box.
+	 * 
+	 * @return the element of this one box
+	 */
+	int getInt();
+
+	/**
+	 * Replaces the element of this one box.
+	 * 
+	 * @param element
+	 *            the new element of this one box
+	 */
+	void setInt(int element);
+
+}
@@ -59,8 +59,29 @@ public interface IWritable<E> {
 	void add(int index, E element);
 
 	/**
-	 * Assigns a new contents to this writable contents by first clearing it, then by appending all elements
-	 * given by the specified iterable.
+	 * Inserts all the elements given by the specified iterable at the specified position in this writable contents,
+	 * in the iteration order.
+	 * <p>
+	 * The insertions are performed as a single batch (see {@link #batch(Runnable)}): all observers are notified of
+	 * each insertion, batch observers being notified once of all of them.
+	 * 
+	 * @param index
+	 *            index at which the first element is to be inserted
+	 * @param elements
+	 *            elements to be inserted into this writable contents
+	 * @throws IllegalStateException
+	 *             if this writable contents is constrained with a uniqueness constraint,
+	 *             and one of the elements is already contained in this writable contents
+	 * @throws IndexOutOfBoundException
+	 *             if index is less than 0, or greater than the size of the contents
+	 * @throws IllegalArgumentException
+	 *             if the specified iterable is null
+	 */
+	void addAll(int index, Iterable<E> elements);
+
+	/**
+	 * Assigns a new contents to this writable contents, so that it contains all elements given by the specified
+	 * iterable.
 	 * 
 	 * If this writable contents cannot have duplicates, i.e. <code>!isSingleton() && isUnique()</code>),
 	 * duplicates that appear in the elements are discarded.
@@ -69,8 +90,11 @@ public interface IWritable<E> {
 	 * 
 	 * If the iterable is empty, this writable contents is empty, except for one box.
 	 * 
-	 * In all cases, each removing performed when clearing, as well as each appending, result in a notification
-	 * to all registered observers.
+	 * If this writable contents is not a singleton, only a shortest edit script from the current contents to the
+	 * new one is applied as a single batch (see {@link #batch(Runnable)}): elements that are kept are neither removed
+	 * nor added again, and a removal followed by an insertion at the same position results in a replacement.
+	 * Otherwise, the contents is first cleared, then all elements are appended. In all cases, each performed
+	 * mutation results in a notification to all registered observers.
 	 * 
 	 * @param iterable
 	 *            iterable defining the elements that are assigned to this writable contents
@@ -82,7 +106,7 @@ public interface IWritable<E> {
 	void assignNoCheck(Iterable<E> iterable);
 
 	/**
-	 * Assigns a new contents to this writable contents by first clearing it, then by appending all specified elements.
+	 * Assigns a new contents to this writable contents, so that it contains all specified elements.
 	 * 
 	 * This method is equivalent to <code>assign(Arrays.asList(elements))</code> (see {@link #assign(Iterable)}).
 	 * 
@@ -118,6 +142,23 @@ public interface IWritable<E> {
 	 */
 	void removeAt(int index);
 
+	/**
+	 * Removes the elements located from the specified start index (inclusive) to the specified end index (exclusive)
+	 * of this writable contents.
+	 * <p>
+	 * The removals are performed as a single batch (see {@link #batch(Runnable)}), from the last element to the first
+	 * one: all observers are notified of each removal, batch observers being notified once of all of them.
+	 * 
+	 * @param fromIndex
+	 *            location of the first element to remove from this writable contents
+	 * @param toIndex
+	 *            location following the last element to remove from this writable contents
+	 * @throws IndexOutOfBoundException
+	 *             if fromIndex is less than 0, toIndex is greater than the size of the contents,
+	 *             or fromIndex is greater than toIndex
+	 */
+	void removeRange(int fromIndex, int toIndex);
+
 	/**
 	 * Clear this writable contents by removing all the elements of this writable contents.
 	 * <p>
@@ -160,4 +201,21 @@ public interface IWritable<E> {
 	 */
 	void move(int newIndex, int oldIndex);
 
+	/**
+	 * Runs the specified mutations of this writable contents as a single batch.
+	 * <p>
+	 * Mutations are applied as soon as they are performed, and observers that do not support batches are notified
+	 * of each of them as usual. Batch observers (see {@link org.eclipse.papyrus.aof.core.IBatchObserver}) are notified
+	 * once at the end of the batch with the list of changes, which lets operations propagate a bulk update downstream
+	 * in a single pass. Operations reacting to a batch mutate their own result boxes in a batch, so that the
+	 * coalescing goes on along the pipe.
+	 * <p>
+	 * Nested batches on the same box are merged into the outermost one. The box of a batch should only be mutated
+	 * by the specified mutations (or by the propagation they cause) until the batch is over.
+	 * 
+	 * @param mutations
+	 *            the mutations to apply to this writable contents
+	 */
+	void batch(Runnable mutations);
+
 }
@@ -10,16 +10,12 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl;
 
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.HashMap;
 
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IMetaClass;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.Accessors;
 
 public class AOFMetaClass<C> extends BaseMetaClass<C> {
 
@@ -45,10 +41,16 @@ public class AOFMetaClass<C> extends BaseMetaClass<C> {
 		return javaClass.isInstance(object);
 	}
 
+	// resolved on first instantiation
+	private Accessors.Instantiator<C> defaultConstructor;
+
 	@Override
 	public C newInstance() {
 		try {
-			return javaClass.newInstance();
+			if (defaultConstructor == null) {
+				defaultConstructor = Accessors.getDefaultConstructor(javaClass);
+			}
+			return defaultConstructor.newInstance();
 		} catch (Exception e) {
 			throw new IllegalStateException("Default constructor of class " + javaClass + " is not defined, or not accessible, or generates an exception", e);
 		}
@@ -64,32 +66,23 @@ public class AOFMetaClass<C> extends BaseMetaClass<C> {
 		}
 	}
 
-	private HashMap<Object, PropertyAccessor> cache = new HashMap<Object, PropertyAccessor>();
+	private HashMap<Object, IUnaryFunction<C, ?>> cache = new HashMap<Object, IUnaryFunction<C, ?>>();
 
 	@Override
 	public <B> IUnaryFunction<C, IBox<B>> getPropertyAccessor(Object property) {
 		if (!cache.containsKey(property)) {
 			if (property instanceof String) {
-				Method readMethod = null;
-				try {
-					for (PropertyDescriptor descriptor : Introspector.getBeanInfo(javaClass).getPropertyDescriptors()) {
-						if (descriptor.getName().equals(property)) {
-							readMethod = descriptor.getReadMethod();
-						}
-					}
-				} catch (IntrospectionException e) {
-				}
-				if (readMethod == null) {
-					throw new IllegalArgumentException("Property " + property + " not defined in class " + javaClass);
-				} else {
-					cache.put(property, new PropertyAccessor(readMethod));
-				}
+				IUnaryFunction<C, IBox<B>> reader = Accessors.getPropertyReader(javaClass, (String) property);
+				cache.put(property, reader);
 			} else {
 				throw new IllegalArgumentException("Property " + property + " must be defined as a Java String");
 			}
 
 		}
-		return cache.get(property);
+		// the accessor of a property is the same for all the property types
+		@SuppressWarnings("unchecked")
+		IUnaryFunction<C, IBox<B>> accessor = (IUnaryFunction<C, IBox<B>>) cache.get(property);
+		return accessor;
 	}
 
 	// Object
@@ -99,29 +92,4 @@ public class AOFMetaClass<C> extends BaseMetaClass<C> {
 		return javaClass.toString();
 	}
 
-
-	private class PropertyAccessor<B> implements IUnaryFunction<C, IBox<B>> {
-
-		private Method readMethod;
-
-		public PropertyAccessor(Method readMethod) {
-			this.readMethod = readMethod;
-		}
-
-		@Override
-		public IBox<B> apply(C object) {
-			IBox<B> result = null;
-			try {
-				result = (IBox<B>) readMethod.invoke(object);
-			} catch (IllegalAccessException e) {
-				throw new IllegalArgumentException("cannot access property reader " + readMethod, e);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalArgumentException("cannot access property reader " + readMethod, e);
-			} catch (InvocationTargetException e) {
-				throw new IllegalArgumentException("cannot access property reader " + readMethod, e);
-			}
-			return result;
-		}
-	}
-
 }
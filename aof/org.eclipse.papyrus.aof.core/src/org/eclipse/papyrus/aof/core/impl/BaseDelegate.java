@@ -14,13 +14,20 @@ import static org.eclipse.papyrus.aof.core.impl.utils.Equality.optionalEquals;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IObservable;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.IReadable;
 import org.eclipse.papyrus.aof.core.IWritable;
+import org.eclipse.papyrus.aof.core.impl.utils.Change;
+import org.eclipse.papyrus.aof.core.impl.utils.Diff;
 
 public abstract class BaseDelegate<E> implements IReadable<E>, IWritable<E>, IObservable<E> {
 
@@ -107,14 +114,123 @@ public abstract class BaseDelegate<E> implements IReadable<E>, IWritable<E>, IOb
 		delegator.add(length(), element);
 	}
 
+	@Override
+	public void addAll(final int index, final Iterable<E> elements) {
+		delegator.batch(new Runnable() {
+			@Override
+			public void run() {
+				int i = index;
+				for (E element : elements) {
+					delegator.add(i++, element);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void removeRange(final int fromIndex, final int toIndex) {
+		delegator.batch(new Runnable() {
+			@Override
+			public void run() {
+				// removing from the end avoids shifting the elements that remain to be removed
+				for (int i = toIndex - 1; i >= fromIndex; i--) {
+					delegator.removeAt(i);
+				}
+			}
+		});
+	}
+
+	// beyond this number of removals and insertions, computing the edit script costs more than replacing the contents
+	private static final int MAX_ASSIGN_EDITS = 1024;
+
+	// the removal of an element that is inserted again elsewhere, performed before applying the edit script
+	private static final int MOVED = -2;
+
 	@Override
 	public void assign(Iterable<E> iterable) {
-		delegator.clear(); // note that a null iterable represents an empty box
-		for (E element : iterable) {
-			// note that assign cannot be defined in
-			if (!delegator.isUnique() || !contains(element)) {
-				delegator.add(element);
+		if (delegator.isSingleton()) {
+			delegator.clear(); // note that a null iterable represents an empty box
+			for (E element : iterable) {
+				// note that assign cannot be defined in
+				if (!delegator.isUnique() || !contains(element)) {
+					delegator.add(element);
+				}
+			}
+		} else {
+			final List<E> newElements = new ArrayList<E>();
+			if (delegator.isUnique()) {
+				Set<E> elements = new HashSet<E>();
+				for (E element : iterable) {
+					if (elements.add(element)) {
+						newElements.add(element);
+					}
+				}
+			} else {
+				for (E element : iterable) {
+					newElements.add(element);
+				}
+			}
+			final List<E> oldElements = new ArrayList<E>(length());
+			for (int i = 0; i < length(); i++) {
+				oldElements.add(get(i));
+			}
+			final int[] matching = Diff.match(oldElements, newElements, MAX_ASSIGN_EDITS);
+			delegator.batch(new Runnable() {
+				@Override
+				public void run() {
+					if (matching == null) {
+						delegator.clear();
+						for (E element : newElements) {
+							delegator.add(element);
+						}
+					} else {
+						edit(oldElements, newElements, matching);
+					}
+				}
+			});
+		}
+	}
+
+	// applies the edit script defined by the matching of the old elements with the new ones (see Diff.match)
+	private void edit(List<E> oldElements, List<E> newElements, int[] matching) {
+		if (delegator.isUnique()) {
+			// elements that change of place are removed first, so that inserting them again never duplicates them
+			Set<E> elements = new HashSet<E>(newElements);
+			for (int i = oldElements.size() - 1; i >= 0; i--) {
+				if ((matching[i] == -1) && elements.contains(oldElements.get(i))) {
+					delegator.removeAt(i);
+					matching[i] = MOVED;
+				}
+			}
+		}
+		int index = 0;
+		int oldIndex = 0;
+		int newIndex = 0;
+		while ((oldIndex < oldElements.size()) || (newIndex < newElements.size())) {
+			// the gap before the next kept element: its removals are turned into replacements as far as possible
+			int removalCount = 0;
+			int oldNext = oldIndex;
+			while ((oldNext < oldElements.size()) && (matching[oldNext] < 0)) {
+				if (matching[oldNext] == -1) {
+					removalCount++;
+				}
+				oldNext++;
+			}
+			int newNext = (oldNext < oldElements.size()) ? matching[oldNext] : newElements.size();
+			int replacementCount = Math.min(removalCount, newNext - newIndex);
+			for (int i = 0; i < replacementCount; i++) {
+				delegator.set(index++, newElements.get(newIndex++));
+			}
+			for (int i = replacementCount; i < removalCount; i++) {
+				delegator.removeAt(index);
 			}
+			while (newIndex < newNext) {
+				delegator.add(index++, newElements.get(newIndex++));
+			}
+			// skips the kept element, if any
+			index++;
+			newIndex++;
+			oldIndex = oldNext + 1;
 		}
 	}
 
@@ -153,63 +269,228 @@ public abstract class BaseDelegate<E> implements IReadable<E>, IWritable<E>, IOb
 ////		}
 //	}
 
+	@Override
+	public void batch(Runnable mutations) {
+		if (batch == null) {
+			batch = new Batch<E>(observerArray());
+		}
+		batch.depth++;
+		try {
+			mutations.run();
+		} finally {
+			batch.depth--;
+			if (batch.depth == 0) {
+				Batch<E> endedBatch = batch;
+				batch = null;
+				fireChanged(endedBatch.observers, endedBatch.changes);
+			}
+		}
+	}
+
+	// Batches
+	// during a batch, changes are recorded for the batch observers registered when the batch started, and delivered
+	// to them at its end; other observers are notified immediately
+
+	// the state of a batch only exists while the batch runs, so that it does not weigh on every delegate
+	private static class Batch<E> {
+
+		private int depth = 0;
+
+		private IObserver<E>[] observers;
+
+		private List<Change<E>> changes = new ArrayList<Change<E>>();
+
+		private Batch(IObserver<E>[] observers) {
+			this.observers = observers;
+		}
+
+	}
+
+	private Batch<E> batch;
+
+	// the change is recorded before any observer is notified, since notifications may cause nested changes
+	private Change<E> record(Change<E> change) {
+		batch.changes.add(change);
+		return change;
+	}
+
+	private boolean isDeferred(IObserver<E> observer) {
+		return (observer instanceof IBatchObserver<?>) && (indexOfObserver(batch.observers, observer) != -1);
+	}
+
+	// tells whether an observer is notified of a change right away: a change of a batch is not if it is deferred
+	// to the end of the batch, in which case a disabled observer must skip it
+	private boolean isNotified(IObserver<E> observer, Change<E> change) {
+		if ((change != null) && isDeferred(observer)) {
+			if (observer.isDisabled()) {
+				change.skip(observer);
+			}
+			return false;
+		} else {
+			return !observer.isDisabled();
+		}
+	}
+
+	private void fireChanged(IObserver<E>[] observers, List<Change<E>> changes) {
+		if (!changes.isEmpty()) {
+			for (int i = 0; i < observers.length; i++) {
+				IObserver<E> observer = observers[i];
+				// the observer may have been removed during the batch
+				if ((observer instanceof IBatchObserver<?>) && !observer.isDisabled() && isRegistered(observer)) {
+					List<IChange<E>> observedChanges = Change.compact(changes, observer);
+					if (!observedChanges.isEmpty()) {
+						((IBatchObserver<E>) observer).changed(observedChanges);
+					}
+				}
+			}
+		}
+	}
+
 	// IObservable
 
-	private List<IObserver<E>> observers = new ArrayList<IObserver<E>>();
+	private static final IObserver<?>[] NO_OBSERVERS = new IObserver<?>[0];
+
+	// most boxes have at most one observer, which is stored inline; the other ones are stored in a copy-on-write
+	// array: it is replaced (never modified) when observers are added or removed, so that change propagation can
+	// iterate over the observers without copying them, even if observers are added or removed during the iteration
+	private IObserver<E> firstObserver;
+
+	private IObserver<E>[] otherObservers = noObservers();
+
+	@SuppressWarnings("unchecked")
+	private static <E> IObserver<E>[] noObservers() {
+		return (IObserver<E>[]) NO_OBSERVERS;
+	}
+
+	private static <E> int indexOfObserver(IObserver<E>[] observers, IObserver<E> observer) {
+		for (int i = 0; i < observers.length; i++) {
+			if (observers[i] == observer) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isRegistered(IObserver<E> observer) {
+		return (firstObserver == observer) || (indexOfObserver(otherObservers, observer) != -1);
+	}
+
+	// returns a snapshot of all the registered observers
+	@SuppressWarnings("unchecked")
+	private IObserver<E>[] observerArray() {
+		if (firstObserver == null) {
+			return noObservers();
+		} else {
+			IObserver<E>[] observers = (IObserver<E>[]) new IObserver<?>[otherObservers.length + 1];
+			observers[0] = firstObserver;
+			System.arraycopy(otherObservers, 0, observers, 1, otherObservers.length);
+			return observers;
+		}
+	}
 
 	@Override
 	public void addObserver(IObserver<E> observer) {
 		assert observer != null;
-		assert !observers.contains(observer);
+		assert !isRegistered(observer);
 
-		observers.add(observer);
+		if (firstObserver == null) {
+			firstObserver = observer;
+		} else {
+			IObserver<E>[] newObservers = Arrays.copyOf(otherObservers, otherObservers.length + 1);
+			newObservers[otherObservers.length] = observer;
+			otherObservers = newObservers;
+		}
 	}
 
 	@Override
 	public void removeObserver(IObserver<E> observer) {
-		assert observers.contains(observer);
-
-		observers.remove(observer);
+		assert isRegistered(observer);
+
+		if (firstObserver == observer) {
+			// the next observer takes the inline place, so that the notification order is kept
+			if (otherObservers.length == 0) {
+				firstObserver = null;
+			} else {
+				firstObserver = otherObservers[0];
+				otherObservers = (otherObservers.length == 1) ? BaseDelegate.<E> noObservers() : Arrays.copyOfRange(otherObservers, 1, otherObservers.length);
+			}
+		} else {
+			int index = indexOfObserver(otherObservers, observer);
+			if (otherObservers.length == 1) {
+				otherObservers = noObservers();
+			} else {
+				IObserver<E>[] newObservers = Arrays.copyOf(otherObservers, otherObservers.length - 1);
+				System.arraycopy(otherObservers, index + 1, newObservers, index, otherObservers.length - index - 1);
+				otherObservers = newObservers;
+			}
+		}
 	}
 
-	// copying the list is necessary because getObservers is used in change propagation, which can trigger ConcurrentModificationException
 	@Override
 	public Iterable<IObserver<E>> getObservers() {
-		return new ArrayList<IObserver<E>>(observers);
+		return Collections.unmodifiableList(Arrays.asList(observerArray()));
 	}
 
 	@Override
 	public boolean isObserved() {
-		return !observers.isEmpty();
+		return firstObserver != null;
 	}
 
 	protected void fireAdded(int index, E element) {
-		for (IObserver<E> observer : getObservers()) {
-			if (!observer.isDisabled()) {
+		Change<E> change = (batch != null) ? record(Change.added(index, element)) : null;
+		IObserver<E> firstObserver = this.firstObserver;
+		IObserver<E>[] otherObservers = this.otherObservers;
+		if ((firstObserver != null) && isNotified(firstObserver, change)) {
+			firstObserver.added(index, element);
+		}
+		for (int i = 0; i < otherObservers.length; i++) {
+			IObserver<E> observer = otherObservers[i];
+			if (isNotified(observer, change)) {
 				observer.added(index, element);
 			}
 		}
 	}
 
 	protected void fireRemoved(int index, E element) {
-		for (IObserver<E> observer : getObservers()) {
-			if (!observer.isDisabled()) {
+		Change<E> change = (batch != null) ? record(Change.removed(index, element)) : null;
+		IObserver<E> firstObserver = this.firstObserver;
+		IObserver<E>[] otherObservers = this.otherObservers;
+		if ((firstObserver != null) && isNotified(firstObserver, change)) {
+			firstObserver.removed(index, element);
+		}
+		for (int i = 0; i < otherObservers.length; i++) {
+			IObserver<E> observer = otherObservers[i];
+			if (isNotified(observer, change)) {
 				observer.removed(index, element);
 			}
 		}
 	}
 
 	protected void fireReplaced(int index, E newElement, E oldElement) {
-		for (IObserver<E> observer : getObservers()) {
-			if (!observer.isDisabled()) {
+		Change<E> change = (batch != null) ? record(Change.replaced(index, newElement, oldElement)) : null;
+		IObserver<E> firstObserver = this.firstObserver;
+		IObserver<E>[] otherObservers = this.otherObservers;
+		if ((firstObserver != null) && isNotified(firstObserver, change)) {
+			firstObserver.replaced(index, newElement, oldElement);
+		}
+		for (int i = 0; i < otherObservers.length; i++) {
+			IObserver<E> observer = otherObservers[i];
+			if (isNotified(observer, change)) {
 				observer.replaced(index, newElement, oldElement);
 			}
 		}
 	}
 
 	protected void fireMoved(int newIndex, int oldIndex, E element) {
-		for (IObserver<E> observer : getObservers()) {
-			if (!observer.isDisabled()) {
+		Change<E> change = (batch != null) ? record(Change.moved(newIndex, oldIndex, element)) : null;
+		IObserver<E> firstObserver = this.firstObserver;
+		IObserver<E>[] otherObservers = this.otherObservers;
+		if ((firstObserver != null) && isNotified(firstObserver, change)) {
+			firstObserver.moved(newIndex, oldIndex, element);
+		}
+		for (int i = 0; i < otherObservers.length; i++) {
+			IObserver<E> observer = otherObservers[i];
+			if (isNotified(observer, change)) {
 				observer.moved(newIndex, oldIndex, element);
 			}
 		}
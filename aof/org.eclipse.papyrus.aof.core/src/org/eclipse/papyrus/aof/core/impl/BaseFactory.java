@@ -13,9 +13,15 @@ package org.eclipse.papyrus.aof.core.impl;
 import java.util.Arrays;
 
 import org.eclipse.papyrus.aof.core.IBag;
+import org.eclipse.papyrus.aof.core.IBoolOne;
+import org.eclipse.papyrus.aof.core.IBoolSequence;
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
 import org.eclipse.papyrus.aof.core.IFactory;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.IIntSequence;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IOption;
 import org.eclipse.papyrus.aof.core.IOrderedSet;
@@ -51,9 +57,21 @@ public abstract class BaseFactory implements IFactory {
 		}
 	}
 
+	// unique collections are indexed by a hash map so that contains and indexOf are not linear;
+	// singletons store their element inline, since they are by far the most numerous boxes
+	protected <E> BaseDelegate<E> createDelegate(IConstraints constraints) {
+		if (constraints.isSingleton()) {
+			return new SingletonDelegate<E>();
+		} else if (constraints.isUnique()) {
+			return new HashListDelegate<E>();
+		} else {
+			return new ListDelegate<E>();
+		}
+	}
+
 	@Override
 	public <E> IBox<E> createBox(IConstraints constraints, E... elements) {
-		IBox<E> box = createBox(constraints, new ListDelegate<E>());
+		IBox<E> box = createBox(constraints, this.<E> createDelegate(constraints));
 		if (box.matches(IConstraints.ONE)) {
 			// if elements is empty => null default value
 			// else: default value = the first of the list
@@ -105,6 +123,51 @@ public abstract class BaseFactory implements IFactory {
 		return (IBag<E>) createBox(IConstraints.BAG, elements);
 	}
 
+	@Override
+	public IIntOne createIntOne(int defaultElement) {
+		IntOne box = new IntOne();
+		box.setDelegate(new IntDelegate());
+		box.clear(defaultElement);
+		return box;
+	}
+
+	@Override
+	public IIntSequence createIntSequence(int... elements) {
+		IntSequence box = new IntSequence();
+		box.setDelegate(new IntDelegate(elements));
+		return box;
+	}
+
+	@Override
+	public IDoubleOne createDoubleOne(double defaultElement) {
+		DoubleOne box = new DoubleOne();
+		box.setDelegate(new DoubleDelegate());
+		box.clear(defaultElement);
+		return box;
+	}
+
+	@Override
+	public IDoubleSequence createDoubleSequence(double... elements) {
+		DoubleSequence box = new DoubleSequence();
+		box.setDelegate(new DoubleDelegate(elements));
+		return box;
+	}
+
+	@Override
+	public IBoolOne createBoolOne(boolean defaultElement) {
+		BoolOne box = new BoolOne();
+		box.setDelegate(new BoolDelegate());
+		box.clear(defaultElement);
+		return box;
+	}
+
+	@Override
+	public IBoolSequence createBoolSequence(boolean... elements) {
+		BoolSequence box = new BoolSequence();
+		box.setDelegate(new BoolDelegate(elements));
+		return box;
+	}
+
 	@Override
 	public <L, R> IPair<L, R> createPair(L left, R right) {
 		return new Pair<L, R>(left, right);
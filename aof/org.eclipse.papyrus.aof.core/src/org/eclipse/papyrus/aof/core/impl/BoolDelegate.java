@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.papyrus.aof.core.IBoolObserver;
+
+/**
+ * A delegate that stores booleans unboxed in an array.
+ * <p>
+ * Elements are only boxed when they are read through the generic API, or when they are notified to regular observers
+ * (which is skipped when there is none). Unboxed observers are notified before regular observers.
+ */
+public class BoolDelegate extends BaseDelegate<Boolean> {
+
+	private boolean[] elements;
+
+	private int length;
+
+	public BoolDelegate(boolean... elements) {
+		this.elements = elements.clone();
+		this.length = elements.length;
+	}
+
+	private void checkIndex(int index, int bound) {
+		if ((index < 0) || (index >= bound)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+	}
+
+	// Iterable
+
+	@Override
+	public Iterator<Boolean> iterator() {
+		return new Iterator<Boolean>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < length;
+			}
+
+			@Override
+			public Boolean next() {
+				if (index >= length) {
+					throw new NoSuchElementException();
+				}
+				return elements[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	// IReadable
+
+	@Override
+	public Boolean get(int index) {
+		return getBool(index);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public int indexOf(Boolean element) {
+		if (element != null) {
+			boolean value = element;
+			for (int i = 0; i < length; i++) {
+				if (elements[i] == value) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// IWritable
+
+	@Override
+	public void add(int index, Boolean element) {
+		addBool(index, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		checkIndex(index, length);
+		boolean element = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, length - index - 1);
+		length--;
+		fireBoolRemoved(index, element);
+	}
+
+	@Override
+	public void set(int index, Boolean element) {
+		setBool(index, element);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		checkIndex(newIndex, length);
+		checkIndex(oldIndex, length);
+		boolean element = elements[oldIndex];
+		if (newIndex < oldIndex) {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1, oldIndex - newIndex);
+		} else if (newIndex > oldIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex, newIndex - oldIndex);
+		}
+		elements[newIndex] = element;
+		fireBoolMoved(newIndex, oldIndex, element);
+	}
+
+	// Unboxed access
+
+	public boolean getBool(int index) {
+		checkIndex(index, length);
+		return elements[index];
+	}
+
+	public void addBool(int index, boolean element) {
+		checkIndex(index, length + 1);
+		if (length == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(2 * length, 4));
+		}
+		System.arraycopy(elements, index, elements, index + 1, length - index);
+		elements[index] = element;
+		length++;
+		fireBoolAdded(index, element);
+	}
+
+	public void setBool(int index, boolean element) {
+		checkIndex(index, length);
+		boolean oldElement = elements[index];
+		elements[index] = element;
+		fireBoolReplaced(index, element, oldElement);
+	}
+
+	// Unboxed observers (copy-on-write array, as for regular observers)
+
+	private static final IBoolObserver[] NO_BOOL_OBSERVERS = new IBoolObserver[0];
+
+	private IBoolObserver[] boolObservers = NO_BOOL_OBSERVERS;
+
+	public void addBoolObserver(IBoolObserver observer) {
+		assert observer != null;
+
+		IBoolObserver[] newObservers = Arrays.copyOf(boolObservers, boolObservers.length + 1);
+		newObservers[boolObservers.length] = observer;
+		boolObservers = newObservers;
+	}
+
+	public void removeBoolObserver(IBoolObserver observer) {
+		for (int i = 0; i < boolObservers.length; i++) {
+			if (boolObservers[i] == observer) {
+				IBoolObserver[] newObservers = Arrays.copyOf(boolObservers, boolObservers.length - 1);
+				System.arraycopy(boolObservers, i + 1, newObservers, i, boolObservers.length - i - 1);
+				boolObservers = newObservers;
+				return;
+			}
+		}
+		assert false : "Observer " + observer + " is not registered";
+	}
+
+	@Override
+	public boolean isObserved() {
+		return (boolObservers.length > 0) || super.isObserved();
+	}
+
+	// regular observers are only notified (and elements boxed) if there are some
+
+	private void fireBoolAdded(int index, boolean element) {
+		IBoolObserver[] observers = boolObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].added(index, element);
+		}
+		if (super.isObserved()) {
+			fireAdded(index, element);
+		}
+	}
+
+	private void fireBoolRemoved(int index, boolean element) {
+		IBoolObserver[] observers = boolObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].removed(index, element);
+		}
+		if (super.isObserved()) {
+			fireRemoved(index, element);
+		}
+	}
+
+	private void fireBoolReplaced(int index, boolean newElement, boolean oldElement) {
+		IBoolObserver[] observers = boolObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].replaced(index, newElement, oldElement);
+		}
+		if (super.isObserved()) {
+			fireReplaced(index, newElement, oldElement);
+		}
+	}
+
+	private void fireBoolMoved(int newIndex, int oldIndex, boolean element) {
+		IBoolObserver[] observers = boolObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].moved(newIndex, oldIndex, element);
+		}
+		if (super.isObserved()) {
+			fireMoved(newIndex, oldIndex, element);
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBoolObserver;
+import org.eclipse.papyrus.aof.core.IBoolOne;
+
+public class BoolOne extends One<Boolean> implements IBoolOne {
+
+	private BoolDelegate getBoolDelegate() {
+		return (BoolDelegate) getDelegate();
+	}
+
+	// IBoolBox
+
+	@Override
+	public boolean getBool(int index) {
+		assert index == 0;
+
+		return getBoolDelegate().getBool(index);
+	}
+
+	@Override
+	public void setBool(int index, boolean element) {
+		assert index == 0;
+
+		getBoolDelegate().setBool(index, element);
+	}
+
+	@Override
+	public void addBoolObserver(IBoolObserver observer) {
+		getBoolDelegate().addBoolObserver(observer);
+	}
+
+	@Override
+	public void removeBoolObserver(IBoolObserver observer) {
+		getBoolDelegate().removeBoolObserver(observer);
+	}
+
+	// IBoolOne
+
+	@Override
+	public boolean getBool() {
+		return getBoolDelegate().getBool(0);
+	}
+
+	@Override
+	public void setBool(boolean element) {
+		getBoolDelegate().setBool(0, element);
+	}
+
+	// IBox
+
+	@Override
+	public IBoolOne snapshot() {
+		IBoolOne box = AOFFactory.INSTANCE.createBoolOne(getDefaultElement());
+		box.assign(this);
+		return box;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBoolObserver;
+import org.eclipse.papyrus.aof.core.IBoolSequence;
+
+public class BoolSequence extends Sequence<Boolean> implements IBoolSequence {
+
+	private BoolDelegate getBoolDelegate() {
+		return (BoolDelegate) getDelegate();
+	}
+
+	// IBoolBox
+
+	@Override
+	public boolean getBool(int index) {
+		assert (index >= 0) && (index < length());
+
+		return getBoolDelegate().getBool(index);
+	}
+
+	@Override
+	public void setBool(int index, boolean element) {
+		assert (index >= 0) && (index < length());
+
+		getBoolDelegate().setBool(index, element);
+	}
+
+	@Override
+	public void addBoolObserver(IBoolObserver observer) {
+		getBoolDelegate().addBoolObserver(observer);
+	}
+
+	@Override
+	public void removeBoolObserver(IBoolObserver observer) {
+		getBoolDelegate().removeBoolObserver(observer);
+	}
+
+	// IBoolSequence
+
+	@Override
+	public void addBool(boolean element) {
+		getBoolDelegate().addBool(length(), element);
+	}
+
+	@Override
+	public void addBool(int index, boolean element) {
+		assert (index >= 0) && (index <= length());
+
+		getBoolDelegate().addBool(index, element);
+	}
+
+	// IBox
+
+	@Override
+	public IBoolSequence snapshot() {
+		IBoolSequence box = AOFFactory.INSTANCE.createBoolSequence();
+		box.assign(this);
+		return box;
+	}
+
+}
@@ -10,15 +10,22 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl;
 
+import java.util.Comparator;
 import java.util.Iterator;
 
 import org.eclipse.papyrus.aof.core.AOFFactory;
 import org.eclipse.papyrus.aof.core.IBag;
 import org.eclipse.papyrus.aof.core.IBinaryFunction;
 import org.eclipse.papyrus.aof.core.IBinding;
+import org.eclipse.papyrus.aof.core.IBoolOne;
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IDoubleFunction;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
 import org.eclipse.papyrus.aof.core.IFactory;
+import org.eclipse.papyrus.aof.core.IIntFunction;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.IIntSequence;
 import org.eclipse.papyrus.aof.core.IMetaClass;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.IOne;
@@ -29,21 +36,30 @@ import org.eclipse.papyrus.aof.core.ISequence;
 import org.eclipse.papyrus.aof.core.ISet;
 import org.eclipse.papyrus.aof.core.ISingleton;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.operation.AlignedZipWith;
 import org.eclipse.papyrus.aof.core.impl.operation.Bind;
 import org.eclipse.papyrus.aof.core.impl.operation.CollectBijective;
 import org.eclipse.papyrus.aof.core.impl.operation.CollectBox;
+import org.eclipse.papyrus.aof.core.impl.operation.CollectDouble;
+import org.eclipse.papyrus.aof.core.impl.operation.CollectInt;
 import org.eclipse.papyrus.aof.core.impl.operation.CollectSurjective;
 import org.eclipse.papyrus.aof.core.impl.operation.CollectTo;
 import org.eclipse.papyrus.aof.core.impl.operation.CollectWithState;
 import org.eclipse.papyrus.aof.core.impl.operation.Concat;
 import org.eclipse.papyrus.aof.core.impl.operation.Copy;
+import org.eclipse.papyrus.aof.core.impl.operation.Count;
 import org.eclipse.papyrus.aof.core.impl.operation.Distinct;
+import org.eclipse.papyrus.aof.core.impl.operation.Extremum;
 import org.eclipse.papyrus.aof.core.impl.operation.First;
+import org.eclipse.papyrus.aof.core.impl.operation.GroupBy;
 import org.eclipse.papyrus.aof.core.impl.operation.Inspect;
+import org.eclipse.papyrus.aof.core.impl.operation.IsEmpty;
+import org.eclipse.papyrus.aof.core.impl.operation.SelectBy;
 import org.eclipse.papyrus.aof.core.impl.operation.SelectWithMutablePredicate;
 import org.eclipse.papyrus.aof.core.impl.operation.SelectWithPredicate;
 import org.eclipse.papyrus.aof.core.impl.operation.SelectWithPresence;
 import org.eclipse.papyrus.aof.core.impl.operation.Size;
+import org.eclipse.papyrus.aof.core.impl.operation.SortedBy;
 import org.eclipse.papyrus.aof.core.impl.operation.SwitchCollect;
 import org.eclipse.papyrus.aof.core.impl.operation.Zip;
 import org.eclipse.papyrus.aof.core.impl.operation.ZipWith;
@@ -161,6 +177,16 @@ public abstract class Box<E> implements IBox<E> {
 		delegate.add(element);
 	}
 
+	@Override
+	public void addAll(int index, Iterable<E> elements) {
+		assert checkAddIndex(index);
+
+		if (elements == null) {
+			throw new IllegalArgumentException("Cannot add elements from a null iterator");
+		}
+		delegate.addAll(index, elements);
+	}
+
 	@Override
 	public void removeAt(int index) {
 		assert checkExistingIndex(index);
@@ -168,6 +194,15 @@ public abstract class Box<E> implements IBox<E> {
 		delegate.removeAt(index);
 	}
 
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		assert checkAddIndex(fromIndex);
+		assert checkAddIndex(toIndex);
+		assert fromIndex <= toIndex;
+
+		delegate.removeRange(fromIndex, toIndex);
+	}
+
 	@Override
 	public void remove(E element) {
 		assert contains(element);
@@ -196,6 +231,11 @@ public abstract class Box<E> implements IBox<E> {
 		delegate.clear();
 	}
 
+	@Override
+	public void batch(Runnable mutations) {
+		delegate.batch(mutations);
+	}
+
 	// IObservable
 
 	@Override
@@ -280,28 +320,43 @@ public abstract class Box<E> implements IBox<E> {
 	}
 
 	@Override
-	public IOne<Integer> size() {
+	public IIntOne size() {
 		return new Size<E>(this).getResult();
 	}
 
 	@Override
-	public IOne<Boolean> isEmpty() {
-		return (IOne<Boolean>) size().collect(new IUnaryFunction<Integer, Boolean>() {
-			@Override
-			public Boolean apply(Integer element) {
-				return element == 0;
-			}
-		});
+	public IBoolOne isEmpty() {
+		return new IsEmpty<E>(this, true).getResult();
 	}
 
 	@Override
-	public IOne<Boolean> notEmpty() {
-		return (IOne<Boolean>) size().collect(new IUnaryFunction<Integer, Boolean>() {
-			@Override
-			public Boolean apply(Integer element) {
-				return element > 0;
-			}
-		});
+	public IBoolOne notEmpty() {
+		return new IsEmpty<E>(this, false).getResult();
+	}
+
+	@Override
+	public IIntOne count(E element) {
+		return new Count<E>(this, element).getResult();
+	}
+
+	@Override
+	public IOption<E> min() {
+		return min(null);
+	}
+
+	@Override
+	public IOption<E> min(Comparator<? super E> comparator) {
+		return new Extremum<E>(this, comparator, false).getResult();
+	}
+
+	@Override
+	public IOption<E> max() {
+		return max(null);
+	}
+
+	@Override
+	public IOption<E> max(Comparator<? super E> comparator) {
+		return new Extremum<E>(this, comparator, true).getResult();
 	}
 
 	@Override
@@ -309,6 +364,16 @@ public abstract class Box<E> implements IBox<E> {
 		return new CollectSurjective<E, R>(this, collector).getResult();
 	}
 
+	@Override
+	public IIntSequence collectInt(IIntFunction<? super E> collector) {
+		return new CollectInt<E>(this, collector).getResult();
+	}
+
+	@Override
+	public IDoubleSequence collectDouble(IDoubleFunction<? super E> collector) {
+		return new CollectDouble<E>(this, collector).getResult();
+	}
+
 	@Override
 	public <R> IBox<R> collect(IUnaryFunction<E, R> collector, IUnaryFunction<R, E> inverseCollector) {
 		return new CollectBijective<E, R>(this, collector, inverseCollector).getResult();
@@ -416,6 +481,37 @@ public abstract class Box<E> implements IBox<E> {
 		return new ZipWith<E, F, R>(this, that, leftRightDependency, zipper, unzipper).getResult();
 	}
 
+	@Override
+	public <F, R> IBox<R> zipWithAligned(IBox<F> that, IBinaryFunction<E, F, R> zipper) {
+		return new AlignedZipWith<E, F, R>(this, that, zipper).getResult();
+	}
+
+	@Override
+	public IBox<E> sortedBy(IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies, boolean ascending) {
+		if (this.isSingleton()) {
+			return this;
+		} else {
+			return new SortedBy<E>(this, comparatorBodies, ascending).getResult();
+		}
+	}
+
+	@Override
+	public IBox<E> sortedBy(IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>> comparatorBody, boolean ascending) {
+		@SuppressWarnings("unchecked")
+		IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies = new IUnaryFunction[] { comparatorBody };
+		return sortedBy(comparatorBodies, ascending);
+	}
+
+	@Override
+	public <K> IBox<IPair<K, IBox<E>>> groupBy(IUnaryFunction<? super E, ? extends IOne<K>> keyFunction) {
+		return GroupBy.getInstance(this, keyFunction).getResult();
+	}
+
+	@Override
+	public <K> IBox<E> selectBy(IOne<K> keyBox, IUnaryFunction<? super E, ? extends IOne<K>> keyFunction) {
+		return new SelectBy<E, K>(this, keyBox, keyFunction).getResult();
+	}
+
 	@Override
 	public IBox<E> distinct() {
 		if (this.isUnique()) {
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.papyrus.aof.core.IDoubleObserver;
+
+/**
+ * A delegate that stores doubles unboxed in an array.
+ * <p>
+ * Elements are only boxed when they are read through the generic API, or when they are notified to regular observers
+ * (which is skipped when there is none). Unboxed observers are notified before regular observers.
+ */
+public class DoubleDelegate extends BaseDelegate<Double> {
+
+	private double[] elements;
+
+	private int length;
+
+	public DoubleDelegate(double... elements) {
+		this.elements = elements.clone();
+		this.length = elements.length;
+	}
+
+	private void checkIndex(int index, int bound) {
+		if ((index < 0) || (index >= bound)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+	}
+
+	// Iterable
+
+	@Override
+	public Iterator<Double> iterator() {
+		return new Iterator<Double>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < length;
+			}
+
+			@Override
+			public Double next() {
+				if (index >= length) {
+					throw new NoSuchElementException();
+				}
+				return elements[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	// IReadable
+
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public int indexOf(Double element) {
+		if (element != null) {
+			double value = element;
+			long bits = Double.doubleToLongBits(value);
+			for (int i = 0; i < length; i++) {
+				if (Double.doubleToLongBits(elements[i]) == bits) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// IWritable
+
+	@Override
+	public void add(int index, Double element) {
+		addDouble(index, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		checkIndex(index, length);
+		double element = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, length - index - 1);
+		length--;
+		fireDoubleRemoved(index, element);
+	}
+
+	@Override
+	public void set(int index, Double element) {
+		setDouble(index, element);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		checkIndex(newIndex, length);
+		checkIndex(oldIndex, length);
+		double element = elements[oldIndex];
+		if (newIndex < oldIndex) {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1, oldIndex - newIndex);
+		} else if (newIndex > oldIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex, newIndex - oldIndex);
+		}
+		elements[newIndex] = element;
+		fireDoubleMoved(newIndex, oldIndex, element);
+	}
+
+	// Unboxed access
+
+	public double getDouble(int index) {
+		checkIndex(index, length);
+		return elements[index];
+	}
+
+	public void addDouble(int index, double element) {
+		checkIndex(index, length + 1);
+		if (length == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(2 * length, 4));
+		}
+		System.arraycopy(elements, index, elements, index + 1, length - index);
+		elements[index] = element;
+		length++;
+		fireDoubleAdded(index, element);
+	}
+
+	public void setDouble(int index, double element) {
+		checkIndex(index, length);
+		double oldElement = elements[index];
+		elements[index] = element;
+		fireDoubleReplaced(index, element, oldElement);
+	}
+
+	// Unboxed observers (copy-on-write array, as for regular observers)
+
+	private static final IDoubleObserver[] NO_DOUBLE_OBSERVERS = new IDoubleObserver[0];
+
+	private IDoubleObserver[] doubleObservers = NO_DOUBLE_OBSERVERS;
+
+	public void addDoubleObserver(IDoubleObserver observer) {
+		assert observer != null;
+
+		IDoubleObserver[] newObservers = Arrays.copyOf(doubleObservers, doubleObservers.length + 1);
+		newObservers[doubleObservers.length] = observer;
+		doubleObservers = newObservers;
+	}
+
+	public void removeDoubleObserver(IDoubleObserver observer) {
+		for (int i = 0; i < doubleObservers.length; i++) {
+			if (doubleObservers[i] == observer) {
+				IDoubleObserver[] newObservers = Arrays.copyOf(doubleObservers, doubleObservers.length - 1);
+				System.arraycopy(doubleObservers, i + 1, newObservers, i, doubleObservers.length - i - 1);
+				doubleObservers = newObservers;
+				return;
+			}
+		}
+		assert false : "Observer " + observer + " is not registered";
+	}
+
+	@Override
+	public boolean isObserved() {
+		return (doubleObservers.length > 0) || super.isObserved();
+	}
+
+	// regular observers are only notified (and elements boxed) if there are some
+
+	private void fireDoubleAdded(int index, double element) {
+		IDoubleObserver[] observers = doubleObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].added(index, element);
+		}
+		if (super.isObserved()) {
+			fireAdded(index, element);
+		}
+	}
+
+	private void fireDoubleRemoved(int index, double element) {
+		IDoubleObserver[] observers = doubleObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].removed(index, element);
+		}
+		if (super.isObserved()) {
+			fireRemoved(index, element);
+		}
+	}
+
+	private void fireDoubleReplaced(int index, double newElement, double oldElement) {
+		IDoubleObserver[] observers = doubleObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].replaced(index, newElement, oldElement);
+		}
+		if (super.isObserved()) {
+			fireReplaced(index, newElement, oldElement);
+		}
+	}
+
+	private void fireDoubleMoved(int newIndex, int oldIndex, double element) {
+		IDoubleObserver[] observers = doubleObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].moved(newIndex, oldIndex, element);
+		}
+		if (super.isObserved()) {
+			fireMoved(newIndex, oldIndex, element);
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleObserver;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.impl.operation.Average;
+import org.eclipse.papyrus.aof.core.impl.operation.SumDouble;
+
+public class DoubleOne extends One<Double> implements IDoubleOne {
+
+	private DoubleDelegate getDoubleDelegate() {
+		return (DoubleDelegate) getDelegate();
+	}
+
+	// IDoubleBox
+
+	@Override
+	public double getDouble(int index) {
+		assert index == 0;
+
+		return getDoubleDelegate().getDouble(index);
+	}
+
+	@Override
+	public void setDouble(int index, double element) {
+		assert index == 0;
+
+		getDoubleDelegate().setDouble(index, element);
+	}
+
+	@Override
+	public void addDoubleObserver(IDoubleObserver observer) {
+		getDoubleDelegate().addDoubleObserver(observer);
+	}
+
+	@Override
+	public void removeDoubleObserver(IDoubleObserver observer) {
+		getDoubleDelegate().removeDoubleObserver(observer);
+	}
+
+	@Override
+	public IDoubleOne sum() {
+		return new SumDouble(this).getResult();
+	}
+
+	@Override
+	public IDoubleOne average() {
+		return new Average(this).getResult();
+	}
+
+	// IDoubleOne
+
+	@Override
+	public double getDouble() {
+		return getDoubleDelegate().getDouble(0);
+	}
+
+	@Override
+	public void setDouble(double element) {
+		getDoubleDelegate().setDouble(0, element);
+	}
+
+	// IBox
+
+	@Override
+	public IDoubleOne snapshot() {
+		IDoubleOne box = AOFFactory.INSTANCE.createDoubleOne(getDefaultElement());
+		box.assign(this);
+		return box;
+	}
+
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleObserver;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IDoubleSequence;
+import org.eclipse.papyrus.aof.core.impl.operation.Average;
+import org.eclipse.papyrus.aof.core.impl.operation.SumDouble;
+
+public class DoubleSequence extends Sequence<Double> implements IDoubleSequence {
+
+	private DoubleDelegate getDoubleDelegate() {
+		return (DoubleDelegate) getDelegate();
+	}
+
+	// IDoubleBox
+
+	@Override
+	public double getDouble(int index) {
+		assert (index >= 0) && (index < length());
+
+		return getDoubleDelegate().getDouble(index);
+	}
+
+	@Override
+	public void setDouble(int index, double element) {
+		assert (index >= 0) && (index < length());
+
+		getDoubleDelegate().setDouble(index, element);
+	}
+
+	@Override
+	public void addDoubleObserver(IDoubleObserver observer) {
+		getDoubleDelegate().addDoubleObserver(observer);
+	}
+
+	@Override
+	public void removeDoubleObserver(IDoubleObserver observer) {
+		getDoubleDelegate().removeDoubleObserver(observer);
+	}
+
+	@Override
+	public IDoubleOne sum() {
+		return new SumDouble(this).getResult();
+	}
+
+	@Override
+	public IDoubleOne average() {
+		return new Average(this).getResult();
+	}
+
+	// IDoubleSequence
+
+	@Override
+	public void addDouble(double element) {
+		getDoubleDelegate().addDouble(length(), element);
+	}
+
+	@Override
+	public void addDouble(int index, double element) {
+		assert (index >= 0) && (index <= length());
+
+		getDoubleDelegate().addDouble(index, element);
+	}
+
+	// IBox
+
+	@Override
+	public IDoubleSequence snapshot() {
+		IDoubleSequence box = AOFFactory.INSTANCE.createDoubleSequence();
+		box.assign(this);
+		return box;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree.Node;
+
+/**
+ * A delegate for unique boxes that indexes its elements by a hash map, so that contains is O(1) and indexOf is
+ * O(log n) without any scan
+ * <p>
+ * The elements are stored in the nodes of a {@link WeightBalancedTree} (an order-statistics tree), and the map
+ * associates each element with its node. Nodes keep their identity when elements are shifted or moved, so that the
+ * index of an element is always exactly known from its node, whatever the mutations (e.g. alternating removals at the
+ * front and at the back). Positional access, insertions, removals and moves are O(log n).
+ * 
+ * @author obeaudoux
+ * 
+ * @param <E>
+ */
+public class HashListDelegate<E> extends BaseDelegate<E> {
+
+	private WeightBalancedTree<E> tree = new WeightBalancedTree<E>();
+
+	private Map<E, Node<E>> nodes = new HashMap<E, Node<E>>();
+
+	// Iterable
+
+	@Override
+	public Iterator<E> iterator() {
+		return tree.iterator();
+	}
+
+	// Readable
+
+	@Override
+	public E get(int index) {
+		return tree.get(index);
+	}
+
+	@Override
+	public int length() {
+		return tree.size();
+	}
+
+	@Override
+	public int indexOf(E element) {
+		Node<E> node = nodes.get(element);
+		return (node == null) ? -1 : tree.indexOf(node);
+	}
+
+	@Override
+	public boolean contains(E element) {
+		return nodes.containsKey(element);
+	}
+
+	// Writable
+	// nodes must be updated before firing since observers can query this delegate
+
+	@Override
+	public void add(int index, E element) {
+		nodes.put(element, tree.add(index, element, 0));
+		fireAdded(index, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		E element = tree.removeAt(index).getValue();
+		nodes.remove(element);
+		fireRemoved(index, element);
+	}
+
+	@Override
+	public void set(int index, E element) {
+		Node<E> node = tree.getNode(index);
+		E oldElement = node.getValue();
+		node.setValue(element);
+		nodes.remove(oldElement);
+		nodes.put(element, node);
+		fireReplaced(index, element, oldElement);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		E element = tree.get(oldIndex);
+		tree.move(newIndex, oldIndex);
+		fireMoved(newIndex, oldIndex, element);
+	}
+
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.papyrus.aof.core.IIntObserver;
+
+/**
+ * A delegate that stores integers unboxed in an array.
+ * <p>
+ * Elements are only boxed when they are read through the generic API, or when they are notified to regular observers
+ * (which is skipped when there is none). Unboxed observers are notified before regular observers.
+ */
+public class IntDelegate extends BaseDelegate<Integer> {
+
+	private int[] elements;
+
+	private int length;
+
+	public IntDelegate(int... elements) {
+		this.elements = elements.clone();
+		this.length = elements.length;
+	}
+
+	private void checkIndex(int index, int bound) {
+		if ((index < 0) || (index >= bound)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+	}
+
+	// Iterable
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < length;
+			}
+
+			@Override
+			public Integer next() {
+				if (index >= length) {
+					throw new NoSuchElementException();
+				}
+				return elements[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	// IReadable
+
+	@Override
+	public Integer get(int index) {
+		return getInt(index);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public int indexOf(Integer element) {
+		if (element != null) {
+			int value = element;
+			for (int i = 0; i < length; i++) {
+				if (elements[i] == value) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// IWritable
+
+	@Override
+	public void add(int index, Integer element) {
+		addInt(index, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		checkIndex(index, length);
+		int element = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, length - index - 1);
+		length--;
+		fireIntRemoved(index, element);
+	}
+
+	@Override
+	public void set(int index, Integer element) {
+		setInt(index, element);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		checkIndex(newIndex, length);
+		checkIndex(oldIndex, length);
+		int element = elements[oldIndex];
+		if (newIndex < oldIndex) {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1, oldIndex - newIndex);
+		} else if (newIndex > oldIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex, newIndex - oldIndex);
+		}
+		elements[newIndex] = element;
+		fireIntMoved(newIndex, oldIndex, element);
+	}
+
+	// Unboxed access
+
+	public int getInt(int index) {
+		checkIndex(index, length);
+		return elements[index];
+	}
+
+	public void addInt(int index, int element) {
+		checkIndex(index, length + 1);
+		if (length == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(2 * length, 4));
+		}
+		System.arraycopy(elements, index, elements, index + 1, length - index);
+		elements[index] = element;
+		length++;
+		fireIntAdded(index, element);
+	}
+
+	public void setInt(int index, int element) {
+		checkIndex(index, length);
+		int oldElement = elements[index];
+		elements[index] = element;
+		fireIntReplaced(index, element, oldElement);
+	}
+
+	// Unboxed observers (copy-on-write array, as for regular observers)
+
+	private static final IIntObserver[] NO_INT_OBSERVERS = new IIntObserver[0];
+
+	private IIntObserver[] intObservers = NO_INT_OBSERVERS;
+
+	public void addIntObserver(IIntObserver observer) {
+		assert observer != null;
+
+		IIntObserver[] newObservers = Arrays.copyOf(intObservers, intObservers.length + 1);
+		newObservers[intObservers.length] = observer;
+		intObservers = newObservers;
+	}
+
+	public void removeIntObserver(IIntObserver observer) {
+		for (int i = 0; i < intObservers.length; i++) {
+			if (intObservers[i] == observer) {
+				IIntObserver[] newObservers = Arrays.copyOf(intObservers, intObservers.length - 1);
+				System.arraycopy(intObservers, i + 1, newObservers, i, intObservers.length - i - 1);
+				intObservers = newObservers;
+				return;
+			}
+		}
+		assert false : "Observer " + observer + " is not registered";
+	}
+
+	@Override
+	public boolean isObserved() {
+		return (intObservers.length > 0) || super.isObserved();
+	}
+
+	// regular observers are only notified (and elements boxed) if there are some
+
+	private void fireIntAdded(int index, int element) {
+		IIntObserver[] observers = intObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].added(index, element);
+		}
+		if (super.isObserved()) {
+			fireAdded(index, element);
+		}
+	}
+
+	private void fireIntRemoved(int index, int element) {
+		IIntObserver[] observers = intObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].removed(index, element);
+		}
+		if (super.isObserved()) {
+			fireRemoved(index, element);
+		}
+	}
+
+	private void fireIntReplaced(int index, int newElement, int oldElement) {
+		IIntObserver[] observers = intObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].replaced(index, newElement, oldElement);
+		}
+		if (super.isObserved()) {
+			fireReplaced(index, newElement, oldElement);
+		}
+	}
+
+	private void fireIntMoved(int newIndex, int oldIndex, int element) {
+		IIntObserver[] observers = intObservers;
+		for (int i = 0; i < observers.length; i++) {
+			observers[i].moved(newIndex, oldIndex, element);
+		}
+		if (super.isObserved()) {
+			fireMoved(newIndex, oldIndex, element);
+		}
+	}
+
+}
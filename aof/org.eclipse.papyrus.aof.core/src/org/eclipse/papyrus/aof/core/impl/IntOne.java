@@ -0,0 +1,83 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IIntObserver;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.impl.operation.Average;
+import org.eclipse.papyrus.aof.core.impl.operation.SumInt;
+
+public class IntOne extends One<Integer> implements IIntOne {
+
+	private IntDelegate getIntDelegate() {
+		return (IntDelegate) getDelegate();
+	}
+
+	// IIntBox
+
+	@Override
+	public int getInt(int index) {
+		assert index == 0;
+
+		return getIntDelegate().getInt(index);
+	}
+
+	@Override
+	public void setInt(int index, int element) {
+		assert index == 0;
+
+		getIntDelegate().setInt(index, element);
+	}
+
+	@Override
+	public void addIntObserver(IIntObserver observer) {
+		getIntDelegate().addIntObserver(observer);
+	}
+
+	@Override
+	public void removeIntObserver(IIntObserver observer) {
+		getIntDelegate().removeIntObserver(observer);
+	}
+
+	@Override
+	public IIntOne sum() {
+		return new SumInt(this).getResult();
+	}
+
+	@Override
+	public IDoubleOne average() {
+		return new Average(this).getResult();
+	}
+
+	// IIntOne
+
+	@Override
+	public int getInt() {
+		return getIntDelegate().getInt(0);
+	}
+
+	@Override
+	public void setInt(int element) {
+		getIntDelegate().setInt(0, element);
+	}
+
+	// IBox
+
+	@Override
+	public IIntOne snapshot() {
+		IIntOne box = AOFFactory.INSTANCE.createIntOne(getDefaultElement());
+		box.assign(this);
+		return box;
+	}
+
+}
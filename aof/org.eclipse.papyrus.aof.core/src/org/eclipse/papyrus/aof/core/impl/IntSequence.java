@@ -0,0 +1,86 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IIntObserver;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.IIntSequence;
+import org.eclipse.papyrus.aof.core.impl.operation.Average;
+import org.eclipse.papyrus.aof.core.impl.operation.SumInt;
+
+public class IntSequence extends Sequence<Integer> implements IIntSequence {
+
+	private IntDelegate getIntDelegate() {
+		return (IntDelegate) getDelegate();
+	}
+
+	// IIntBox
+
+	@Override
+	public int getInt(int index) {
+		assert (index >= 0) && (index < length());
+
+		return getIntDelegate().getInt(index);
+	}
+
+	@Override
+	public void setInt(int index, int element) {
+		assert (index >= 0) && (index < length());
+
+		getIntDelegate().setInt(index, element);
+	}
+
+	@Override
+	public void addIntObserver(IIntObserver observer) {
+		getIntDelegate().addIntObserver(observer);
+	}
+
+	@Override
+	public void removeIntObserver(IIntObserver observer) {
+		getIntDelegate().removeIntObserver(observer);
+	}
+
+	@Override
+	public IIntOne sum() {
+		return new SumInt(this).getResult();
+	}
+
+	@Override
+	public IDoubleOne average() {
+		return new Average(this).getResult();
+	}
+
+	// IIntSequence
+
+	@Override
+	public void addInt(int element) {
+		getIntDelegate().addInt(length(), element);
+	}
+
+	@Override
+	public void addInt(int index, int element) {
+		assert (index >= 0) && (index <= length());
+
+		getIntDelegate().addInt(index, element);
+	}
+
+	// IBox
+
+	@Override
+	public IIntSequence snapshot() {
+		IIntSequence box = AOFFactory.INSTANCE.createIntSequence();
+		box.assign(this);
+		return box;
+	}
+
+}
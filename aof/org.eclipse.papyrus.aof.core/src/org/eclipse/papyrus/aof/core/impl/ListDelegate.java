@@ -14,8 +14,15 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.papyrus.aof.core.impl.utils.TreeList;
+
 /**
  * A delegate that uses a Java list to implements most of the box operations
+ * <p>
+ * Beyond a length threshold, the elements are moved from an array list to a {@link TreeList}, so that insertions,
+ * removals and moves in the middle of large boxes are O(log n) instead of O(n). They are moved back to an array list
+ * (which has a faster positional access and a smaller footprint) once the length falls below a quarter of the
+ * threshold.
  * 
  * @author obeaudoux
  * 
@@ -23,8 +30,34 @@ import java.util.List;
  */
 public class ListDelegate<E> extends BaseDelegate<E> {
 
+	// measured crossover of random insertions and removals between ArrayList and TreeList: about 16k elements
+	private static final int TREE_THRESHOLD = 32768;
+
 	private List<E> list = new ArrayList<E>();
 
+	private int treeThreshold;
+
+	public ListDelegate() {
+		this(TREE_THRESHOLD);
+	}
+
+	// the elements are always stored in a tree with a zero threshold
+	protected ListDelegate(int treeThreshold) {
+		this.treeThreshold = treeThreshold;
+	}
+
+	private void growing() {
+		if ((list.size() > treeThreshold) && !(list instanceof TreeList<?>)) {
+			list = new TreeList<E>(list);
+		}
+	}
+
+	private void shrinking() {
+		if ((list.size() < treeThreshold / 4) && (list instanceof TreeList<?>)) {
+			list = new ArrayList<E>(list);
+		}
+	}
+
 	// Iterable
 
 	@Override
@@ -49,12 +82,14 @@ public class ListDelegate<E> extends BaseDelegate<E> {
 	@Override
 	public void add(int index, E element) {
 		list.add(index, element);
+		growing();
 		fireAdded(index, element);
 	}
 
 	@Override
 	public void removeAt(int index) {
 		E element = list.remove(index);
+		shrinking();
 		fireRemoved(index, element);
 	}
 
@@ -68,12 +103,14 @@ public class ListDelegate<E> extends BaseDelegate<E> {
 	public void move(int newIndex, int oldIndex) {
 		E element = list.get(oldIndex);
 		if (newIndex != oldIndex) {
-			list.remove(oldIndex);
-			list.add(newIndex, element);
+			if (list instanceof TreeList<?>) {
+				((TreeList<E>) list).move(newIndex, oldIndex);
+			} else {
+				list.remove(oldIndex);
+				list.add(newIndex, element);
+			}
 		}
 		fireMoved(newIndex, oldIndex, element);
 	}
 
-	
-	
 }
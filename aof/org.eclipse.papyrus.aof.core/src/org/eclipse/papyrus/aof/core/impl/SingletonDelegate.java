@@ -0,0 +1,123 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import static org.eclipse.papyrus.aof.core.impl.utils.Equality.optionalEquals;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A delegate for singleton boxes (one and option) that stores its element inline instead of in a Java list
+ *
+ * @param <E>
+ */
+public class SingletonDelegate<E> extends BaseDelegate<E> {
+
+	private E element;
+
+	// distinguishes an empty option from an option containing null
+	private boolean present;
+
+	// Iterable
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private boolean hasNext = present;
+
+			@Override
+			public boolean hasNext() {
+				return hasNext;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext) {
+					throw new NoSuchElementException();
+				}
+				hasNext = false;
+				return element;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	// Readable
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+		return element;
+	}
+
+	@Override
+	public int length() {
+		return present ? 1 : 0;
+	}
+
+	@Override
+	public int indexOf(E element) {
+		return (present && optionalEquals(this.element, element)) ? 0 : -1;
+	}
+
+	// Writable
+
+	@Override
+	public void add(int index, E element) {
+		if (index != 0) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for a singleton");
+		}
+		if (present) {
+			throw new IllegalStateException("A singleton cannot contain more than one element");
+		}
+		this.element = element;
+		present = true;
+		fireAdded(0, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		checkIndex(index);
+		E oldElement = element;
+		element = null;
+		present = false;
+		fireRemoved(0, oldElement);
+	}
+
+	@Override
+	public void set(int index, E element) {
+		checkIndex(index);
+		E oldElement = this.element;
+		this.element = element;
+		fireReplaced(0, element, oldElement);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		checkIndex(oldIndex);
+		checkIndex(newIndex);
+		fireMoved(0, 0, element);
+	}
+
+	private void checkIndex(int index) {
+		if (!present || (index != 0)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + length());
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+/**
+ * A delegate that always stores its elements in a {@link org.eclipse.papyrus.aof.core.impl.utils.TreeList} (an
+ * order-statistics tree), so that positional insertions, removals and moves are O(log n) whatever the length of the
+ * box. It suits boxes known to be large and frequently mutated in their middle; {@link ListDelegate} only switches to a
+ * tree beyond a length threshold.
+ * 
+ * @param <E>
+ */
+public class TreeDelegate<E> extends ListDelegate<E> {
+
+	public TreeDelegate() {
+		super(0);
+	}
+
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A delegate for unordered unique boxes (sets) that keeps the exact index of each element in a hash map, and removes an
+ * element by moving the last element in its place, so that adding an element at the end and removing an element are
+ * O(1) whatever the length of the box.
+ * <p>
+ * The removal of an element that is not the last one is notified as a batch of two changes: the removal of the last
+ * element, then the replacement of the removed element by the former last one. Positional insertions, removals and
+ * moves are still supported, but they reindex the shifted elements.
+ * 
+ * @param <E>
+ */
+public class UnorderedSetDelegate<E> extends BaseDelegate<E> {
+
+	private List<E> list = new ArrayList<E>();
+
+	private Map<E, Integer> indices = new HashMap<E, Integer>();
+
+	// Iterable
+
+	@Override
+	public Iterator<E> iterator() {
+		return list.iterator();
+	}
+
+	// Readable
+
+	@Override
+	public E get(int index) {
+		return list.get(index);
+	}
+
+	@Override
+	public int length() {
+		return list.size();
+	}
+
+	@Override
+	public int indexOf(E element) {
+		Integer index = indices.get(element);
+		return (index == null) ? -1 : index;
+	}
+
+	@Override
+	public boolean contains(E element) {
+		return indices.containsKey(element);
+	}
+
+	// Writable
+	// indices must be updated before firing since observers can query this delegate
+
+	@Override
+	public void add(int index, E element) {
+		list.add(index, element);
+		reindex(index, list.size());
+		fireAdded(index, element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		E element = list.remove(index);
+		indices.remove(element);
+		reindex(index, list.size());
+		fireRemoved(index, element);
+	}
+
+	@Override
+	public void remove(E element) {
+		final int index = indexOf(element);
+		final int lastIndex = list.size() - 1;
+		if (index == lastIndex) {
+			removeAt(lastIndex);
+		} else {
+			getDelegator().batch(new Runnable() {
+				@Override
+				public void run() {
+					E lastElement = list.get(lastIndex);
+					getDelegator().removeAt(lastIndex);
+					getDelegator().set(index, lastElement);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void set(int index, E element) {
+		E oldElement = list.set(index, element);
+		indices.remove(oldElement);
+		indices.put(element, index);
+		fireReplaced(index, element, oldElement);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		E element = list.get(oldIndex);
+		if (newIndex != oldIndex) {
+			list.remove(oldIndex);
+			list.add(newIndex, element);
+			reindex(Math.min(newIndex, oldIndex), Math.max(newIndex, oldIndex) + 1);
+		}
+		fireMoved(newIndex, oldIndex, element);
+	}
+
+	private void reindex(int fromIndex, int toIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			indices.put(list.get(i), i);
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBinaryFunction;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IChange.Kind;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+
+/**
+ * A zip with for left and right boxes that change in lockstep (e.g. both derived from the same source box).
+ * <p>
+ * Each change of one box must be matched by the same change of the other box, at the same index, so that the zipper
+ * is only applied at the changed index (whereas {@link ZipWith} zips again all the following elements). The change
+ * received first is kept pending until the matching change is received. The changes of a batch are all kept pending,
+ * since both boxes replay in turn the batches of their common source box, and are then matched in order by the
+ * changes of the other box. A change that does not match the first pending one, or a second change of the same box
+ * outside a batch, fails with an {@link IllegalStateException}. The pending changes keep their elements, since the box
+ * they come from may have changed again since then.
+ *
+ * @param <L>
+ * @param <R>
+ * @param <LR>
+ */
+public class AlignedZipWith<L, R, LR> extends Operation<LR> {
+
+	private IBox<L> leftBox;
+
+	private IBox<R> rightBox;
+
+	private IBinaryFunction<L, R, LR> zipper;
+
+	// the changes received from one box, and not yet from the other one
+	private Queue<Change> pendingChanges = new ArrayDeque<Change>();
+
+	private boolean pendingFromLeft;
+
+	// whether the changes currently received are replayed from a batch
+	private boolean batching;
+
+	private static class Change {
+
+		private Kind kind;
+
+		private int index;
+
+		private int oldIndex;
+
+		private Object element;
+
+		private Change(Kind kind, int index, int oldIndex, Object element) {
+			this.kind = kind;
+			this.index = index;
+			this.oldIndex = oldIndex;
+			this.element = element;
+		}
+
+	}
+
+	public AlignedZipWith(IBox<L> leftBox, IBox<R> rightBox, IBinaryFunction<L, R, LR> zipper) {
+		if (leftBox.length() != rightBox.length()) {
+			throw new IllegalArgumentException("Cannot zip misaligned boxes " + leftBox + " and " + rightBox);
+		}
+		this.leftBox = leftBox;
+		this.rightBox = rightBox;
+		this.zipper = zipper;
+		for (int i = 0; i < leftBox.length(); i++) {
+			getResult().add(applyZipperAt(i));
+		}
+		registerObservation(leftBox, new SideObserver<L>(true));
+		registerObservation(rightBox, new SideObserver<R>(false));
+	}
+
+	@Override
+	public boolean isOptional() {
+		return leftBox.isOptional() || rightBox.isOptional();
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return leftBox.isSingleton() || rightBox.isSingleton();
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return isSingleton() || (leftBox.isOrdered() && rightBox.isOrdered());
+	}
+
+	@Override
+	public boolean isUnique() {
+		return isSingleton(); // zipper function may introduce duplicates
+	}
+
+	@Override
+	public LR getResultDefautElement() {
+		IOne<L> leftOne = (IOne<L>) leftBox;
+		IOne<R> rightOne = (IOne<R>) rightBox;
+		return zipper.apply(leftOne.getDefaultElement(), rightOne.getDefaultElement());
+	}
+
+	private LR applyZipperAt(int i) {
+		return zipper.apply(leftBox.get(i), rightBox.get(i));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void sideChanged(boolean fromLeft, Kind kind, int index, int oldIndex, Object element) {
+		if (pendingChanges.isEmpty() || ((fromLeft == pendingFromLeft) && batching)) {
+			pendingChanges.add(new Change(kind, index, oldIndex, element));
+			pendingFromLeft = fromLeft;
+		} else {
+			Change pending = pendingChanges.remove();
+			if ((fromLeft == pendingFromLeft) || (kind != pending.kind) || (index != pending.index) || (oldIndex != pending.oldIndex)) {
+				throw new IllegalStateException("Misaligned " + kind + " at index " + index + " of the " + side(fromLeft) + " box " + (fromLeft ? leftBox : rightBox)
+						+ " while the " + side(pendingFromLeft) + " box was " + pending.kind + " at index " + pending.index);
+			}
+			L left = (L) (fromLeft ? element : pending.element);
+			R right = (R) (fromLeft ? pending.element : element);
+			switch (kind) {
+			case ADDED:
+				getResult().add(index, zipper.apply(left, right));
+				break;
+			case REMOVED:
+				getResult().removeAt(index);
+				break;
+			case REPLACED:
+				getResult().set(index, zipper.apply(left, right));
+				break;
+			case MOVED:
+				getResult().move(index, oldIndex);
+				break;
+			}
+		}
+	}
+
+	private static String side(boolean left) {
+		return left ? "left" : "right";
+	}
+
+	private class SideObserver<E> extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		private boolean left;
+
+		private SideObserver(boolean left) {
+			this.left = left;
+		}
+
+		@Override
+		public void added(int index, E element) {
+			sideChanged(left, Kind.ADDED, index, index, element);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			sideChanged(left, Kind.REMOVED, index, index, element);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			sideChanged(left, Kind.REPLACED, index, index, newElement);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			sideChanged(left, Kind.MOVED, newIndex, oldIndex, element);
+		}
+
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			batching = true;
+			try {
+				changedInResultBatch(changes, this);
+			} finally {
+				batching = false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleBox;
+import org.eclipse.papyrus.aof.core.IDoubleObserver;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.IIntBox;
+import org.eclipse.papyrus.aof.core.IIntObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.CompensatedSum;
+
+// the sum and the count of the elements are maintained from the unboxed notifications of the source box: the sum of
+// ints is exact (kept as a long), the sum of doubles is compensated
+// the average of an empty box is NaN
+public class Average extends Operation<Double> {
+
+	private long intSum;
+
+	private CompensatedSum doubleSum;
+
+	private int count;
+
+	public Average(IIntBox sourceBox) {
+		setResult(AOFFactory.INSTANCE.createDoubleOne(Double.NaN));
+		for (int i = 0; i < sourceBox.length(); i++) {
+			intSum += sourceBox.getInt(i);
+		}
+		count = sourceBox.length();
+		setAverage();
+		sourceBox.addIntObserver(new IntSourceObserver());
+	}
+
+	public Average(IDoubleBox sourceBox) {
+		setResult(AOFFactory.INSTANCE.createDoubleOne(Double.NaN));
+		doubleSum = new CompensatedSum();
+		for (int i = 0; i < sourceBox.length(); i++) {
+			doubleSum.add(sourceBox.getDouble(i));
+		}
+		count = sourceBox.length();
+		setAverage();
+		sourceBox.addDoubleObserver(new DoubleSourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public Double getResultDefautElement() {
+		return Double.NaN;
+	}
+
+	@Override
+	public IDoubleOne getResult() {
+		return (IDoubleOne) super.getResult();
+	}
+
+	private void setAverage() {
+		double sum = (doubleSum == null) ? intSum : doubleSum.get();
+		double average = (count == 0) ? Double.NaN : sum / count;
+		// NaN is not equal to itself
+		if (Double.compare(getResult().getDouble(), average) != 0) {
+			getResult().setDouble(average);
+		}
+	}
+
+	private class IntSourceObserver implements IIntObserver {
+
+		@Override
+		public void added(int index, int element) {
+			intSum += element;
+			count++;
+			setAverage();
+		}
+
+		@Override
+		public void removed(int index, int element) {
+			intSum -= element;
+			count--;
+			setAverage();
+		}
+
+		@Override
+		public void replaced(int index, int newElement, int oldElement) {
+			if (newElement != oldElement) {
+				intSum += newElement - (long) oldElement;
+				setAverage();
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, int element) {
+		}
+
+	}
+
+	private class DoubleSourceObserver implements IDoubleObserver {
+
+		@Override
+		public void added(int index, double element) {
+			doubleSum.add(element);
+			count++;
+			setAverage();
+		}
+
+		@Override
+		public void removed(int index, double element) {
+			doubleSum.subtract(element);
+			count--;
+			setAverage();
+		}
+
+		@Override
+		public void replaced(int index, double newElement, double oldElement) {
+			if (newElement != oldElement) {
+				doubleSum.subtract(oldElement);
+				doubleSum.add(newElement);
+				setAverage();
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, double element) {
+		}
+
+	}
+
+}
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
@@ -67,7 +71,7 @@ public abstract class Collect<E, R> extends Operation<R> {
 		return collector.apply(sourceOne.getDefaultElement());
 	}
 
-	private class SourceObserver extends DefaultObserver<E> {
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
 
 		@Override
 		public void added(int index, E element) {
@@ -89,6 +93,11 @@ public abstract class Collect<E, R> extends Operation<R> {
 			getResult().move(newIndex, oldIndex);
 		}
 
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
+		}
+
 	}
 
 	private class ResultObserver extends DefaultObserver<R> {
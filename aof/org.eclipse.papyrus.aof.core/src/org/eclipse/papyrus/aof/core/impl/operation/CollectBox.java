@@ -10,16 +10,15 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.IBinaryCache;
-import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
 
 public class CollectBox<E, R> extends Operation<R> {
 
@@ -33,7 +32,7 @@ public class CollectBox<E, R> extends Operation<R> {
 		this.sourceBox = sourceBox;
 		this.collector = collector;
 		// if the cache already contains the result, don't compute it twice
-		if (cache.get(sourceBox, collector) == null) {
+		if (CacheScope.scoped(cache).get(sourceBox, collector) == null) {
 			// try to get the result default: if the sourceDefault is null and the collector does not handle this null
 			// value, it is a large change to throw a null pointer exception
 			try {
@@ -87,11 +86,12 @@ public class CollectBox<E, R> extends Operation<R> {
 
 	// cache implementation
 
-	// must be weak if static... would be better if user provided/controlled
-	private static IBinaryCache<IBox<?>, IUnaryFunction<?, ?>, IBox<?>> cache = new WeakKeysWeakValuesBinaryCache<IBox<?>, IUnaryFunction<?, ?>, IBox<?>>();
+	// must be weak if static... replaced by a strong cache within a CacheScope
+	private static IBinaryCache<IBox<?>, IUnaryFunction<?, ?>, IBox<?>> cache = new WeakKeysWeakValuesFlatBinaryCache<IBox<?>, IUnaryFunction<?, ?>, IBox<?>>();
 
 	@Override
 	public IBox<R> getResult() {
+		IBinaryCache<IBox<?>, IUnaryFunction<?, ?>, IBox<?>> cache = CacheScope.scoped(CollectBox.cache);
 		IBox<R> result = (IBox<R>) cache.get(sourceBox, collector);
 		if (result == null) {
 			result = super.getResult();
@@ -102,7 +102,9 @@ public class CollectBox<E, R> extends Operation<R> {
 
 	// active algorithm
 
-	private List<IObserver<R>> innerObservers = new ArrayList<IObserver<R>>();
+	// observers of the inner boxes, in the order of the source elements, weighted by the length of their inner box:
+	// the position of an inner box in the result is the sum of the weights that precede its node, obtained in O(log n)
+	private WeightBalancedTree<InnerBoxObserver> innerObservers = new WeightBalancedTree<InnerBoxObserver>();
 
 	private class SourceObserver extends DefaultObserver<E> {
 
@@ -115,19 +117,14 @@ public class CollectBox<E, R> extends Operation<R> {
 			InnerBoxObserver innerObserver = new InnerBoxObserver();
 			IBox<R> innerBox = collector.apply(element);
 			// init phase of the inner box
-			IObserver<R> silentObserver = registerObservation(innerBox, innerObserver);
-			innerObservers.add(index, silentObserver);
-			innerObserver.silentObserver = silentObserver;
+			innerObserver.innerBox = innerBox;
+			innerObserver.silentObserver = registerObservation(innerBox, innerObserver);
+			innerObserver.node = innerObservers.add(index, innerObserver, 0);
 			// we must silence other observers manually because of the silentObserver by-passing
 			if(silence) {
 				silent(true);
 			}
-			if((!isSingleton()) && index == innerObservers.size() - 1) {
-				// we added at the end, no need to compute sumSizes
-				innerObserver.addedAll(getResult().length(), innerBox);
-			} else {
-				innerObserver.addedAll(innerBox);
-			}
+			innerObserver.addedAll();
 			if(silence) {
 				silent(false);
 			}
@@ -135,28 +132,47 @@ public class CollectBox<E, R> extends Operation<R> {
 
 		@Override
 		public void removed(int index, E element) {
-			IObserver<R> innerObserver = innerObservers.get(index);
-			IBox<R> innerBox = collector.apply(element);
-			for (R innerElement : innerBox) {
-				innerObserver.removed(0, innerElement);
+			InnerBoxObserver innerObserver = innerObservers.getNode(index).getValue();
+			IObserver<R> silentObserver = innerObserver.silentObserver;
+			for (R innerElement : innerObserver.innerBox) {
+				silentObserver.removed(0, innerElement);
 			}
-			innerObservers.remove(index);
-			unregisterObservation(innerBox, innerObserver);
-			innerObserver.setDisabled(true); // in case it is still in a collection being iterated upon
+			innerObservers.removeAt(index);
+			unregisterObservation(innerObserver.innerBox, silentObserver);
+			silentObserver.setDisabled(true); // in case it is still in a collection being iterated upon
 		}
 
 		@Override
 		public void replaced(int index, E newElement, E oldElement) {
-			removed(index, oldElement);
-			added(index, newElement);
-			// should be optimized...
+			// the inner observer is kept if the new element is collected into the same inner box
+			if (collector.apply(newElement) != innerObservers.get(index).innerBox) {
+				removed(index, oldElement);
+				added(index, newElement);
+			}
 		}
 
 		@Override
-		public void moved(int newIndex, int oldIndex, E e) {
-			removed(oldIndex, e);
-			added(newIndex, e);
-			// should be optimized...
+		public void moved(final int newIndex, final int oldIndex, E e) {
+			if (newIndex != oldIndex) {
+				WeightBalancedTree.Node<InnerBoxObserver> node = innerObservers.getNode(oldIndex);
+				final int length = node.getWeight();
+				final int oldOuterIndex = innerObservers.weightBefore(node);
+				innerObservers.move(newIndex, oldIndex);
+				final int newOuterIndex = innerObservers.weightBefore(node);
+				// the elements of the inner box are moved as a block, in a single batch of the result
+				getResult().batch(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = 0; i < length; i++) {
+							if (newOuterIndex > oldOuterIndex) {
+								getResult().move(newOuterIndex + length - 1, oldOuterIndex);
+							} else {
+								getResult().move(newOuterIndex + i, oldOuterIndex + i);
+							}
+						}
+					}
+				});
+			}
 		}
 
 	}
@@ -164,34 +180,45 @@ public class CollectBox<E, R> extends Operation<R> {
 	// cannot be implemented as an inner class witin SourceObserver due to closure limitation (index i is constant
 	// inside the closure)
 	private class InnerBoxObserver extends DefaultObserver<R> {
-		public IObserver<R> silentObserver;
+
+		private IBox<R> innerBox;
+
+		private IObserver<R> silentObserver;
+
+		// the node of this observer in innerObservers, which keeps its identity when source elements are added,
+		// removed or moved
+		private WeightBalancedTree.Node<InnerBoxObserver> node;
 
 		// Position of the element to insert/remove/update
-		// Note that index i is retrieved from the index of this inner observer within the registered inner
-		// observers. It cannot be given by the observation of 'a' due to function closure.
+		// Note that the position of the inner box is retrieved from the node of this inner observer. It cannot be
+		// given by the observation of 'a' due to function closure.
 		private int outerIndex(int j) {
-			int i = innerObservers.indexOf(silentObserver);
-			return j + sumSizes(i);
+			return j + innerObservers.weightBefore(node);
 		}
 
-		public void addedAll(IBox<R> innerBox) {
-			addedAll(outerIndex(0), innerBox);
+		// the weight of the node only counts for the following inner boxes, hence it can be updated after each change
+		private void updateWeight() {
+			innerObservers.setWeight(node, innerBox.length());
 		}
 
-		public void addedAll(int index, IBox<R> innerBox) {
+		public void addedAll() {
+			int index = outerIndex(0);
 			for(R element : innerBox) {
 				getResult().add(index++, element);
 			}
+			updateWeight();
 		}
 
 		@Override
 		public void added(int index, R element) {
 			getResult().add(outerIndex(index), element);
+			updateWeight();
 		}
 
 		@Override
 		public void removed(int index, R element) {
 			getResult().removeAt(outerIndex(index));
+			updateWeight();
 		}
 
 		@Override
@@ -206,16 +233,6 @@ public class CollectBox<E, R> extends Operation<R> {
 
 	}
 
-	// a.elements.slice(0, i).map(e => f(e).elements.size).sum()
-	private int sumSizes(int until) {
-		int sum = 0;
-		for (int i = 0; i < until; i++) {
-			IBox<R> b = collector.apply(sourceBox.get(i));
-			sum += b.length();
-		}
-		return sum;
-	}
-
 	private class ResultObserver extends DefaultObserver<R> {
 
 		private IBox<R> getInnerBox() {
@@ -226,10 +243,16 @@ public class CollectBox<E, R> extends Operation<R> {
 			return collector.apply(sourceElement);
 		}
 
+		// the inner box observer is silenced while the inner box is changed from here
+		private void updateWeight() {
+			innerObservers.getNode(0).getValue().updateWeight();
+		}
+
 		@Override
 		public void added(int index, R element) {
 			if (sourceBox.length() > 0) {
 				getInnerBox().add(index, element);
+				updateWeight();
 			}
 		}
 
@@ -237,6 +260,7 @@ public class CollectBox<E, R> extends Operation<R> {
 		public void removed(int index, R element) {
 			if (sourceBox.length() > 0) {
 				getInnerBox().removeAt(index);
+				updateWeight();
 			}
 		}
 
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IIntFunction;
+import org.eclipse.papyrus.aof.core.IIntSequence;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+
+// the result is always a sequence of unboxed ints, whatever the constraints of the source box are
+public class CollectInt<E> extends Operation<Integer> {
+
+	private IIntFunction<? super E> collector;
+
+	public CollectInt(IBox<E> sourceBox, IIntFunction<? super E> collector) {
+		this.collector = collector;
+		setResult(AOFFactory.INSTANCE.createIntSequence());
+		for (E element : sourceBox) {
+			getResult().addInt(collector.apply(element));
+		}
+		registerObservation(sourceBox, new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return true;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return false;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return false;
+	}
+
+	@Override
+	public Integer getResultDefautElement() {
+		// never called since the result is not a one box
+		return 0;
+	}
+
+	@Override
+	public IIntSequence getResult() {
+		return (IIntSequence) super.getResult();
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			getResult().addInt(index, collector.apply(element));
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			getResult().removeAt(index);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			getResult().setInt(index, collector.apply(newElement));
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			getResult().move(newIndex, oldIndex);
+		}
+
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IIntOne;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IUnaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesUnaryCache;
+
+/**
+ * Gives the number of occurrences of an element in a source box.
+ * <p>
+ * The multiplicities of all the elements of a source box are maintained by a single observer, shared by all the
+ * count operations on this box: counting an element does not scan the source box, and each change of the source box
+ * is processed in O(1) whatever the number of counted elements.
+ * 
+ * @param <E>
+ */
+public class Count<E> extends Operation<Integer> {
+
+	// the multiplicities are kept alive by their observer, as long as the source box is
+	private static IUnaryCache<IBox<?>, Multiplicities<?>> multiplicitiesBySource = new WeakKeysWeakValuesUnaryCache<IBox<?>, Multiplicities<?>>();
+
+	@SuppressWarnings("unchecked")
+	public Count(IBox<E> sourceBox, E element) {
+		Multiplicities<E> multiplicities = (Multiplicities<E>) multiplicitiesBySource.get(sourceBox);
+		if (multiplicities == null) {
+			multiplicities = new Multiplicities<E>(sourceBox);
+			multiplicitiesBySource.put(sourceBox, multiplicities);
+		}
+		setResult(multiplicities.getCount(element));
+	}
+
+	@Override
+	public boolean isOptional() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public Integer getResultDefautElement() {
+		return 0;
+	}
+
+	@Override
+	public IIntOne getResult() {
+		return (IIntOne) super.getResult();
+	}
+
+	private static class Multiplicity {
+
+		private int count;
+
+		// created on the first count of the element
+		private IIntOne countBox;
+
+	}
+
+	private static class Multiplicities<E> extends DefaultObserver<E> {
+
+		private Map<E, Multiplicity> multiplicities = new HashMap<E, Multiplicity>();
+
+		private Multiplicities(IBox<E> sourceBox) {
+			for (E element : sourceBox) {
+				getMultiplicity(element).count++;
+			}
+			sourceBox.addObserver(this);
+		}
+
+		private Multiplicity getMultiplicity(E element) {
+			Multiplicity multiplicity = multiplicities.get(element);
+			if (multiplicity == null) {
+				multiplicity = new Multiplicity();
+				multiplicities.put(element, multiplicity);
+			}
+			return multiplicity;
+		}
+
+		private IIntOne getCount(E element) {
+			Multiplicity multiplicity = getMultiplicity(element);
+			if (multiplicity.countBox == null) {
+				multiplicity.countBox = AOFFactory.INSTANCE.createIntOne(0);
+				multiplicity.countBox.setInt(multiplicity.count);
+			}
+			return multiplicity.countBox;
+		}
+
+		private void increment(E element, int delta) {
+			Multiplicity multiplicity = getMultiplicity(element);
+			multiplicity.count += delta;
+			if (multiplicity.countBox != null) {
+				multiplicity.countBox.setInt(multiplicity.count);
+			} else if (multiplicity.count == 0) {
+				multiplicities.remove(element);
+			}
+		}
+
+		@Override
+		public void added(int index, E element) {
+			increment(element, 1);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			increment(element, -1);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			increment(oldElement, -1);
+			increment(newElement, 1);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+		}
+
+	}
+
+}
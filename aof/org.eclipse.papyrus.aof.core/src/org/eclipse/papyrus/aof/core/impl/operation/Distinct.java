@@ -12,17 +12,37 @@ package org.eclipse.papyrus.aof.core.impl.operation;
 
 import static org.eclipse.papyrus.aof.core.impl.utils.Equality.optionalEquals;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree.Node;
 
 public class Distinct<E> extends Operation<E> {
 
 	private IBox<E> nonUniqueBox;
 
+	// one node per element of the non-unique box, weighted 1 if it is the first occurrence of its element
+	// (0 otherwise): the index in the unique box of a first occurrence is the sum of the weights before it
+	private WeightBalancedTree<E> positions = new WeightBalancedTree<E>();
+
+	// occurrences of each element of the non-unique box
+	private Map<E, Occurrences> occurrences = new HashMap<E, Occurrences>();
+
+	private Comparator<Node<E>> positionComparator = new Comparator<Node<E>>() {
+		@Override
+		public int compare(Node<E> node1, Node<E> node2) {
+			return positions.indexOf(node1) - positions.indexOf(node2);
+		}
+	};
+
 	public Distinct(IBox<E> nonUniqueBox) {
 		this(nonUniqueBox, null, false);
 	}
@@ -38,7 +58,11 @@ public class Distinct<E> extends Operation<E> {
 		}
 		if (reversed) {
 			nonUniqueBox.assign(getResult());
-		} else {
+		}
+		for (E element : nonUniqueBox) {
+			addOccurrence(positions.size(), element);
+		}
+		if (!reversed) {
 			getResult().assign(nonUniqueBox);
 		}
 		registerObservation(nonUniqueBox, new NonUniqueBoxObserver());
@@ -71,69 +95,169 @@ public class Distinct<E> extends Operation<E> {
 		return sourceOne.getDefaultElement();
 	}
 
-	private class NonUniqueBoxObserver extends DefaultObserver<E> {
+	// Occurrences
+
+	private class Occurrences {
+
+		private Node<E> first;
+
+		// all the occurrences sorted by position, only created when there are several occurrences
+		private TreeSet<Node<E>> all;
 
-		private int countUniques(int untilIndex) {
-			Set<E> s = new HashSet<E>();
-			for(int i = 0 ; i < untilIndex ; i++) {
-				s.add(nonUniqueBox.get(i));
+		private Occurrences(Node<E> first) {
+			this.first = first;
+		}
+
+		private void add(Node<E> node) {
+			if (all == null) {
+				all = new TreeSet<Node<E>>(positionComparator);
+				all.add(first);
 			}
-			return s.size();
-		}
-
-		private int countUniques(int untilIndex, int changeIndex) {
-			int count = 0;
-			for (int i = 0; i < untilIndex; i++) {
-				int index = (i < changeIndex) ? i : i + 1;
-				E element = nonUniqueBox.get(index);
-				int j = index - 1;
-				boolean found = false;
-				while ((j >= 0) && !found) {
-					if (optionalEquals(nonUniqueBox.get(j), element)) {
-						found = true;
-					} else {
-						j--;
-					}
-				}
-				if (!found) {
-					count++;
+			all.add(node);
+			first = all.first();
+		}
+
+		// must be called while the node is still in the positions tree
+		private void remove(Node<E> node) {
+			if (all == null) {
+				first = null;
+			} else {
+				all.remove(node);
+				first = all.first();
+				if (all.size() == 1) {
+					all = null;
 				}
 			}
-			return count;
 		}
 
+		private List<Node<E>> nodes() {
+			List<Node<E>> nodes = new ArrayList<Node<E>>();
+			if (all == null) {
+				nodes.add(first);
+			} else {
+				nodes.addAll(all);
+			}
+			return nodes;
+		}
+
+	}
+
+	// index in the unique box of the element which first occurrence is the given node
+	private int uniqueIndex(Node<E> first) {
+		return positions.weightBefore(first);
+	}
+
+	private void setFirst(Occurrences elementOccurrences, Node<E> oldFirst) {
+		if (elementOccurrences.first != oldFirst) {
+			positions.setWeight(oldFirst, 0);
+			positions.setWeight(elementOccurrences.first, 1);
+		}
+	}
+
+	// returns the occurrences of the element if it was already contained in the non-unique box, null otherwise
+	private Occurrences addOccurrence(int index, E element) {
+		Node<E> node = positions.add(index, element, 0);
+		Occurrences elementOccurrences = occurrences.get(element);
+		if (elementOccurrences == null) {
+			occurrences.put(element, new Occurrences(node));
+			positions.setWeight(node, 1);
+		} else {
+			Node<E> oldFirst = elementOccurrences.first;
+			elementOccurrences.add(node);
+			setFirst(elementOccurrences, oldFirst);
+		}
+		return elementOccurrences;
+	}
+
+	// returns the occurrences of the element if it remains contained in the non-unique box, null otherwise
+	private Occurrences removeOccurrence(int index, E element) {
+		Node<E> node = positions.getNode(index);
+		Occurrences elementOccurrences = occurrences.get(element);
+		elementOccurrences.remove(node);
+		positions.removeAt(index);
+		if (elementOccurrences.first == null) {
+			occurrences.remove(element);
+			return null;
+		} else {
+			if (node.getWeight() == 1) {
+				positions.setWeight(elementOccurrences.first, 1);
+			}
+			return elementOccurrences;
+		}
+	}
+
+	private void moveOccurrence(int newIndex, int oldIndex, Occurrences elementOccurrences) {
+		if (elementOccurrences.all == null) {
+			positions.move(newIndex, oldIndex);
+		} else {
+			Node<E> node = positions.getNode(oldIndex);
+			Node<E> oldFirst = elementOccurrences.first;
+			elementOccurrences.all.remove(node);
+			positions.move(newIndex, oldIndex);
+			elementOccurrences.all.add(node);
+			elementOccurrences.first = elementOccurrences.all.first();
+			setFirst(elementOccurrences, oldFirst);
+		}
+	}
+
+	private class NonUniqueBoxObserver extends DefaultObserver<E> {
+
 		@Override
 		public void added(int index, E element) {
-			if (!getResult().contains(element)) {
-				getResult().add(countUniques(index), element);
+			Occurrences elementOccurrences = occurrences.get(element);
+			if (elementOccurrences == null) {
+				addOccurrence(index, element);
+				getResult().add(uniqueIndex(positions.getNode(index)), element);
+			} else {
+				int oldUniqueIndex = uniqueIndex(elementOccurrences.first);
+				addOccurrence(index, element);
+				moveInResult(uniqueIndex(elementOccurrences.first), oldUniqueIndex);
 			}
 		}
 
 		@Override
 		public void removed(int index, E element) {
-			// do the removal only if there is no other occurrence of e in the source box
-			if (!nonUniqueBox.contains(element)) {
-				getResult().remove(element);
+			int oldUniqueIndex = uniqueIndex(occurrences.get(element).first);
+			boolean first = positions.getNode(index).getWeight() == 1;
+			Occurrences elementOccurrences = removeOccurrence(index, element);
+			if (elementOccurrences == null) {
+				getResult().removeAt(oldUniqueIndex);
+			} else if (first) {
+				moveInResult(uniqueIndex(elementOccurrences.first), oldUniqueIndex);
 			}
 		}
 
 		@Override
 		public void replaced(int index, E newElement, E oldElement) {
-			if (!nonUniqueBox.contains(oldElement)) {
-				if (!getResult().contains(newElement)) {
-					getResult().set(getResult().indexOf(oldElement), newElement);
+			if (optionalEquals(newElement, oldElement)) {
+				positions.getNode(index).setValue(newElement);
+			} else {
+				Occurrences oldOccurrences = occurrences.get(oldElement);
+				if ((oldOccurrences.all == null) && !occurrences.containsKey(newElement)) {
+					// the only occurrence of the old element is replaced by the first occurrence of the new one
+					Node<E> node = oldOccurrences.first;
+					node.setValue(newElement);
+					occurrences.remove(oldElement);
+					occurrences.put(newElement, oldOccurrences);
+					getResult().set(uniqueIndex(node), newElement);
 				} else {
-					getResult().remove(oldElement);
+					removed(index, oldElement);
+					added(index, newElement);
 				}
-			} else if (!getResult().contains(newElement)) {
-				getResult().add(countUniques(index), newElement);
 			}
 		}
 
 		@Override
 		public void moved(int newIndex, int oldIndex, E element) {
-			if (getResult().contains(element)) {
-				getResult().move(countUniques(newIndex), countUniques(oldIndex, newIndex));
+			Occurrences elementOccurrences = occurrences.get(element);
+			int oldUniqueIndex = uniqueIndex(elementOccurrences.first);
+			moveOccurrence(newIndex, oldIndex, elementOccurrences);
+			moveInResult(uniqueIndex(elementOccurrences.first), oldUniqueIndex);
+		}
+
+		private void moveInResult(int newUniqueIndex, int oldUniqueIndex) {
+			if (newUniqueIndex != oldUniqueIndex) {
+				getResult().move(newUniqueIndex, oldUniqueIndex);
 			}
 		}
 
@@ -141,66 +265,60 @@ public class Distinct<E> extends Operation<E> {
 
 	private class UniqueBoxObserver extends DefaultObserver<E> {
 
-		private int indexInSource(int indexInResult) {
-			if (indexInResult > 0) {
-				E elementAtLeft = getResult().get(indexInResult - 1);
-				return nonUniqueBox.indexOf(elementAtLeft) + 1;
-			} else {
-				return 0;
-			}
-		}
-
-		private int lastIndexOfInSource(E element) {
-			int index = nonUniqueBox.length() - 1;
-			while (index >= 0) {
-				if (optionalEquals(nonUniqueBox.get(index), element)) {
-					return index;
-				} else {
-					index--;
-				}
-			}
-			return -1;
-		}
+		// note that the positions tree still reflects the unique box before the change
 
 		@Override
 		public void added(int index, E element) {
-			if (nonUniqueBox.contains(element)) {
+			if (occurrences.containsKey(element)) {
 				throw new IllegalStateException("Adding element " + element + " in box " + nonUniqueBox + " violates the uniqueness constraints");
 			}
-			nonUniqueBox.add(indexInSource(index), element);
+			int sourceIndex = (index > 0) ? positions.indexOfWeight(index - 1) + 1 : 0;
+			nonUniqueBox.add(sourceIndex, element);
+			addOccurrence(sourceIndex, element);
 		}
 
 		@Override
 		public void removed(int index, E element) {
-			while (nonUniqueBox.contains(element)) {
-				nonUniqueBox.remove(element);
+			// remove all occurrences of e from the source box
+			for (Node<E> node : occurrences.remove(element).nodes()) {
+				int sourceIndex = positions.indexOf(node);
+				nonUniqueBox.removeAt(sourceIndex);
+				positions.removeAt(sourceIndex);
 			}
 		}
 
 		@Override
 		public void replaced(int index, E newElement, E oldElement) {
 			// replace all occurrences of p by e within the source box
-			int i = nonUniqueBox.indexOf(oldElement);
-			while (i != -1) {
-				nonUniqueBox.set(i, newElement);
-				i = nonUniqueBox.indexOf(oldElement);
+			Occurrences elementOccurrences = occurrences.remove(oldElement);
+			for (Node<E> node : elementOccurrences.nodes()) {
+				nonUniqueBox.set(positions.indexOf(node), newElement);
+				node.setValue(newElement);
 			}
+			occurrences.put(newElement, elementOccurrences);
 		}
 
 		@Override
 		public void moved(int newIndex, int oldIndex, E element) {
-			if (newIndex == oldIndex) {
-				// do nothing... should we propagate?
-			} else if (newIndex < oldIndex) {
-				E elementAtLeftInSource = getResult().get(oldIndex);
-				int index = lastIndexOfInSource(elementAtLeftInSource) + 1; // +1 : go from left to the element
-				nonUniqueBox.move(indexInSource(newIndex), index);
-			} else {
-				E elementAtRightInSource = getResult().get(newIndex - 1);
-				int index = nonUniqueBox.indexOf(elementAtRightInSource);
-				nonUniqueBox.move(index, indexInSource(oldIndex));
+			Occurrences elementOccurrences = occurrences.get(element);
+			if (newIndex < oldIndex) {
+				// move the first occurrence right before the first occurrence of the element now at its right
+				int sourceIndex = positions.indexOfWeight(newIndex);
+				moveInSource(sourceIndex, positions.indexOf(elementOccurrences.first), elementOccurrences);
+			} else if (newIndex > oldIndex) {
+				// move all the occurrences located before the first occurrence of the element now at its left
+				// right after it
+				Node<E> left = positions.getNode(positions.indexOfWeight(newIndex));
+				while (positions.indexOf(elementOccurrences.first) < positions.indexOf(left)) {
+					moveInSource(positions.indexOf(left), positions.indexOf(elementOccurrences.first), elementOccurrences);
+				}
 			}
 		}
 
+		private void moveInSource(int newSourceIndex, int oldSourceIndex, Occurrences elementOccurrences) {
+			nonUniqueBox.move(newSourceIndex, oldSourceIndex);
+			moveOccurrence(newSourceIndex, oldSourceIndex, elementOccurrences);
+		}
+
 	}
 }
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IOption;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+
+/**
+ * Gives the minimum (or the maximum) element of a source box according to a comparator.
+ * <p>
+ * The elements are kept in a sorted multiset (elements comparing equal share the same entry), so that each change
+ * of the source box is processed in O(log n), including the removal of the current extremum. Null elements are
+ * ignored.
+ * 
+ * @param <E>
+ */
+public class Extremum<E> extends Operation<E> {
+
+	// elements that compare equal, in their insertion order: the first one is the extremum
+	private TreeMap<E, List<E>> elements;
+
+	// a null comparator stands for the natural ordering
+	@SuppressWarnings("unchecked")
+	public Extremum(IBox<E> sourceBox, Comparator<? super E> comparator, boolean maximum) {
+		if (maximum) {
+			elements = new TreeMap<E, List<E>>(Collections.reverseOrder((Comparator<E>) comparator));
+		} else {
+			elements = new TreeMap<E, List<E>>(comparator);
+		}
+		for (E element : sourceBox) {
+			addElement(element);
+		}
+		setExtremum();
+		registerObservation(sourceBox, new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return true;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public E getResultDefautElement() {
+		// never called since the result is an option box
+		return null;
+	}
+
+	@Override
+	public IOption<E> getResult() {
+		return (IOption<E>) super.getResult();
+	}
+
+	private void addElement(E element) {
+		if (element != null) {
+			List<E> equalElements = elements.get(element);
+			if (equalElements == null) {
+				equalElements = new ArrayList<E>(1);
+				elements.put(element, equalElements);
+			}
+			equalElements.add(element);
+		}
+	}
+
+	private void removeElement(E element) {
+		if (element != null) {
+			List<E> equalElements = elements.get(element);
+			// equal elements may be distinct objects, so the removed one is searched by identity
+			for (int i = 0; i < equalElements.size(); i++) {
+				if (equalElements.get(i) == element) {
+					equalElements.remove(i);
+					break;
+				}
+			}
+			if (equalElements.isEmpty()) {
+				elements.remove(element);
+			}
+		}
+	}
+
+	private void setExtremum() {
+		if (elements.isEmpty()) {
+			if (getResult().length() != 0) {
+				getResult().clear();
+			}
+		} else {
+			E extremum = elements.firstEntry().getValue().get(0);
+			if (getResult().length() == 0) {
+				getResult().add(extremum);
+			} else if (getResult().get(0) != extremum) {
+				getResult().set(0, extremum);
+			}
+		}
+	}
+
+	private class SourceObserver extends DefaultObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			addElement(element);
+			setExtremum();
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			removeElement(element);
+			setExtremum();
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			removeElement(oldElement);
+			addElement(newElement);
+			setExtremum();
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+		}
+
+	}
+
+}
@@ -0,0 +1,363 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IObserver;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IPair;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.Equality;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
+
+/**
+ * Partitions the elements of a source box by the values of their key boxes.
+ * <p>
+ * The result contains one pair per non-empty group, associating a key to the box of the elements having this key.
+ * Both are in source order: the elements of a group are in the order of the source box, and the groups are in the
+ * order of their first elements. A group box keeps its identity as long as the group is not empty.
+ * <p>
+ * The groups are indexed by a hash map of keys, and each group keeps its elements in an order-statistics tree, so
+ * that adding, removing or moving a source element, or changing its key, only updates the groups of that element,
+ * in O(log^2 n) (the source positions of two elements are compared in O(log n)).
+ * <p>
+ * A single instance is shared by all the groupBy and selectBy operations of the same source box and key function.
+ * 
+ * @param <E>
+ * @param <K>
+ */
+public class GroupBy<E, K> extends Operation<IPair<K, IBox<E>>> {
+
+	// instances are kept alive by their source observer, as long as the source box is
+	private static IBinaryCache<IBox<?>, IUnaryFunction<?, ?>, GroupBy<?, ?>> instances = new WeakKeysWeakValuesFlatBinaryCache<IBox<?>, IUnaryFunction<?, ?>, GroupBy<?, ?>>();
+
+	@SuppressWarnings("unchecked")
+	public static <E, K> GroupBy<E, K> getInstance(IBox<E> sourceBox, IUnaryFunction<? super E, ? extends IOne<K>> keyFunction) {
+		GroupBy<E, K> groupBy = (GroupBy<E, K>) instances.get(sourceBox, keyFunction);
+		if (groupBy == null) {
+			groupBy = new GroupBy<E, K>(sourceBox, keyFunction);
+			instances.put(sourceBox, keyFunction, groupBy);
+		}
+		return groupBy;
+	}
+
+	private IBox<E> sourceBox;
+
+	private IUnaryFunction<? super E, ? extends IOne<K>> keyFunction;
+
+	// one entry per source element, in source order
+	private WeightBalancedTree<Entry> entries = new WeightBalancedTree<Entry>();
+
+	private Map<K, Group> groups = new HashMap<K, Group>();
+
+	// the non-empty groups, in the order of the result
+	private WeightBalancedTree<Group> orderedGroups = new WeightBalancedTree<Group>();
+
+	private Comparator<Entry> sourceOrder = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry entry1, Entry entry2) {
+			return entries.indexOf(entry1.node) - entries.indexOf(entry2.node);
+		}
+	};
+
+	private Comparator<Group> firstElementOrder = new Comparator<Group>() {
+		@Override
+		public int compare(Group group1, Group group2) {
+			return sourceOrder.compare(group1.entries.get(0), group2.entries.get(0));
+		}
+	};
+
+	private GroupBy(IBox<E> sourceBox, IUnaryFunction<? super E, ? extends IOne<K>> keyFunction) {
+		this.sourceBox = sourceBox;
+		this.keyFunction = keyFunction;
+		for (E element : sourceBox) {
+			addEntry(entries.size(), element);
+		}
+		registerObservation(sourceBox, new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return true;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return false;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public IPair<K, IBox<E>> getResultDefautElement() {
+		// never called since the result is not a one box
+		return null;
+	}
+
+	// groups management
+
+	/**
+	 * Returns the box of the elements having the specified key, which is kept (even if empty) until it is unpinned.
+	 */
+	IBox<E> pin(K key) {
+		Group group = getGroup(key);
+		group.pins++;
+		return group.box;
+	}
+
+	void unpin(K key) {
+		Group group = groups.get(key);
+		group.pins--;
+		releaseGroup(group);
+	}
+
+	private Group getGroup(K key) {
+		Group group = groups.get(key);
+		if (group == null) {
+			group = new Group(key);
+			groups.put(key, group);
+		}
+		return group;
+	}
+
+	private void releaseGroup(Group group) {
+		if (group.entries.isEmpty() && (group.pins == 0)) {
+			groups.remove(group.key);
+		}
+	}
+
+	// places a group according to its first element, or removes it from the result if it is empty
+	private void placeGroup(Group group) {
+		if (group.node != null) {
+			int oldIndex = orderedGroups.indexOf(group.node);
+			orderedGroups.removeAt(oldIndex);
+			if (group.entries.isEmpty()) {
+				group.node = null;
+				getResult().removeAt(oldIndex);
+			} else {
+				int newIndex = orderedGroups.insertionIndex(group, firstElementOrder);
+				group.node = orderedGroups.add(newIndex, group, 0);
+				if (newIndex != oldIndex) {
+					getResult().move(newIndex, oldIndex);
+				}
+			}
+		} else if (!group.entries.isEmpty()) {
+			int newIndex = orderedGroups.insertionIndex(group, firstElementOrder);
+			group.node = orderedGroups.add(newIndex, group, 0);
+			getResult().add(newIndex, group.pair);
+		}
+	}
+
+	private void join(Entry entry) {
+		Group group = getGroup(entry.key);
+		int index = group.entries.insertionIndex(entry, sourceOrder);
+		entry.group = group;
+		entry.groupNode = group.entries.add(index, entry, 0);
+		group.box.add(index, entry.element);
+		if (index == 0) {
+			placeGroup(group);
+		}
+	}
+
+	private void leave(Entry entry) {
+		Group group = entry.group;
+		int index = group.entries.indexOf(entry.groupNode);
+		group.entries.removeAt(index);
+		entry.group = null;
+		entry.groupNode = null;
+		group.box.removeAt(index);
+		if (index == 0) {
+			placeGroup(group);
+		}
+		releaseGroup(group);
+	}
+
+	// entries management
+
+	private void addEntry(int sourceIndex, E element) {
+		Entry entry = new Entry(element);
+		entry.node = entries.add(sourceIndex, entry, 0);
+		join(entry);
+	}
+
+	// the entry leaves its group while its source position is still known
+	private void removeEntry(int sourceIndex) {
+		Entry entry = entries.get(sourceIndex);
+		leave(entry);
+		entries.removeAt(sourceIndex);
+		unregisterObservation(entry.keyBox, entry.keyObserver);
+	}
+
+	private void moveEntry(int newSourceIndex, int oldSourceIndex) {
+		Entry entry = entries.get(oldSourceIndex);
+		Group group = entry.group;
+		int oldIndex = group.entries.indexOf(entry.groupNode);
+		group.entries.removeAt(oldIndex);
+		entries.move(newSourceIndex, oldSourceIndex);
+		int newIndex = group.entries.insertionIndex(entry, sourceOrder);
+		entry.groupNode = group.entries.add(newIndex, entry, 0);
+		if (newIndex != oldIndex) {
+			group.box.move(newIndex, oldIndex);
+		}
+		// the order of the group only changes if the moved element was or becomes its first element
+		if ((newIndex == 0) || (oldIndex == 0)) {
+			placeGroup(group);
+		}
+	}
+
+	private class Entry {
+
+		private E element;
+
+		// current value of the key box, so that the group of the element is found when its key changes
+		private K key;
+
+		private IOne<K> keyBox;
+
+		private IObserver<K> keyObserver;
+
+		private WeightBalancedTree.Node<Entry> node;
+
+		private Group group;
+
+		private WeightBalancedTree.Node<Entry> groupNode;
+
+		private Entry(E element) {
+			this.element = element;
+			keyBox = keyFunction.apply(element);
+			key = keyBox.get(0);
+			keyObserver = registerObservation(keyBox, new KeyObserver(this));
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(element);
+		}
+
+	}
+
+	private class Group {
+
+		private K key;
+
+		private WeightBalancedTree<Entry> entries = new WeightBalancedTree<Entry>();
+
+		@SuppressWarnings("unchecked")
+		private IBox<E> box = AOFFactory.INSTANCE.createBox(sourceBox.isUnique() ? IConstraints.ORDERED_SET : IConstraints.SEQUENCE);
+
+		private IPair<K, IBox<E>> pair;
+
+		// node in orderedGroups, null if the group is empty
+		private WeightBalancedTree.Node<Group> node;
+
+		// number of selectBy operations currently selecting this group
+		private int pins;
+
+		private Group(K key) {
+			this.key = key;
+			this.pair = AOFFactory.INSTANCE.createPair(key, box);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + box;
+		}
+
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			addEntry(index, element);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			removeEntry(index);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			removeEntry(index);
+			addEntry(index, newElement);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			moveEntry(newIndex, oldIndex);
+		}
+
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
+		}
+
+	}
+
+	private class KeyObserver extends DefaultObserver<K> {
+
+		private Entry entry;
+
+		public KeyObserver(Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public void added(int index, K element) {
+			// key box is a one box, add makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void removed(int index, K element) {
+			// key box is a one box, remove makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void replaced(int index, K newKey, K oldKey) {
+			if (!Equality.optionalEquals(newKey, entry.key)) {
+				leave(entry);
+				entry.key = newKey;
+				join(entry);
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, K element) {
+			// key box is a one box, move makes no sense
+			throw new IllegalStateException();
+		}
+
+	}
+
+}
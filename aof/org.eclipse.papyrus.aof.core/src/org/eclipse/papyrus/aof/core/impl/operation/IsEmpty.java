@@ -0,0 +1,109 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IBoolOne;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IChange.Kind;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+
+// observes the source box directly rather than its size, so that no intermediate box is needed
+public class IsEmpty<E> extends Operation<Boolean> {
+
+	private IBox<E> sourceBox;
+
+	private boolean empty;
+
+	// the result is true when the source box emptiness equals the specified one (false for notEmpty)
+	public IsEmpty(IBox<E> sourceBox, boolean empty) {
+		this.sourceBox = sourceBox;
+		this.empty = empty;
+		setResult(AOFFactory.INSTANCE.createBoolOne(false));
+		update();
+		registerObservation(sourceBox, new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public Boolean getResultDefautElement() {
+		return false;
+	}
+
+	@Override
+	public IBoolOne getResult() {
+		return (IBoolOne) super.getResult();
+	}
+
+	private void update() {
+		boolean result = (sourceBox.length() == 0) == empty;
+		if (getResult().getBool() != result) {
+			getResult().setBool(result);
+		}
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			update();
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			update();
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+		}
+
+		// the result is only updated once for the whole batch
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			for (IChange<E> change : changes) {
+				if ((change.getKind() == Kind.ADDED) || (change.getKind() == Kind.REMOVED)) {
+					update();
+					return;
+				}
+			}
+		}
+
+	}
+
+}
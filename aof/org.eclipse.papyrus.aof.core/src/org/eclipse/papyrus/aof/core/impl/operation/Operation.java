@@ -10,11 +10,12 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.IOne;
@@ -30,7 +31,9 @@ public abstract class Operation<R> implements IConstraints {
 
 	private IBox<R> resultBox;
 
-	private List<IObserver<?>> observers = new ArrayList<IObserver<?>>();
+	// silencing is shared by all the observers registered by this operation: while one of them propagates a change,
+	// the others must ignore the changes it causes (e.g. the result observer of a bidirectional operation)
+	private boolean silent;
 
 	protected void setResult(IBox<R> resultBox) {
 		if (resultBox != null) {
@@ -90,24 +93,38 @@ public abstract class Operation<R> implements IConstraints {
 	// P for "operation parameter" (including E if the operation is bidirection: result box is observed in that case)
 	// required only for bidir ops (the most cases)
 	public <P> IObserver<P> registerObservation(IBox<P> observedBox, IObserver<P> observer) {
-		SilentObserver<P> silentObserver = new SilentObserver<P>(observer);
-		observers.add(silentObserver);
+		SilentObserver<P> silentObserver;
+		if (observer instanceof IBatchObserver<?>) {
+			silentObserver = new SilentBatchObserver<P>((IBatchObserver<P>) observer);
+		} else {
+			silentObserver = new SilentObserver<P>(observer);
+		}
 		observedBox.addObserver(silentObserver);
 		return silentObserver;
 	}
 
 	public <P> void unregisterObservation(IBox<P> observedBox, IObserver<P> silentObserver) {
-		observers.remove(silentObserver);
 		observedBox.removeObserver(silentObserver);
 	}
 
 	protected Operation<R> silent(boolean silent) {
-		for (IObserver<?> observer : observers) {
-			observer.setDisabled(silent);
-		}
+		this.silent = silent;
 		return this;
 	}
 
+	// default processing of a batch by an observer of this operation: its changes are applied one by one,
+	// within a batch of the result box so that downstream operations also receive a single batch
+	protected <P> void changedInResultBatch(final List<IChange<P>> changes, final IObserver<P> observer) {
+		getResult().batch(new Runnable() {
+			@Override
+			public void run() {
+				for (IChange<P> change : changes) {
+					change.replay(observer);
+				}
+			}
+		});
+	}
+
 	private class SilentObserver<P> extends DefaultObserver<P> {
 
 		private IObserver<P> wrappedObserver;
@@ -116,6 +133,12 @@ public abstract class Operation<R> implements IConstraints {
 			this.wrappedObserver = wrappedObserver;
 		}
 
+		// an observer may also be disabled on its own (e.g. when unregistered while being notified)
+		@Override
+		public boolean isDisabled() {
+			return silent || super.isDisabled();
+		}
+
 		@Override
 		public void added(int index, P element) {
 			silent(true);
@@ -146,6 +169,24 @@ public abstract class Operation<R> implements IConstraints {
 
 	}
 
+	private class SilentBatchObserver<P> extends SilentObserver<P> implements IBatchObserver<P> {
+
+		private IBatchObserver<P> wrappedBatchObserver;
+
+		private SilentBatchObserver(IBatchObserver<P> wrappedBatchObserver) {
+			super(wrappedBatchObserver);
+			this.wrappedBatchObserver = wrappedBatchObserver;
+		}
+
+		@Override
+		public void changed(List<IChange<P>> changes) {
+			silent(true);
+			wrappedBatchObserver.changed(changes);
+			silent(false);
+		}
+
+	}
+
 	// IConstraints
 
 	// the op is legal if its constraints are legal
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IObserver;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.Equality;
+
+/**
+ * Selects the elements of a source box whose key is the value of a key box, in source order.
+ * <p>
+ * The elements are read from the group of the selected key in the {@link GroupBy} index of the source box, which is
+ * maintained incrementally. When the key box changes, the result is updated to the new group by a minimal edit
+ * script (see {@link org.eclipse.papyrus.aof.core.IWritable#assign(Iterable)}) rather than rebuilt.
+ * 
+ * @param <E>
+ * @param <K>
+ */
+public class SelectBy<E, K> extends Operation<E> {
+
+	private IBox<E> sourceBox;
+
+	private GroupBy<E, K> groupBy;
+
+	private K key;
+
+	private IBox<E> groupBox;
+
+	private IObserver<E> groupObserver;
+
+	public SelectBy(IBox<E> sourceBox, IOne<K> keyBox, IUnaryFunction<? super E, ? extends IOne<K>> keyFunction) {
+		this.sourceBox = sourceBox;
+		this.groupBy = GroupBy.getInstance(sourceBox, keyFunction);
+		this.key = keyBox.get(0);
+		this.groupBox = groupBy.pin(key);
+		for (E element : groupBox) {
+			getResult().add(element);
+		}
+		groupObserver = registerObservation(groupBox, new GroupObserver());
+		registerObservation(keyBox, new KeyObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return true;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return false;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return sourceBox.isUnique();
+	}
+
+	@Override
+	public E getResultDefautElement() {
+		// never called since the result is not a one box
+		return null;
+	}
+
+	private class GroupObserver extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			getResult().add(index, element);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			getResult().removeAt(index);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			getResult().set(index, newElement);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			getResult().move(newIndex, oldIndex);
+		}
+
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
+		}
+
+	}
+
+	private class KeyObserver extends DefaultObserver<K> {
+
+		@Override
+		public void added(int index, K element) {
+			// key box is a one box, add makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void removed(int index, K element) {
+			// key box is a one box, remove makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void replaced(int index, K newKey, K oldKey) {
+			if (!Equality.optionalEquals(newKey, key)) {
+				unregisterObservation(groupBox, groupObserver);
+				groupBy.unpin(key);
+				key = newKey;
+				groupBox = groupBy.pin(key);
+				// groups are disjoint, so the whole result is replaced by the new group
+				getResult().assign(groupBox);
+				groupObserver = registerObservation(groupBox, new GroupObserver());
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, K element) {
+			// key box is a one box, move makes no sense
+			throw new IllegalStateException();
+		}
+
+	}
+
+}
@@ -10,14 +10,16 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IObserver;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
 
 /**
  * Based on Select{WithPresence,WithPredicate} by Olivier Beaudoux
@@ -27,16 +29,16 @@ import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
  *
  * @param <E>
  */
-// deal with silent observers... too bad unregisterObservation does not take the wrapped Observer
-// instead of the wrapping SilentObserver... could be done with a Map
+// each inner observer keeps the SilentObserver wrapping it, so that it can be unregistered without any lookup
 public class SelectWithMutablePredicate<E> extends Operation<E> {
 
 	private IBox<E> sourceBox;
+	// one node per source element, holding the observer of its IOne<Boolean> presence box, and weighted 1 if the
+	// element is selected (0 otherwise), so that source and result indices are translated in O(log n)
 	// we keep references to the IOne<Boolean>, not just the Boolean value
 	// this way we do not have to ask the selector over and over again AND
 	// we may perform correct work even if the selector return value is not cached (TO BE TESTED)
-	private List<IOne<Boolean>> presence = new ArrayList<IOne<Boolean>>();
-	private List<IObserver<Boolean>> innerObservers = new ArrayList<IObserver<Boolean>>();
+	private WeightBalancedTree<InnerBoxObserver> presence = new WeightBalancedTree<InnerBoxObserver>();
 
 	private IUnaryFunction<? super E, IOne<Boolean>> selector;
 
@@ -45,8 +47,7 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 		this.selector = selector;
 		for (E element : sourceBox) {
 			IOne<Boolean> elementPresence = selector.apply(element);
-			innerObservers.add(registerObservation(elementPresence, new InnerBoxObserver(element)));
-			presence.add(elementPresence);
+			addPresence(presence.size(), element, elementPresence);
 			if (elementPresence.get(0)) {
 				getResult().add(element);
 			}
@@ -81,96 +82,131 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 		return sourceOne.getDefaultElement();
 	}
 
-	private class SourceObserver extends DefaultObserver<E> {
+	// presence management
+
+	private static int weight(Boolean selected) {
+		return selected ? 1 : 0;
+	}
+
+	private void addPresence(int sourceIndex, E element, IOne<Boolean> elementPresence) {
+		InnerBoxObserver innerObserver = new InnerBoxObserver(element, elementPresence);
+		innerObserver.node = presence.add(sourceIndex, innerObserver, weight(elementPresence.get(0)));
+		innerObserver.silentObserver = registerObservation(elementPresence, innerObserver);
+	}
+
+	private void removePresence(int sourceIndex) {
+		InnerBoxObserver innerObserver = presence.removeAt(sourceIndex).getValue();
+		unregisterObservation(innerObserver.elementPresence, innerObserver.silentObserver);
+	}
+
+	private void replacePresence(int sourceIndex, E newElement, IOne<Boolean> newElementPresence) {
+		removePresence(sourceIndex);
+		addPresence(sourceIndex, newElement, newElementPresence);
+	}
+
+	// reverse mutations of a singleton source box may differ from the performed mutation
+	// (e.g. removing from a one box replaces its element by the default element)
+	private void updatePresenceOfSingleton() {
+		while (!presence.isEmpty()) {
+			removePresence(0);
+		}
+		for (E element : sourceBox) {
+			addPresence(presence.size(), element, selector.apply(element));
+		}
+	}
+
+	private boolean isSelected(int sourceIndex) {
+		return presence.getNode(sourceIndex).getWeight() == 1;
+	}
+
+	// number of selected elements before the given source index
+	private int countTrue(int untilIndex) {
+		return presence.weightBefore(untilIndex);
+	}
+
+	// source index of the selected element located at the given result index
+	private int indexOfTrue(int resultIndex) {
+		return presence.indexOfWeight(resultIndex);
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
 		@Override
 		public void added(int sourceIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			IOne<Boolean> elementPresence = selector.apply(element);
-			if (elementPresence.get(0)) {
+			addPresence(sourceIndex, element, elementPresence);
+			if (isSelected(sourceIndex)) {
 				getResult().add(countTrue(sourceIndex), element);
 			}
-			innerObservers.add(sourceIndex, registerObservation(elementPresence, new InnerBoxObserver(element)));
-			presence.add(sourceIndex, elementPresence);
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		@Override
 		public void removed(int sourceIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			IOne<Boolean> elementPresence = presence.remove(sourceIndex);
-			if (elementPresence.get(0)) {
+			if (isSelected(sourceIndex)) {
 				getResult().removeAt(countTrue(sourceIndex));
 			}
-			unregisterObservation(elementPresence, innerObservers.remove(sourceIndex));
-			debugCheckConsistencyOfPresenceWithInnerObservers();
+			removePresence(sourceIndex);
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		// we propagate even if oldElement == newElement, but do not change our internal stuff if unnecessary
 		@Override
 		public void replaced(int sourceIndex, E newElement, E oldElement) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			IOne<Boolean> oldElementPresence = presence.get(sourceIndex);
-			IOne<Boolean> newElementPresence = (newElement == oldElement ? presence.get(sourceIndex) : selector.apply(newElement));
+			WeightBalancedTree.Node<InnerBoxObserver> node = presence.getNode(sourceIndex);
+			IOne<Boolean> newElementPresence = (newElement == oldElement ? node.getValue().elementPresence : selector.apply(newElement));
+			boolean oldSelected = node.getWeight() == 1;
 
 			if (newElementPresence.get(0)) {
-				if (oldElementPresence.get(0)) {
+				if (oldSelected) {
 					getResult().set(countTrue(sourceIndex), newElement);
 				} else {
 					getResult().add(countTrue(sourceIndex), newElement);
 				}
-			} else if (oldElementPresence.get(0)) {
+			} else if (oldSelected) {
 				getResult().removeAt(countTrue(sourceIndex));
 			}
 
 			if(newElement != oldElement) {
-				presence.remove(sourceIndex);
-				unregisterObservation(oldElementPresence, innerObservers.remove(sourceIndex));
-
-				innerObservers.add(sourceIndex, registerObservation(newElementPresence, new InnerBoxObserver(newElement)));
-				presence.add(sourceIndex, newElementPresence);
+				replacePresence(sourceIndex, newElement, newElementPresence);
+			} else {
+				presence.setWeight(node, weight(newElementPresence.get(0)));
 			}
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		@Override
 		public void moved(int newSourceIndex, int oldSourceIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			IOne<Boolean> elementPresence = presence.remove(oldSourceIndex);
-			// we must move presence first because this is how the algorithm works (as in SelectWith{Predicate,Presence})
-			// check other events
-			presence.add(newSourceIndex, elementPresence);
-			if (elementPresence.get(0)) {
-				getResult().move(countTrue(newSourceIndex), countTrue(oldSourceIndex, newSourceIndex));
+			if (isSelected(oldSourceIndex)) {
+				int oldResultIndex = countTrue(oldSourceIndex);
+				presence.move(newSourceIndex, oldSourceIndex);
+				getResult().move(countTrue(newSourceIndex), oldResultIndex);
+			} else {
+				presence.move(newSourceIndex, oldSourceIndex);
 			}
-			innerObservers.add(newSourceIndex, innerObservers.remove(oldSourceIndex));
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
-	}
 
-	private int countTrue(int untilIndex) {
-		return countTrue(untilIndex, untilIndex);
-	}
-
-	private int countTrue(int untilIndex, int changeIndex) {
-		int count = 0;
-		for (int n = 0; n < untilIndex; n++) {
-			int index = (n < changeIndex) ? n : n + 1;
-			if (presence.get(index).get(0)) {
-				count++;
-			}
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
 		}
-		return count;
 	}
 
 	private class InnerBoxObserver extends DefaultObserver<Boolean> {
-		private E sourceElement;
+		// the source element is kept so that a presence change does not read the source box, which may already
+		// contain changes that are not yet propagated (e.g. during a batch)
+		private E element;
 
-		public InnerBoxObserver(E sourceIndex) {
-			this.sourceElement = sourceIndex;
+		private IOne<Boolean> elementPresence;
+
+		private IObserver<Boolean> silentObserver;
+
+		// node of this observer in the presence tree, giving the source index of the element in O(log n)
+		private WeightBalancedTree.Node<InnerBoxObserver> node;
+
+		public InnerBoxObserver(E element, IOne<Boolean> elementPresence) {
+			this.element = element;
+			this.elementPresence = elementPresence;
 		}
 
 		@Override
@@ -187,12 +223,16 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 
 		@Override
 		public void replaced(int index, Boolean newElement, Boolean oldElement) {
-			if(!newElement.equals(oldElement)) {
-				int sourceIndex = sourceBox.indexOf(sourceElement);
+			// compared to the cached presence rather than to oldElement, so that the result stays consistent
+			// with the weights of the presence tree
+			int weight = weight(newElement);
+			if(weight != node.getWeight()) {
+				presence.setWeight(node, weight);
+				int resultIndex = presence.weightBefore(node);
 				if(newElement) {
-					getResult().add(countTrue(sourceIndex), sourceBox.get(sourceIndex));
+					getResult().add(resultIndex, element);
 				} else {
-					getResult().removeAt(countTrue(sourceIndex));
+					getResult().removeAt(resultIndex);
 				}
 			}
 		}
@@ -205,36 +245,13 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 
 	}
 
-	// uncomment body for testing, comment for release
-	private void debugCheckConsistencyOfPresenceWithInnerObservers() {
-/*
-		if(innerObservers.size() != presence.size()) {
-			throw new IllegalStateException("innerObservers and presence have different sizes");
-		}
-		for(int i = 0 ; i < presence.size() ; i++) {
-			IBox<Boolean> elementPresence = presence.get(i);
-			IObserver<Boolean> innerObserver = innerObservers.get(i);
-			if(!((Collection<IObserver<Boolean>>)elementPresence.getObservers()).contains(innerObserver)) {
-				throw new IllegalStateException("At index " + i + " innerObserver not registered to elementPresence box");
-			}
-		}
-/**/
-	}
-
 	// only to be called after an event has been processed
 	// uncomment body for testing, comment for release
 	private void debugCheckAlignmentOfSourceWithPresence() {
 /*
 		if(presence.size() != sourceBox.length()) {
-			throw new IllegalStateException("innerObservers and sourceBox have different sizes");
+			throw new IllegalStateException("presence and sourceBox have different sizes");
 		}
-		// the following only works if the selector has a cache! (this Operation should work without selector cache)
-//		for(int i = 0 ; i < presence.size() ; i++) {
-//			IBox<Boolean> elementPresence = selector.apply(sourceBox.get(i));
-//			if(elementPresence != presence.get(i)) {
-//				throw new IllegalStateException("elementPresence not aligned with sourceBox at " + i);
-//			}
-//		}
 /**/
 	}
 
@@ -242,49 +259,43 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 
 		@Override
 		public void added(int resultIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			int sourceIndex = indexOfTrue(resultIndex);
+			int sourceIndex = (resultIndex == 0) ? 0 : indexOfTrue(resultIndex - 1) + 1;
 			IOne<Boolean> elementPresence = selector.apply(element);
 			if (elementPresence.get(0)) {
 				sourceBox.add(sourceIndex, element);
-				if (sourceBox instanceof IOne<?>) {
-					// innerObservers and presence do not need updating
+				if (sourceBox.isSingleton()) {
+					updatePresenceOfSingleton();
 				} else {
-					innerObservers.add(sourceIndex, registerObservation(elementPresence, new InnerBoxObserver(element)));
-					presence.add(sourceIndex, elementPresence);
+					addPresence(sourceIndex, element, elementPresence);
 				}
 			}
 			// should throw an exception
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		@Override
 		public void removed(int resultIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			if (sourceBox instanceof IOne<?>) {
 				E sourceDefault = ((IOne<E>)sourceBox).getDefaultElement();
 				if(selector.apply(sourceDefault).get(0)) {
 					throw new IllegalStateException("Emptying the result " + getResult() + " of a select while the source box " + sourceBox + " is a one box which a default value that satisfies the selector is forbidden");
 				} else {
 					sourceBox.clear();
+					updatePresenceOfSingleton();
 				}
 			} else {
-				int sourceIndex = indexOfTrue(resultIndex + 1) - 1;
+				int sourceIndex = indexOfTrue(resultIndex);
 				sourceBox.removeAt(sourceIndex);
-				IOne<Boolean> elementPresence = presence.remove(sourceIndex);
-				unregisterObservation(elementPresence, innerObservers.remove(sourceIndex));
+				removePresence(sourceIndex);
 			}
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		// we propagate even if oldElement == newElement, but do not change our internal stuff if unnecessary
 		@Override
 		public void replaced(int resultIndex, E newElement, E oldElement) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			int sourceIndex = indexOfTrue(resultIndex + 1) - 1;
-			IOne<Boolean> newElementPresence = (newElement == oldElement ? presence.get(sourceIndex) : selector.apply(newElement));
+			int sourceIndex = indexOfTrue(resultIndex);
+			IOne<Boolean> newElementPresence = (newElement == oldElement ? presence.get(sourceIndex).elementPresence : selector.apply(newElement));
 			if (newElementPresence.get(0)) {
 				sourceBox.set(sourceIndex, newElement);
 			} else {
@@ -292,39 +303,18 @@ public class SelectWithMutablePredicate<E> extends Operation<E> {
 			}
 
 			if(newElement != oldElement) {
-				unregisterObservation(presence.remove(sourceIndex), innerObservers.remove(sourceIndex));
-
-				innerObservers.add(sourceIndex, registerObservation(newElementPresence, new InnerBoxObserver(newElement)));
-				presence.add(sourceIndex, newElementPresence);
+				replacePresence(sourceIndex, newElement, newElementPresence);
 			}
-			debugCheckConsistencyOfPresenceWithInnerObservers();
 			debugCheckAlignmentOfSourceWithPresence();
 		}
 
 		@Override
 		public void moved(int newResultIndex, int oldResultIndex, E element) {
-			debugCheckConsistencyOfPresenceWithInnerObservers();
-			int newSourceIndex = indexOfTrue(newResultIndex + 1) - 1;
-			int oldSourceIndex = indexOfTrue(oldResultIndex + 1) - 1;
+			int newSourceIndex = indexOfTrue(newResultIndex);
+			int oldSourceIndex = indexOfTrue(oldResultIndex);
 			sourceBox.move(newSourceIndex, oldSourceIndex);
-
-			innerObservers.add(newSourceIndex, innerObservers.remove(oldSourceIndex));
-			presence.add(newSourceIndex, presence.remove(oldSourceIndex));
-			debugCheckConsistencyOfPresenceWithInnerObservers();
+			presence.move(newSourceIndex, oldSourceIndex);
 			debugCheckAlignmentOfSourceWithPresence();
 		}
-
-		// it is in fact the reversed version of countTrue...?
-		private int indexOfTrue(int untilCount) {
-			int index = 0;
-			int count = 0;
-			while (count < untilCount) {
-				if (presence.get(index).get(0)) {
-					count++;
-				}
-				index++;
-			}
-			return index;
-		}
 	}
 }
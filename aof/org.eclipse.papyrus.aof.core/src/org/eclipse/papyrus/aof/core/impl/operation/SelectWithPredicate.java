@@ -10,10 +10,15 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
 import org.eclipse.papyrus.aof.core.IOne;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
 
 public class SelectWithPredicate<E> extends Operation<E> {
 
@@ -21,11 +26,15 @@ public class SelectWithPredicate<E> extends Operation<E> {
 
 	private IUnaryFunction<? super E, Boolean> selector;
 
+	// presence of each source element in the result (weight 1 if selected, 0 otherwise), so that the selector is
+	// applied once per source change, and that source and result indices are translated in O(log n)
+	private WeightBalancedTree<E> presence = new WeightBalancedTree<E>();
+
 	public SelectWithPredicate(IBox<E> sourceBox, IUnaryFunction<? super E, Boolean> selector) {
 		this.sourceBox = sourceBox;
 		this.selector = selector;
 		for (E element : sourceBox) {
-			if (selector.apply(element)) {
+			if (presence.add(element, weight(element)).getWeight() == 1) {
 				getResult().add(element);
 			}
 		}
@@ -59,58 +68,90 @@ public class SelectWithPredicate<E> extends Operation<E> {
 		return sourceOne.getDefaultElement();
 	}
 
-	private class SourceObserver extends DefaultObserver<E> {
+	private int weight(E element) {
+		return selector.apply(element) ? 1 : 0;
+	}
+
+	private boolean isSelected(int sourceIndex) {
+		return presence.getNode(sourceIndex).getWeight() == 1;
+	}
+
+	// number of selected elements before the given source index
+	private int countTrue(int untilIndex) {
+		return presence.weightBefore(untilIndex);
+	}
+
+	// source index of the selected element located at the given result index
+	private int indexOfTrue(int resultIndex) {
+		return presence.indexOfWeight(resultIndex);
+	}
+
+	// reverse mutations of a singleton source box may differ from the performed mutation
+	// (e.g. removing from a one box replaces its element by the default element)
+	private void updatePresenceOfSingleton() {
+		if (sourceBox.isSingleton()) {
+			presence.clear();
+			for (E element : sourceBox) {
+				presence.add(element, weight(element));
+			}
+		}
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
 
 		@Override
 		public void added(int index, E element) {
-			if (selector.apply(element)) {
+			if (presence.add(index, element, weight(element)).getWeight() == 1) {
 				getResult().add(countTrue(index), element);
 			}
 		}
 
 		@Override
 		public void removed(int index, E element) {
-			if (selector.apply(element)) {
+			if (isSelected(index)) {
 				getResult().removeAt(countTrue(index));
 			}
+			presence.removeAt(index);
 		}
 
 		@Override
 		public void replaced(int index, E newElement, E oldElement) {
-			if (selector.apply(newElement)) {
-				if (selector.apply(oldElement)) {
+			WeightBalancedTree.Node<E> node = presence.getNode(index);
+			boolean oldSelected = node.getWeight() == 1;
+			boolean newSelected = selector.apply(newElement);
+			node.setValue(newElement);
+			if (newSelected) {
+				if (oldSelected) {
 					getResult().set(countTrue(index), newElement);
 				}
 				else {
+					presence.setWeight(node, 1);
 					getResult().add(countTrue(index), newElement);
 				}
 			}
-			else if (selector.apply(oldElement)) {
+			else if (oldSelected) {
+				presence.setWeight(node, 0);
 				getResult().removeAt(countTrue(index));
 			}
 		}
 
 		@Override
 		public void moved(int newIndex, int oldIndex, E element) {
-			if (selector.apply(element)) {
-				getResult().move(countTrue(newIndex), countTrue(oldIndex, newIndex));
+			if (isSelected(oldIndex)) {
+				int oldResultIndex = countTrue(oldIndex);
+				presence.move(newIndex, oldIndex);
+				getResult().move(countTrue(newIndex), oldResultIndex);
+			}
+			else {
+				presence.move(newIndex, oldIndex);
 			}
 		}
 
-		private int countTrue(int untilIndex) {
-			return countTrue(untilIndex, untilIndex);
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
 		}
 
-		private int countTrue(int untilIndex, int changeIndex) {
-			int count = 0;
-			for (int n = 0; n < untilIndex; n++) {
-				int index = (n < changeIndex) ? n : n + 1;
-				if (selector.apply(sourceBox.get(index))) {
-					count++;
-				}
-			}
-			return count;
-		}
 	}
 
 	protected class ResultObserver extends DefaultObserver<E> {
@@ -118,7 +159,14 @@ public class SelectWithPredicate<E> extends Operation<E> {
 		@Override
 		public void added(int index, E element) {
 			if (selector.apply(element)) {
-				sourceBox.add(indexOfTrue(index), element);
+				int sourceIndex = (index == 0) ? 0 : indexOfTrue(index - 1) + 1;
+				sourceBox.add(sourceIndex, element);
+				if (sourceBox.isSingleton()) {
+					updatePresenceOfSingleton();
+				}
+				else {
+					presence.add(sourceIndex, element, 1);
+				}
 			}
 			else {
 				throw new IllegalStateException("Trying to add element " + element + " that does not satisify predicate");
@@ -132,13 +180,22 @@ public class SelectWithPredicate<E> extends Operation<E> {
 					throw new IllegalStateException("Emptying the result " + getResult() + " of a select while the source box " + sourceBox + " is a one box which a default value that satisfies the selector is forbidden");
 				}
 			}
-			sourceBox.removeAt(indexOfTrue(index + 1) - 1);
+			int sourceIndex = indexOfTrue(index);
+			sourceBox.removeAt(sourceIndex);
+			if (sourceBox.isSingleton()) {
+				updatePresenceOfSingleton();
+			}
+			else {
+				presence.removeAt(sourceIndex);
+			}
 		}
 
 		@Override
 		public void replaced(int index, E newElement, E oldElement) {
 			if (selector.apply(newElement)) {
-				sourceBox.set(indexOfTrue(index + 1) - 1, newElement);
+				int sourceIndex = indexOfTrue(index);
+				sourceBox.set(sourceIndex, newElement);
+				presence.getNode(sourceIndex).setValue(newElement);
 			}
 			else {
 				throw new IllegalStateException("Trying to replace element " + oldElement + " by element " + newElement + " that does not satisify predicate");
@@ -147,20 +204,10 @@ public class SelectWithPredicate<E> extends Operation<E> {
 
 		@Override
 		public void moved(int newIndex, int oldIndex, E element) {
-			sourceBox.move(indexOfTrue(newIndex + 1) - 1, indexOfTrue(oldIndex + 1) - 1);
-		}
-
-		// it is in fact the reversed version of countTrue...?
-		private int indexOfTrue(int untilCount) {
-			int index = 0;
-			int count = 0;
-			while (count < untilCount) {
-				if (selector.apply(sourceBox.get(index))) {
-					count++;
-				}
-				index++;
-			}
-			return index;
+			int newSourceIndex = indexOfTrue(newIndex);
+			int oldSourceIndex = indexOfTrue(oldIndex);
+			sourceBox.move(newSourceIndex, oldSourceIndex);
+			presence.move(newSourceIndex, oldSourceIndex);
 		}
 
 	}
@@ -10,8 +10,14 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.operation;
 
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
 import org.eclipse.papyrus.aof.core.IBox;
-import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IChange.Kind;
+import org.eclipse.papyrus.aof.core.IIntOne;
 import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
 
 // note: bidir version of Size should define the elements to add when the size grows by using a function that give the element for the given position
@@ -21,6 +27,8 @@ public class Size<E> extends Operation<Integer> {
 
 	public Size(IBox<E> sourceBox) {
 		this.sourceBox = sourceBox;
+		// the size is kept unboxed
+		setResult(AOFFactory.INSTANCE.createIntOne(getResultDefautElement()));
 		setSize();
 		registerObservation(sourceBox, new SourceObserver());
 	}
@@ -52,15 +60,18 @@ public class Size<E> extends Operation<Integer> {
 	}
 
 	@Override
-	public IOne<Integer> getResult() {
-		return (IOne<Integer>) super.getResult();
+	public IIntOne getResult() {
+		return (IIntOne) super.getResult();
 	}
 
 	private void setSize() {
-		getResult().add(0, sourceBox.length());
+		int size = sourceBox.length();
+		if (getResult().getInt() != size) {
+			getResult().setInt(size);
+		}
 	}
 
-	private class SourceObserver extends DefaultObserver<E> {
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
 
 		@Override
 		public void added(int index, E element) {
@@ -80,6 +91,17 @@ public class Size<E> extends Operation<Integer> {
 		public void moved(int newIndex, int oldIndex, E element) {
 		}
 
+		// the size is only updated once for the whole batch
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			for (IChange<E> change : changes) {
+				if ((change.getKind() == Kind.ADDED) || (change.getKind() == Kind.REMOVED)) {
+					setSize();
+					return;
+				}
+			}
+		}
+
 	}
 
 }
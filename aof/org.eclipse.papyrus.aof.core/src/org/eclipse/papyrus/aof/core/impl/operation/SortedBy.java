@@ -0,0 +1,249 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IObserver;
+import org.eclipse.papyrus.aof.core.IOne;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree;
+
+/**
+ * Sorts the elements of a source box by the values of comparator bodies, compared lexicographically (the first body
+ * is the primary key). Elements with equal keys are kept in the order they were inserted in the result.
+ * <p>
+ * The current key of each element is cached in its entry, so that a key change is processed without reading the
+ * key boxes of the other elements, and each element is located in O(log n) from its entry. Null keys come first in
+ * ascending order.
+ * 
+ * @param <E>
+ */
+// entries are kept in two trees: in source order, to find the entry of a changed source element, and in result order
+public class SortedBy<E> extends Operation<E> {
+
+	private IBox<E> sourceBox;
+
+	private IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies;
+
+	private boolean ascending;
+
+	private WeightBalancedTree<Entry> sourceEntries = new WeightBalancedTree<Entry>();
+
+	private WeightBalancedTree<Entry> sortedEntries = new WeightBalancedTree<Entry>();
+
+	private Comparator<Entry> comparator = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry entry1, Entry entry2) {
+			for (int i = 0; i < comparatorBodies.length; i++) {
+				int result = compareKeys(entry1.key[i], entry2.key[i]);
+				if (result != 0) {
+					return ascending ? result : -result;
+				}
+			}
+			return 0;
+		}
+	};
+
+	public SortedBy(IBox<E> sourceBox, IUnaryFunction<? super E, ? extends IOne<? extends Comparable<?>>>[] comparatorBodies, boolean ascending) {
+		this.sourceBox = sourceBox;
+		this.comparatorBodies = comparatorBodies;
+		this.ascending = ascending;
+		for (E element : sourceBox) {
+			addEntry(sourceEntries.size(), element);
+		}
+		registerObservation(sourceBox, new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return sourceBox.isOptional();
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return sourceBox.isSingleton();
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return sourceBox.isUnique();
+	}
+
+	@Override
+	public E getResultDefautElement() {
+		IOne<E> sourceOne = (IOne<E>) sourceBox;
+		return sourceOne.getDefaultElement();
+	}
+
+	// entries management
+
+	@SuppressWarnings("unchecked")
+	private static int compareKeys(Comparable<?> key1, Comparable<?> key2) {
+		if (key1 == null) {
+			return (key2 == null) ? 0 : -1;
+		} else if (key2 == null) {
+			return 1;
+		} else {
+			return ((Comparable<Object>) key1).compareTo(key2);
+		}
+	}
+
+	private void addEntry(int sourceIndex, E element) {
+		Entry entry = new Entry(element);
+		sourceEntries.add(sourceIndex, entry, 0);
+		int resultIndex = sortedEntries.insertionIndex(entry, comparator);
+		entry.sortedNode = sortedEntries.add(resultIndex, entry, 0);
+		getResult().add(resultIndex, element);
+	}
+
+	private void removeEntry(int sourceIndex) {
+		Entry entry = sourceEntries.removeAt(sourceIndex).getValue();
+		int resultIndex = sortedEntries.indexOf(entry.sortedNode);
+		sortedEntries.removeAt(resultIndex);
+		entry.dispose();
+		getResult().removeAt(resultIndex);
+	}
+
+	// the entry is moved only if its new key breaks the order with its neighbors
+	private void keyChanged(Entry entry) {
+		int oldIndex = sortedEntries.indexOf(entry.sortedNode);
+		boolean afterPrevious = (oldIndex == 0) || (comparator.compare(sortedEntries.get(oldIndex - 1), entry) <= 0);
+		boolean beforeNext = (oldIndex == sortedEntries.size() - 1) || (comparator.compare(entry, sortedEntries.get(oldIndex + 1)) <= 0);
+		if (!afterPrevious || !beforeNext) {
+			sortedEntries.removeAt(oldIndex);
+			int newIndex = sortedEntries.insertionIndex(entry, comparator);
+			entry.sortedNode = sortedEntries.add(newIndex, entry, 0);
+			getResult().move(newIndex, oldIndex);
+		}
+	}
+
+	private class Entry {
+
+		private E element;
+
+		// current value of each comparator body, updated by the key observers
+		private Comparable<?>[] key;
+
+		private IOne<?>[] keyBoxes;
+
+		private IObserver<?>[] keyObservers;
+
+		private WeightBalancedTree.Node<Entry> sortedNode;
+
+		@SuppressWarnings("unchecked")
+		private Entry(E element) {
+			this.element = element;
+			int count = comparatorBodies.length;
+			key = new Comparable<?>[count];
+			keyBoxes = new IOne<?>[count];
+			keyObservers = new IObserver<?>[count];
+			for (int i = 0; i < count; i++) {
+				IOne<Comparable<?>> keyBox = (IOne<Comparable<?>>) comparatorBodies[i].apply(element);
+				keyBoxes[i] = keyBox;
+				key[i] = keyBox.get(0);
+				keyObservers[i] = registerObservation(keyBox, new KeyObserver(this, i));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void dispose() {
+			for (int i = 0; i < keyBoxes.length; i++) {
+				unregisterObservation((IBox<Comparable<?>>) keyBoxes[i], (IObserver<Comparable<?>>) keyObservers[i]);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(element);
+		}
+
+	}
+
+	private class SourceObserver extends DefaultObserver<E> implements IBatchObserver<E> {
+
+		@Override
+		public void added(int index, E element) {
+			addEntry(index, element);
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			removeEntry(index);
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			removeEntry(index);
+			addEntry(index, newElement);
+		}
+
+		// the result does not depend on the source order
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			sourceEntries.move(newIndex, oldIndex);
+		}
+
+		@Override
+		public void changed(List<IChange<E>> changes) {
+			changedInResultBatch(changes, this);
+		}
+
+	}
+
+	private class KeyObserver extends DefaultObserver<Comparable<?>> {
+
+		private Entry entry;
+
+		private int keyIndex;
+
+		public KeyObserver(Entry entry, int keyIndex) {
+			this.entry = entry;
+			this.keyIndex = keyIndex;
+		}
+
+		@Override
+		public void added(int index, Comparable<?> element) {
+			// key box is a one box, add makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void removed(int index, Comparable<?> element) {
+			// key box is a one box, remove makes no sense
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public void replaced(int index, Comparable<?> newElement, Comparable<?> oldElement) {
+			entry.key[keyIndex] = newElement;
+			keyChanged(entry);
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, Comparable<?> element) {
+			// key box is a one box, move makes no sense
+			throw new IllegalStateException();
+		}
+
+	}
+
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IDoubleBox;
+import org.eclipse.papyrus.aof.core.IDoubleObserver;
+import org.eclipse.papyrus.aof.core.IDoubleOne;
+import org.eclipse.papyrus.aof.core.impl.utils.CompensatedSum;
+
+// the sum is maintained from the unboxed notifications of the source box, so that no element is boxed, and is
+// compensated so that the rounding errors of successive updates do not accumulate
+public class SumDouble extends Operation<Double> {
+
+	private CompensatedSum sum = new CompensatedSum();
+
+	public SumDouble(IDoubleBox sourceBox) {
+		setResult(AOFFactory.INSTANCE.createDoubleOne(0.0));
+		for (int i = 0; i < sourceBox.length(); i++) {
+			sum.add(sourceBox.getDouble(i));
+		}
+		getResult().setDouble(sum.get());
+		sourceBox.addDoubleObserver(new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public Double getResultDefautElement() {
+		return 0.0;
+	}
+
+	@Override
+	public IDoubleOne getResult() {
+		return (IDoubleOne) super.getResult();
+	}
+
+	private class SourceObserver implements IDoubleObserver {
+
+		@Override
+		public void added(int index, double element) {
+			sum.add(element);
+			getResult().setDouble(sum.get());
+		}
+
+		@Override
+		public void removed(int index, double element) {
+			sum.subtract(element);
+			getResult().setDouble(sum.get());
+		}
+
+		@Override
+		public void replaced(int index, double newElement, double oldElement) {
+			if (newElement != oldElement) {
+				sum.subtract(oldElement);
+				sum.add(newElement);
+				getResult().setDouble(sum.get());
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, double element) {
+		}
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.operation;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IIntBox;
+import org.eclipse.papyrus.aof.core.IIntObserver;
+import org.eclipse.papyrus.aof.core.IIntOne;
+
+// the sum is maintained from the unboxed notifications of the source box, so that no element is boxed
+public class SumInt extends Operation<Integer> {
+
+	public SumInt(IIntBox sourceBox) {
+		setResult(AOFFactory.INSTANCE.createIntOne(0));
+		int sum = 0;
+		for (int i = 0; i < sourceBox.length(); i++) {
+			sum += sourceBox.getInt(i);
+		}
+		getResult().setInt(sum);
+		sourceBox.addIntObserver(new SourceObserver());
+	}
+
+	@Override
+	public boolean isOptional() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return true;
+	}
+
+	@Override
+	public boolean isOrdered() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return true;
+	}
+
+	@Override
+	public Integer getResultDefautElement() {
+		return 0;
+	}
+
+	@Override
+	public IIntOne getResult() {
+		return (IIntOne) super.getResult();
+	}
+
+	private class SourceObserver implements IIntObserver {
+
+		@Override
+		public void added(int index, int element) {
+			getResult().setInt(getResult().getInt() + element);
+		}
+
+		@Override
+		public void removed(int index, int element) {
+			getResult().setInt(getResult().getInt() - element);
+		}
+
+		@Override
+		public void replaced(int index, int newElement, int oldElement) {
+			if (newElement != oldElement) {
+				getResult().setInt(getResult().getInt() - oldElement + newElement);
+			}
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, int element) {
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+
+/**
+ * Resolves the property readers and the constructors of Java classes once, so that they can then be invoked for each
+ * element without looking them up again (bean introspection, constructor search). Only public constructors are
+ * resolved, as {@link Class#newInstance()} would only invoke accessible ones.
+ * <p>
+ * The resolved accessors are meant to be kept by their users, e.g. once per meta-class or per rule.
+ */
+public class Accessors {
+
+	/**
+	 * A resolved constructor.
+	 *
+	 * @param <C>
+	 *            the class of the created instances
+	 */
+	public static class Instantiator<C> {
+
+		private Constructor<C> constructor;
+
+		private int parameterCount;
+
+		private Instantiator(Constructor<C> constructor) {
+			this.constructor = constructor;
+			this.parameterCount = constructor.getParameterTypes().length;
+		}
+
+		public int getParameterCount() {
+			return parameterCount;
+		}
+
+		public C newInstance(Object... arguments) {
+			try {
+				return constructor.newInstance(arguments);
+			} catch (InstantiationException e) {
+				throw new IllegalStateException("cannot invoke constructor " + constructor, e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("cannot invoke constructor " + constructor, e);
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException("cannot invoke constructor " + constructor, e);
+			}
+		}
+
+	}
+
+	/**
+	 * Returns the public default (no-argument) constructor of the given class.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the class has no public default constructor
+	 */
+	public static <C> Instantiator<C> getDefaultConstructor(Class<C> javaClass) {
+		try {
+			return new Instantiator<C>(javaClass.getConstructor());
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("Default constructor of class " + javaClass + " is not defined, or not public", e);
+		}
+	}
+
+	/**
+	 * Returns the first public constructor of the given class, or the first one with parameters if required.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the class has no such constructor
+	 */
+	@SuppressWarnings("unchecked")
+	public static <C> Instantiator<C> getFirstConstructor(Class<C> javaClass, boolean withParameters) {
+		for (Constructor<?> constructor : javaClass.getConstructors()) {
+			if (!withParameters || (constructor.getParameterTypes().length > 0)) {
+				return new Instantiator<C>((Constructor<C>) constructor);
+			}
+		}
+		throw new IllegalArgumentException("No public constructor" + (withParameters ? " with parameters" : "") + " defined in class " + javaClass);
+	}
+
+	/**
+	 * Returns a function reading the given bean property (through its getter) on instances of the given class.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the property is not defined in the class
+	 */
+	public static <C, R> IUnaryFunction<C, R> getPropertyReader(Class<C> javaClass, String property) {
+		Method readMethod = null;
+		try {
+			for (PropertyDescriptor descriptor : Introspector.getBeanInfo(javaClass).getPropertyDescriptors()) {
+				if (descriptor.getName().equals(property)) {
+					readMethod = descriptor.getReadMethod();
+				}
+			}
+		} catch (IntrospectionException e) {
+		}
+		if (readMethod == null) {
+			throw new IllegalArgumentException("Property " + property + " not defined in class " + javaClass);
+		} else {
+			return new MethodReader<C, R>(readMethod);
+		}
+	}
+
+	/**
+	 * Returns a function reading the first public field of the given class.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the class has no public field
+	 */
+	public static <C, R> IUnaryFunction<C, R> getFirstFieldReader(Class<C> javaClass) {
+		Field[] fields = javaClass.getFields();
+		if (fields.length == 0) {
+			throw new IllegalArgumentException("No public field defined in class " + javaClass);
+		} else {
+			return new FieldReader<C, R>(fields[0]);
+		}
+	}
+
+	private static class MethodReader<C, R> implements IUnaryFunction<C, R> {
+
+		private Method readMethod;
+
+		private MethodReader(Method readMethod) {
+			// public methods of non-public classes are otherwise checked on each call
+			readMethod.setAccessible(true);
+			this.readMethod = readMethod;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public R apply(C object) {
+			try {
+				return (R) readMethod.invoke(object);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("cannot access property reader " + readMethod, e);
+			} catch (InvocationTargetException e) {
+				throw new IllegalArgumentException("cannot access property reader " + readMethod, e);
+			}
+		}
+
+	}
+
+	private static class FieldReader<C, R> implements IUnaryFunction<C, R> {
+
+		private Field field;
+
+		private FieldReader(Field field) {
+			field.setAccessible(true);
+			this.field = field;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public R apply(C object) {
+			try {
+				return (R) field.get(object);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("cannot access field " + field, e);
+			}
+		}
+
+	}
+
+}
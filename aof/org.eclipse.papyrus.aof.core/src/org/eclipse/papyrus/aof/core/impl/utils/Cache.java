@@ -10,26 +10,29 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.core.impl.utils;
 
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.IBinaryCache;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.IUnaryCache;
-import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesBinaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesFlatBinaryCache;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesUnaryCache;
 
 public class Cache {
-	private IUnaryCache sourceByTarget = new WeakKeysWeakValuesUnaryCache();
+	private IUnaryCache<Object, Object> sourceByTarget = new WeakKeysWeakValuesUnaryCache<Object, Object>();
 	// many sources per link, few (typically 1) links by source
-	private IBinaryCache targetByLinkAndSource = new WeakKeysWeakValuesBinaryCache();
+	private IBinaryCache<Object, Object, Object> targetByLinkAndSource = new WeakKeysWeakValuesFlatBinaryCache<Object, Object, Object>();
+
+	// within a CacheScope, the scoped counterparts of these caches are used
 
 	public Object getTarget(Object source, Object link) {
-		return targetByLinkAndSource.get(link, source);
+		return CacheScope.scoped(targetByLinkAndSource).get(link, source);
 	}
 
 	public Object getSource(Object target) {
-		return sourceByTarget.get(target);
+		return CacheScope.scoped(sourceByTarget).get(target);
 	}
 
 	public void addLink(Object source, Object link, Object target) {
-		sourceByTarget.put(target, source);
-		targetByLinkAndSource.put(link, source, target);
+		CacheScope.scoped(sourceByTarget).put(target, source);
+		CacheScope.scoped(targetByLinkAndSource).put(link, source, target);
 	}
 }
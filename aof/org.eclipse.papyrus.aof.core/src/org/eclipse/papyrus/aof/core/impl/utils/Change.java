@@ -0,0 +1,164 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IObserver;
+
+public class Change<E> implements IChange<E> {
+
+	private Kind kind;
+
+	private int index;
+
+	private int oldIndex;
+
+	private E element;
+
+	private E oldElement;
+
+	// batch observers that were disabled when the change occurred, and must thus not receive it (rarely not null)
+	private List<IObserver<E>> skippedObservers;
+
+	public Change(Kind kind, int index, int oldIndex, E element, E oldElement) {
+		this.kind = kind;
+		this.index = index;
+		this.oldIndex = oldIndex;
+		this.element = element;
+		this.oldElement = oldElement;
+	}
+
+	public static <E> Change<E> added(int index, E element) {
+		return new Change<E>(Kind.ADDED, index, index, element, element);
+	}
+
+	public static <E> Change<E> removed(int index, E element) {
+		return new Change<E>(Kind.REMOVED, index, index, element, element);
+	}
+
+	public static <E> Change<E> replaced(int index, E newElement, E oldElement) {
+		return new Change<E>(Kind.REPLACED, index, index, newElement, oldElement);
+	}
+
+	public static <E> Change<E> moved(int newIndex, int oldIndex, E element) {
+		return new Change<E>(Kind.MOVED, newIndex, oldIndex, element, element);
+	}
+
+	// IChange
+
+	@Override
+	public Kind getKind() {
+		return kind;
+	}
+
+	@Override
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public int getOldIndex() {
+		return oldIndex;
+	}
+
+	@Override
+	public E getElement() {
+		return element;
+	}
+
+	@Override
+	public E getOldElement() {
+		return oldElement;
+	}
+
+	@Override
+	public void replay(IObserver<E> observer) {
+		switch (kind) {
+		case ADDED:
+			observer.added(index, element);
+			break;
+		case REMOVED:
+			observer.removed(index, element);
+			break;
+		case REPLACED:
+			observer.replaced(index, element, oldElement);
+			break;
+		case MOVED:
+			observer.moved(index, oldIndex, element);
+			break;
+		}
+	}
+
+	// Skipped observers
+
+	public void skip(IObserver<E> observer) {
+		if (skippedObservers == null) {
+			skippedObservers = new ArrayList<IObserver<E>>();
+		}
+		skippedObservers.add(observer);
+	}
+
+	public boolean isSkipped(IObserver<E> observer) {
+		return (skippedObservers != null) && skippedObservers.contains(observer);
+	}
+
+	// Compaction
+
+	/**
+	 * Returns the changes of a batch that a given observer must receive, where consecutive changes of a same position
+	 * are merged (e.g. an addition followed by a replacement becomes an addition of the new element, an addition
+	 * followed by a removal vanishes).
+	 */
+	public static <E> List<IChange<E>> compact(List<Change<E>> changes, IObserver<E> observer) {
+		List<IChange<E>> result = new ArrayList<IChange<E>>(changes.size());
+		for (Change<E> change : changes) {
+			if (change.isSkipped(observer)) {
+				continue;
+			}
+			if ((change.kind == Kind.MOVED) && (change.index == change.oldIndex)) {
+				continue;
+			}
+			IChange<E> last = result.isEmpty() ? null : result.get(result.size() - 1);
+			if ((last == null) || (last.getIndex() != change.index)) {
+				result.add(change);
+			} else if ((last.getKind() == Kind.ADDED) && (change.kind == Kind.REMOVED)) {
+				result.remove(result.size() - 1);
+			} else if ((last.getKind() == Kind.ADDED) && (change.kind == Kind.REPLACED)) {
+				result.set(result.size() - 1, added(change.index, change.element));
+			} else if ((last.getKind() == Kind.REPLACED) && (change.kind == Kind.REPLACED)) {
+				result.set(result.size() - 1, replaced(change.index, change.element, last.getOldElement()));
+			} else if ((last.getKind() == Kind.REPLACED) && (change.kind == Kind.REMOVED)) {
+				result.set(result.size() - 1, removed(change.index, last.getOldElement()));
+			} else {
+				result.add(change);
+			}
+		}
+		return result;
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		switch (kind) {
+		case REPLACED:
+			return kind + "(" + index + ", " + element + ", " + oldElement + ")";
+		case MOVED:
+			return kind + "(" + index + ", " + oldIndex + ", " + element + ")";
+		default:
+			return kind + "(" + index + ", " + element + ")";
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+/**
+ * A sum of doubles with a running compensation of the rounding errors (Kahan-Babuska summation, as improved by
+ * Neumaier), so that a sum maintained over many additions and subtractions does not drift from the sum of the
+ * current values.
+ */
+public class CompensatedSum {
+
+	private double sum;
+
+	private double compensation;
+
+	public void add(double value) {
+		double total = sum + value;
+		if (Math.abs(sum) >= Math.abs(value)) {
+			compensation += (sum - total) + value;
+		} else {
+			compensation += (value - total) + sum;
+		}
+		sum = total;
+	}
+
+	public void subtract(double value) {
+		add(-value);
+	}
+
+	public double get() {
+		return sum + compensation;
+	}
+
+}
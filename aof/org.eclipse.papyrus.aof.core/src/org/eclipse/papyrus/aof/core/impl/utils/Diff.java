@@ -0,0 +1,124 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+import static org.eclipse.papyrus.aof.core.impl.utils.Equality.optionalEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes a shortest edit script between two lists, i.e. a longest common subsequence of their elements,
+ * using the O((N+M)D) greedy algorithm of Myers ("An O(ND) Difference Algorithm and Its Variations", 1986).
+ * <p>
+ * The common prefix and suffix of both lists are matched first, so that the cost of the algorithm only depends on
+ * the size of the changed region. Elements are compared with {@link Equality#optionalEquals(Object, Object)}.
+ */
+public class Diff {
+
+	/**
+	 * Matches the elements of an old list with the elements of a new list.
+	 * <p>
+	 * The result gives, for each index of the old list, the index of the equal element of the new list it is matched
+	 * with, or -1 if the old element has to be removed. Matched indices are strictly increasing; elements of the new
+	 * list that are not matched have to be inserted.
+	 *
+	 * @param oldList
+	 *            the list to be edited
+	 * @param newList
+	 *            the list to be obtained
+	 * @param maxEdits
+	 *            the maximum number of removals and insertions the script may contain
+	 * @return the matching of the old list, or null if the shortest edit script exceeds maxEdits
+	 */
+	public static <E> int[] match(List<E> oldList, List<E> newList, int maxEdits) {
+		int[] matching = new int[oldList.size()];
+		Arrays.fill(matching, -1);
+		int start = 0;
+		int oldEnd = oldList.size();
+		int newEnd = newList.size();
+		while ((start < oldEnd) && (start < newEnd) && optionalEquals(oldList.get(start), newList.get(start))) {
+			matching[start] = start;
+			start++;
+		}
+		while ((oldEnd > start) && (newEnd > start) && optionalEquals(oldList.get(oldEnd - 1), newList.get(newEnd - 1))) {
+			matching[--oldEnd] = --newEnd;
+		}
+		if (!matchMiddle(oldList.subList(start, oldEnd), newList.subList(start, newEnd), matching, start, maxEdits)) {
+			return null;
+		}
+		return matching;
+	}
+
+	private static <E> boolean matchMiddle(List<E> a, List<E> b, int[] matching, int offset, int maxEdits) {
+		int n = a.size();
+		int m = b.size();
+		int max = Math.min(n + m, maxEdits);
+		// v[k + max + 1] is the furthest x reached on diagonal k = x - y
+		int[] v = new int[2 * max + 3];
+		// trace.get(d)[k + d] is the furthest x reached on diagonal k after d edits
+		List<int[]> trace = new ArrayList<int[]>();
+		for (int d = 0; d <= max; d++) {
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if ((k == -d) || ((k != d) && (v[k - 1 + max + 1] < v[k + 1 + max + 1]))) {
+					x = v[k + 1 + max + 1]; // insertion
+				} else {
+					x = v[k - 1 + max + 1] + 1; // removal
+				}
+				int y = x - k;
+				while ((x < n) && (y < m) && optionalEquals(a.get(x), b.get(y))) {
+					x++;
+					y++;
+				}
+				v[k + max + 1] = x;
+				if ((x >= n) && (y >= m)) {
+					trace.add(Arrays.copyOfRange(v, max + 1 - d, max + 1 + d + 1));
+					backtrack(trace, n, m, matching, offset);
+					return true;
+				}
+			}
+			trace.add(Arrays.copyOfRange(v, max + 1 - d, max + 1 + d + 1));
+		}
+		return false;
+	}
+
+	private static void backtrack(List<int[]> trace, int x, int y, int[] matching, int offset) {
+		for (int d = trace.size() - 1; d > 0; d--) {
+			int[] previous = trace.get(d - 1);
+			int k = x - y;
+			int previousK;
+			if ((k == -d) || ((k != d) && (previous[k - 1 + d - 1] < previous[k + 1 + d - 1]))) {
+				previousK = k + 1;
+			} else {
+				previousK = k - 1;
+			}
+			int previousX = previous[previousK + d - 1];
+			int previousY = previousX - previousK;
+			// the snake following the edit
+			int snakeX = (previousK == k + 1) ? previousX : previousX + 1;
+			while (x > snakeX) {
+				x--;
+				y--;
+				matching[offset + x] = offset + y;
+			}
+			x = previousX;
+			y = previousY;
+		}
+		while (x > 0) {
+			x--;
+			y--;
+			matching[offset + x] = offset + y;
+		}
+	}
+
+}
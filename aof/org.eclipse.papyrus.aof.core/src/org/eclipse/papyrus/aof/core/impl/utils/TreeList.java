@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.eclipse.papyrus.aof.core.impl.utils.WeightBalancedTree.Node;
+
+/**
+ * A list stored in a {@link WeightBalancedTree}, so that insertions and removals at any index are O(log n) instead of
+ * shifting all the following elements as in an {@link java.util.ArrayList}. Positional access is O(log n) as well, while
+ * iteration is O(1) amortized per element.
+ *
+ * @param <E>
+ *            type of the elements of the list
+ */
+public class TreeList<E> extends AbstractList<E> {
+
+	private WeightBalancedTree<E> tree = new WeightBalancedTree<E>();
+
+	public TreeList() {
+	}
+
+	public TreeList(Collection<? extends E> elements) {
+		for (E element : elements) {
+			tree.add(element, 0);
+		}
+	}
+
+	@Override
+	public E get(int index) {
+		return tree.get(index);
+	}
+
+	@Override
+	public int size() {
+		return tree.size();
+	}
+
+	@Override
+	public void add(int index, E element) {
+		tree.add(index, element, 0);
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		E element = tree.removeAt(index).getValue();
+		modCount++;
+		return element;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		Node<E> node = tree.getNode(index);
+		E oldElement = node.getValue();
+		node.setValue(element);
+		return oldElement;
+	}
+
+	/**
+	 * Moves the element located at oldIndex to newIndex.
+	 */
+	public void move(int newIndex, int oldIndex) {
+		tree.move(newIndex, oldIndex);
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		tree.clear();
+		modCount++;
+	}
+
+	// the tree iterator does not look up each element from the root
+	@Override
+	public Iterator<E> iterator() {
+		return tree.iterator();
+	}
+
+	@Override
+	public int indexOf(Object element) {
+		int index = 0;
+		for (E e : tree) {
+			if (Equality.optionalEquals(element, e)) {
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,504 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed sequence implemented as a weight-balanced binary tree (order-statistics tree).
+ * <p>
+ * Each node holds a value and a non-negative integer weight. Every subtree caches its size and
+ * the sum of its weights, so that positional access, insertion, removal, the rank of a node,
+ * the prefix sum of weights and the search of a position by cumulated weight are all O(log n).
+ * <p>
+ * Nodes keep their identity when the tree is rebalanced (rotations relink nodes instead of
+ * copying values), so that an operation can keep the node of an element and retrieve its
+ * current index later on with {@link #indexOf(Node)}.
+ * <p>
+ * Balancing uses the (delta, gamma) = (3, 2) parameters of weight-balanced trees
+ * (see https://yoichihirai.com/bst.pdf).
+ *
+ * @param <V>
+ *            type of the values held by the nodes
+ */
+public class WeightBalancedTree<V> implements Iterable<V> {
+
+	private static final int DELTA = 3;
+
+	private static final int GAMMA = 2;
+
+	public static class Node<V> {
+
+		private V value;
+
+		private int weight;
+
+		private int size;
+
+		private int weightSum;
+
+		private Node<V> parent;
+
+		private Node<V> lower;
+
+		private Node<V> upper;
+
+		private Node(V value, int weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		public void setValue(V value) {
+			this.value = value;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+
+		private void update() {
+			size = size(lower) + size(upper) + 1;
+			weightSum = weightSum(lower) + weightSum(upper) + weight;
+		}
+
+		private void setLower(Node<V> lower) {
+			this.lower = lower;
+			if (lower != null) {
+				lower.parent = this;
+			}
+		}
+
+		private void setUpper(Node<V> upper) {
+			this.upper = upper;
+			if (upper != null) {
+				upper.parent = this;
+			}
+		}
+
+		private void detach() {
+			parent = null;
+			lower = null;
+			upper = null;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value) + "/" + weight;
+		}
+
+	}
+
+	private Node<V> root;
+
+	// Size and weights
+
+	private static int size(Node<?> node) {
+		return (node == null) ? 0 : node.size;
+	}
+
+	private static int weightSum(Node<?> node) {
+		return (node == null) ? 0 : node.weightSum;
+	}
+
+	public int size() {
+		return size(root);
+	}
+
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Returns the sum of the weights of all the nodes of this tree.
+	 */
+	public int totalWeight() {
+		return weightSum(root);
+	}
+
+	// Access
+
+	public Node<V> getNode(int index) {
+		if ((index < 0) || (index >= size())) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+		}
+		Node<V> node = root;
+		while (true) {
+			int lowerSize = size(node.lower);
+			if (index < lowerSize) {
+				node = node.lower;
+			} else if (index == lowerSize) {
+				return node;
+			} else {
+				index -= lowerSize + 1;
+				node = node.upper;
+			}
+		}
+	}
+
+	public V get(int index) {
+		return getNode(index).value;
+	}
+
+	/**
+	 * Returns the current index of a node of this tree, by walking up to the root.
+	 */
+	public int indexOf(Node<V> node) {
+		int index = size(node.lower);
+		while (node.parent != null) {
+			if (node == node.parent.upper) {
+				index += size(node.parent.lower) + 1;
+			}
+			node = node.parent;
+		}
+		return index;
+	}
+
+	// Weights
+
+	public void setWeight(Node<V> node, int weight) {
+		assert weight >= 0;
+
+		int delta = weight - node.weight;
+		if (delta != 0) {
+			node.weight = weight;
+			while (node != null) {
+				node.weightSum += delta;
+				node = node.parent;
+			}
+		}
+	}
+
+	/**
+	 * Returns the sum of the weights of the nodes located before a given index.
+	 */
+	public int weightBefore(int index) {
+		int sum = 0;
+		Node<V> node = root;
+		while (node != null) {
+			int lowerSize = size(node.lower);
+			if (index <= lowerSize) {
+				node = node.lower;
+			} else {
+				sum += weightSum(node.lower) + node.weight;
+				index -= lowerSize + 1;
+				node = node.upper;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the sum of the weights of the nodes located before a given node.
+	 */
+	public int weightBefore(Node<V> node) {
+		int sum = weightSum(node.lower);
+		while (node.parent != null) {
+			if (node == node.parent.upper) {
+				sum += weightSum(node.parent.lower) + node.parent.weight;
+			}
+			node = node.parent;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the index of the node that covers a given cumulated weight, i.e. the index i such that
+	 * weightBefore(i) <= weight < weightBefore(i) + get(i).weight. With 0/1 weights, this is the index
+	 * of the (weight+1)-th node of weight 1.
+	 *
+	 * @return the found index, or -1 if weight is not lower than the total weight
+	 */
+	public int indexOfWeight(int weight) {
+		int index = 0;
+		Node<V> node = root;
+		while (node != null) {
+			int lowerWeight = weightSum(node.lower);
+			if (weight < lowerWeight) {
+				node = node.lower;
+			} else if (weight < lowerWeight + node.weight) {
+				return index + size(node.lower);
+			} else {
+				weight -= lowerWeight + node.weight;
+				index += size(node.lower) + 1;
+				node = node.upper;
+			}
+		}
+		return -1;
+	}
+
+	// Search
+
+	/**
+	 * Returns the index at which a value should be inserted to keep this tree sorted according to a given comparator,
+	 * i.e. the index following all the values that are not greater than it. The values of this tree must already be
+	 * sorted according to the comparator.
+	 */
+	public int insertionIndex(V value, Comparator<? super V> comparator) {
+		int index = 0;
+		Node<V> node = root;
+		while (node != null) {
+			if (comparator.compare(value, node.value) < 0) {
+				node = node.lower;
+			} else {
+				index += size(node.lower) + 1;
+				node = node.upper;
+			}
+		}
+		return index;
+	}
+
+	// Mutations
+
+	public Node<V> add(int index, V value, int weight) {
+		assert weight >= 0;
+
+		Node<V> node = new Node<V>(value, weight);
+		insert(index, node);
+		return node;
+	}
+
+	public Node<V> add(V value, int weight) {
+		return add(size(), value, weight);
+	}
+
+	public Node<V> removeAt(int index) {
+		if ((index < 0) || (index >= size())) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+		}
+		Node<V> node = getNode(index);
+		root = delete(root, index);
+		if (root != null) {
+			root.parent = null;
+		}
+		node.detach();
+		return node;
+	}
+
+	public void remove(Node<V> node) {
+		removeAt(indexOf(node));
+	}
+
+	/**
+	 * Moves the node located at oldIndex to newIndex, keeping the node identity.
+	 */
+	public void move(int newIndex, int oldIndex) {
+		if (newIndex != oldIndex) {
+			insert(newIndex, removeAt(oldIndex));
+		}
+	}
+
+	public void clear() {
+		root = null;
+	}
+
+	private void insert(int index, Node<V> node) {
+		if ((index < 0) || (index > size())) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+		}
+		node.detach();
+		node.update();
+		root = insert(root, index, node);
+		root.parent = null;
+	}
+
+	private Node<V> insert(Node<V> tree, int index, Node<V> node) {
+		if (tree == null) {
+			return node;
+		}
+		int lowerSize = size(tree.lower);
+		if (index <= lowerSize) {
+			tree.setLower(insert(tree.lower, index, node));
+		} else {
+			tree.setUpper(insert(tree.upper, index - lowerSize - 1, node));
+		}
+		return balance(tree);
+	}
+
+	private Node<V> delete(Node<V> tree, int index) {
+		int lowerSize = size(tree.lower);
+		if (index < lowerSize) {
+			tree.setLower(delete(tree.lower, index));
+		} else if (index > lowerSize) {
+			tree.setUpper(delete(tree.upper, index - lowerSize - 1));
+		} else {
+			return glue(tree.lower, tree.upper);
+		}
+		return balance(tree);
+	}
+
+	// joins two balanced subtrees whose sizes differ by at most the balance factor
+	private Node<V> glue(Node<V> lower, Node<V> upper) {
+		if (lower == null) {
+			return upper;
+		} else if (upper == null) {
+			return lower;
+		} else if (lower.size > upper.size) {
+			Node<V> max = lower;
+			while (max.upper != null) {
+				max = max.upper;
+			}
+			Node<V> newLower = deleteMax(lower);
+			max.detach();
+			max.setLower(newLower);
+			max.setUpper(upper);
+			return balance(max);
+		} else {
+			Node<V> min = upper;
+			while (min.lower != null) {
+				min = min.lower;
+			}
+			Node<V> newUpper = deleteMin(upper);
+			min.detach();
+			min.setLower(lower);
+			min.setUpper(newUpper);
+			return balance(min);
+		}
+	}
+
+	private Node<V> deleteMin(Node<V> tree) {
+		if (tree.lower == null) {
+			return tree.upper;
+		} else {
+			tree.setLower(deleteMin(tree.lower));
+			return balance(tree);
+		}
+	}
+
+	private Node<V> deleteMax(Node<V> tree) {
+		if (tree.upper == null) {
+			return tree.lower;
+		} else {
+			tree.setUpper(deleteMax(tree.upper));
+			return balance(tree);
+		}
+	}
+
+	// Balancing
+
+	private static boolean isBalanced(Node<?> a, Node<?> b) {
+		return DELTA * (size(a) + 1) >= size(b) + 1;
+	}
+
+	private static boolean isSingle(Node<?> a, Node<?> b) {
+		return size(a) + 1 < GAMMA * (size(b) + 1);
+	}
+
+	private Node<V> balance(Node<V> tree) {
+		tree.update();
+		if (!isBalanced(tree.lower, tree.upper)) {
+			if (isSingle(tree.upper.lower, tree.upper.upper)) {
+				return rotateLeft(tree);
+			} else {
+				tree.setUpper(rotateRight(tree.upper));
+				return rotateLeft(tree);
+			}
+		} else if (!isBalanced(tree.upper, tree.lower)) {
+			if (isSingle(tree.lower.upper, tree.lower.lower)) {
+				return rotateRight(tree);
+			} else {
+				tree.setLower(rotateLeft(tree.lower));
+				return rotateRight(tree);
+			}
+		} else {
+			return tree;
+		}
+	}
+
+	private Node<V> rotateLeft(Node<V> tree) {
+		Node<V> upper = tree.upper;
+		tree.setUpper(upper.lower);
+		tree.update();
+		upper.setLower(tree);
+		upper.update();
+		return upper;
+	}
+
+	private Node<V> rotateRight(Node<V> tree) {
+		Node<V> lower = tree.lower;
+		tree.setLower(lower.upper);
+		tree.update();
+		lower.setUpper(tree);
+		lower.update();
+		return lower;
+	}
+
+	// Iterable
+
+	@Override
+	public Iterator<V> iterator() {
+		return new Iterator<V>() {
+
+			private Node<V> next = first();
+
+			private Node<V> first() {
+				Node<V> node = root;
+				if (node != null) {
+					while (node.lower != null) {
+						node = node.lower;
+					}
+				}
+				return node;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public V next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				Node<V> current = next;
+				if (next.upper != null) {
+					next = next.upper;
+					while (next.lower != null) {
+						next = next.lower;
+					}
+				} else {
+					while ((next.parent != null) && (next.parent.upper == next)) {
+						next = next.parent;
+					}
+					next = next.parent;
+				}
+				return current.value;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (V value : this) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(value);
+		}
+		return builder.append("]").toString();
+	}
+
+}
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IPair;
+
+/**
+ * A scope (e.g. a transformation run) in which the global weak caches of the operations are replaced by scoped
+ * caches, which are not shared with other scopes.
+ * <p>
+ * Entries of scoped caches are held strongly in plain hash maps, which avoids allocating weak references and
+ * expunging them. When a model element is detached from the models (see {@link #demote(Object)}), the entries whose
+ * keys include this element are demoted to a weak tier, so that they can be collected along with the element.
+ * Closing the scope releases all the entries at once.
+ * <p>
+ * Scopes are used as follows (scopes may be nested, the innermost one being the current one):
+ *
+ * <pre>
+ * CacheScope scope = CacheScope.open();
+ * try {
+ * 	// run the transformation
+ * } finally {
+ * 	scope.close();
+ * }
+ * </pre>
+ *
+ * The current scope is bound to the thread that opened it, so that transformations run on different threads do not
+ * use each other's scopes. A scope must therefore be closed by the thread that opened it.
+ */
+public class CacheScope {
+
+	private static final ThreadLocal<CacheScope> current = new ThreadLocal<CacheScope>();
+
+	private CacheScope previous;
+
+	private boolean closed;
+
+	// the scoped caches, by global cache they replace
+	private Map<Object, Scoped> caches = new IdentityHashMap<Object, Scoped>();
+
+	private List<Scoped> cacheList = new ArrayList<Scoped>();
+
+	protected CacheScope() {
+	}
+
+	/**
+	 * Opens a new scope, which becomes the current one until it is closed.
+	 */
+	public static CacheScope open() {
+		return new CacheScope().makeCurrent();
+	}
+
+	protected CacheScope makeCurrent() {
+		previous = current.get();
+		current.set(this);
+		return this;
+	}
+
+	/**
+	 * Returns the current scope of the calling thread, or null if no scope is open.
+	 */
+	public static CacheScope getCurrent() {
+		return current.get();
+	}
+
+	/**
+	 * Returns the cache to be used in place of the given global cache: its scoped counterpart if a scope is open, or the
+	 * global cache itself otherwise.
+	 */
+	public static <K, V> IUnaryCache<K, V> scoped(IUnaryCache<K, V> globalCache) {
+		CacheScope scope = current.get();
+		if (scope == null) {
+			return globalCache;
+		} else {
+			@SuppressWarnings("unchecked")
+			ScopedUnaryCache<K, V> cache = (ScopedUnaryCache<K, V>) scope.caches.get(globalCache);
+			if (cache == null) {
+				cache = new ScopedUnaryCache<K, V>();
+				scope.add(globalCache, cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Returns the cache to be used in place of the given global cache: its scoped counterpart if a scope is open, or the
+	 * global cache itself otherwise.
+	 */
+	public static <K1, K2, V> IBinaryCache<K1, K2, V> scoped(IBinaryCache<K1, K2, V> globalCache) {
+		CacheScope scope = current.get();
+		if (scope == null) {
+			return globalCache;
+		} else {
+			@SuppressWarnings("unchecked")
+			ScopedBinaryCache<K1, K2, V> cache = (ScopedBinaryCache<K1, K2, V>) scope.caches.get(globalCache);
+			if (cache == null) {
+				cache = new ScopedBinaryCache<K1, K2, V>(scope);
+				scope.add(globalCache, cache);
+			}
+			return cache;
+		}
+	}
+
+	private void add(Object globalCache, Scoped cache) {
+		caches.put(globalCache, cache);
+		cacheList.add(cache);
+	}
+
+	/**
+	 * Tells whether an object is a model element, i.e. whether it may be detached from the models. The entries of
+	 * scoped caches are only demoted for such elements. No object is an element for this base scope, which therefore
+	 * only holds its entries strongly until it is closed.
+	 */
+	protected boolean isElement(Object object) {
+		return false;
+	}
+
+	/**
+	 * Demotes the entries whose keys include the given element to the weak tier of the scoped caches, because the
+	 * element has been detached from the models.
+	 */
+	public void demote(Object element) {
+		if (isElement(element)) {
+			for (Scoped cache : cacheList) {
+				cache.demote(element);
+			}
+		}
+	}
+
+	/**
+	 * Releases all the entries of the scoped caches, and restores the previous scope as the current one.
+	 */
+	public void close() {
+		if (current.get() != this) {
+			throw new IllegalStateException("Cache scopes must be closed in the reverse order of their opening");
+		}
+		if (previous == null) {
+			current.remove();
+		} else {
+			current.set(previous);
+		}
+		previous = null;
+		caches = null;
+		cacheList = null;
+		closed = true;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	// Scoped caches
+
+	private interface Scoped {
+
+		void demote(Object element);
+
+	}
+
+	private static class ScopedUnaryCache<K, V> implements IUnaryCache<K, V>, Scoped {
+
+		private Map<K, V> strong = new HashMap<K, V>();
+
+		private IUnaryCache<K, V> weak;
+
+		@Override
+		public V get(K key) {
+			V value = strong.get(key);
+			if ((value == null) && (weak != null)) {
+				value = weak.get(key);
+			}
+			return value;
+		}
+
+		@Override
+		public void put(K key, V value) {
+			strong.put(key, value);
+		}
+
+		@Override
+		public void demote(Object element) {
+			if (strong.containsKey(element)) {
+				// the element is a key, since it is contained
+				@SuppressWarnings("unchecked")
+				K key = (K) element;
+				if (weak == null) {
+					weak = new WeakKeysWeakValuesUnaryCache<K, V>();
+				}
+				weak.put(key, strong.remove(key));
+			}
+		}
+
+	}
+
+	private static class ScopedBinaryCache<K1, K2, V> implements IBinaryCache<K1, K2, V>, Scoped {
+
+		private CacheScope scope;
+
+		private Map<IPair<K1, K2>, V> strong = new HashMap<IPair<K1, K2>, V>();
+
+		// the keys of the entries that include each element, so that these entries can be demoted
+		private Map<Object, List<IPair<K1, K2>>> keysByElement = new HashMap<Object, List<IPair<K1, K2>>>();
+
+		private IBinaryCache<K1, K2, V> weak;
+
+		private ScopedBinaryCache(CacheScope scope) {
+			this.scope = scope;
+		}
+
+		@Override
+		public V get(K1 key1, K2 key2) {
+			V value = strong.get(AOFFactory.INSTANCE.createPair(key1, key2));
+			if ((value == null) && (weak != null)) {
+				value = weak.get(key1, key2);
+			}
+			return value;
+		}
+
+		@Override
+		public void put(K1 key1, K2 key2, V value) {
+			IPair<K1, K2> key = AOFFactory.INSTANCE.createPair(key1, key2);
+			if (strong.put(key, value) == null) {
+				index(key1, key);
+				index(key2, key);
+			}
+		}
+
+		private void index(Object element, IPair<K1, K2> key) {
+			if (scope.isElement(element)) {
+				List<IPair<K1, K2>> keys = keysByElement.get(element);
+				if (keys == null) {
+					keys = new ArrayList<IPair<K1, K2>>(1);
+					keysByElement.put(element, keys);
+				}
+				keys.add(key);
+			}
+		}
+
+		@Override
+		public void demote(Object element) {
+			List<IPair<K1, K2>> keys = keysByElement.remove(element);
+			if (keys != null) {
+				for (IPair<K1, K2> key : keys) {
+					// the entry may already have been demoted with its other key
+					if (strong.containsKey(key)) {
+						if (weak == null) {
+							weak = new WeakKeysWeakValuesFlatBinaryCache<K1, K2, V>();
+						}
+						weak.put(key.getLeft(), key.getRight(), strong.remove(key));
+					}
+				}
+			}
+		}
+
+	}
+
+}
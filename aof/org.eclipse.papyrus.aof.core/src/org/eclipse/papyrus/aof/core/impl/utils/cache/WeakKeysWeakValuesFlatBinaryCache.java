@@ -0,0 +1,200 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.core.impl.utils.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A binary cache with weak keys and weak values stored in a single open-addressing table (with linear probing),
+ * instead of one nested map per first key as in {@link WeakKeysWeakValuesBinaryCache}.
+ * <p>
+ * Each entry weakly references both keys and the value. An entry is removed as soon as one of them is collected,
+ * which is detected through a single reference queue, so that the keys and the value are not retained by the cache
+ * (unlike a weak map keyed by a pair, whose pair could be collected while the keys are still used). Keys are compared
+ * with equals, as in a {@link java.util.WeakHashMap}.
+ *
+ * @param <K1>
+ * @param <K2>
+ * @param <V>
+ */
+public class WeakKeysWeakValuesFlatBinaryCache<K1, K2, V> implements IBinaryCache<K1, K2, V> {
+
+	// null keys are replaced by this object, so that a null referent always means a collected one
+	private static final Object NULL_KEY = new Object();
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// linear probing degrades quickly beyond this load factor
+	private static final float LOAD_FACTOR = 0.6f;
+
+	// the entry is the weak reference to the first key
+	private static class Entry extends WeakReference<Object> {
+
+		private final int hash;
+
+		private final Ref key2;
+
+		private Ref value;
+
+		private Entry(Object key1, Object key2, Object value, int hash, ReferenceQueue<Object> queue) {
+			super(key1, queue);
+			this.hash = hash;
+			this.key2 = new Ref(key2, this, queue);
+			this.value = new Ref(value, this, queue);
+		}
+
+	}
+
+	private static class Ref extends WeakReference<Object> {
+
+		// null once the reference no longer belongs to an entry (replaced value)
+		private Entry entry;
+
+		private Ref(Object referent, Entry entry, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.entry = entry;
+		}
+
+	}
+
+	private ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	private Entry[] table = new Entry[INITIAL_CAPACITY];
+
+	private int size = 0;
+
+	@Override
+	public V get(K1 key1, K2 key2) {
+		expunge();
+		Object k1 = maskNull(key1);
+		Object k2 = maskNull(key2);
+		int index = indexOf(k1, k2, hash(k1, k2));
+		if (index == -1) {
+			return null;
+		} else {
+			@SuppressWarnings("unchecked")
+			V value = (V) table[index].value.get();
+			return value;
+		}
+	}
+
+	@Override
+	public void put(K1 key1, K2 key2, V value) {
+		expunge();
+		Object k1 = maskNull(key1);
+		Object k2 = maskNull(key2);
+		int hash = hash(k1, k2);
+		int index = indexOf(k1, k2, hash);
+		if (index == -1) {
+			if (size + 1 > table.length * LOAD_FACTOR) {
+				resize(table.length * 2);
+			}
+			insert(new Entry(k1, k2, value, hash, queue));
+			size++;
+		} else {
+			Entry entry = table[index];
+			entry.value.entry = null;
+			entry.value = new Ref(value, entry, queue);
+		}
+	}
+
+	/**
+	 * Returns the number of entries of this cache, including those whose keys or value have been collected but not
+	 * expunged yet.
+	 */
+	public int size() {
+		expunge();
+		return size;
+	}
+
+	private static Object maskNull(Object key) {
+		return (key == null) ? NULL_KEY : key;
+	}
+
+	private static int hash(Object key1, Object key2) {
+		int h = 31 * key1.hashCode() + key2.hashCode();
+		// spreads the higher bits, since the index only uses the lower ones
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	private int indexOf(Object key1, Object key2, int hash) {
+		int mask = table.length - 1;
+		for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {
+			Entry entry = table[i];
+			if ((entry.hash == hash) && key1.equals(entry.get()) && key2.equals(entry.key2.get())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void insert(Entry entry) {
+		int mask = table.length - 1;
+		int i = entry.hash & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = entry;
+	}
+
+	private void resize(int capacity) {
+		Entry[] oldTable = table;
+		table = new Entry[capacity];
+		for (Entry entry : oldTable) {
+			if (entry != null) {
+				insert(entry);
+			}
+		}
+	}
+
+	// removes the entries whose keys or value have been collected
+	private void expunge() {
+		Reference<?> reference;
+		while ((reference = queue.poll()) != null) {
+			Entry entry = (reference instanceof Entry) ? (Entry) reference : ((Ref) reference).entry;
+			// the entry may have been removed when another of its references was collected
+			if (entry != null) {
+				int mask = table.length - 1;
+				for (int i = entry.hash & mask; table[i] != null; i = (i + 1) & mask) {
+					if (table[i] == entry) {
+						delete(i);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	// deletes the entry at the given index, moving back the following entries of the same probe sequence
+	private void delete(int index) {
+		Entry entry = table[index];
+		entry.key2.entry = null;
+		entry.value.entry = null;
+		table[index] = null;
+		size--;
+		int mask = table.length - 1;
+		int i = index;
+		for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+			int ideal = table[j].hash & mask;
+			// the entry at j stays if its ideal index is cyclically within (i, j]
+			boolean stays = (i <= j) ? ((i < ideal) && (ideal <= j)) : ((i < ideal) || (ideal <= j));
+			if (!stays) {
+				table[i] = table[j];
+				table[j] = null;
+				i = j;
+			}
+		}
+	}
+
+}
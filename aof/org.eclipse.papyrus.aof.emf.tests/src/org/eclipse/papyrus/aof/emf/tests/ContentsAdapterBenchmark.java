@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.papyrus.aof.core.ISet;
+import org.eclipse.papyrus.aof.emf.impl.ContentsAdapter;
+
+/**
+ * Measures the cost of removing objects from the contents of a root observed by an allContents extent (see
+ * {@link ContentsAdapter}), for growing extent sizes. The objects are spread over small containers, so that the EMF
+ * removals themselves do not depend on the size of the contents: the time per removal should stay flat.
+ * <p>
+ * Not a JUnit test: run it as a Java application.
+ */
+public class ContentsAdapterBenchmark {
+
+	private static final int[] SIZES = { 20000, 80000, 320000 };
+
+	private static final int REMOVALS = 2000;
+
+	private static final int ROUNDS = 3;
+
+	private static EClass node;
+
+	private static EReference children;
+
+	static {
+		EcoreFactory ecoreFactory = EcoreFactory.eINSTANCE;
+		EPackage ePackage = ecoreFactory.createEPackage();
+		ePackage.setName("tree");
+		ePackage.setNsPrefix("tree");
+		ePackage.setNsURI("http://www.eclipse.org/papyrus/aof-emf-samples/tree");
+		node = ecoreFactory.createEClass();
+		node.setName("Node");
+		children = ecoreFactory.createEReference();
+		children.setName("children");
+		children.setEType(node);
+		children.setContainment(true);
+		children.setUpperBound(-1);
+		node.getEStructuralFeatures().add(children);
+		ePackage.getEClassifiers().add(node);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static EList<EObject> children(EObject object) {
+		return (EList<EObject>) object.eGet(children);
+	}
+
+	// returns the best time of several rounds of random leaf removals, in nanoseconds per removal
+	private static long removalTime(int size) {
+		Random random = new Random(0);
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			EObject root = EcoreUtil.create(node);
+			List<EObject> leaves = new ArrayList<EObject>(size);
+			for (int i = 0; i < size / 100; i++) {
+				EObject parent = EcoreUtil.create(node);
+				for (int j = 0; j < 100; j++) {
+					EObject child = EcoreUtil.create(node);
+					children(parent).add(child);
+					leaves.add(child);
+				}
+				children(root).add(parent);
+			}
+			ISet<EObject> extent = ContentsAdapter.allInstances(root, node);
+			long start = System.nanoTime();
+			for (int i = 0; i < REMOVALS; i++) {
+				// swaps the removed leaf with the last one, so that the benchmark does not shift its own list
+				int index = random.nextInt(leaves.size());
+				EObject child = leaves.get(index);
+				leaves.set(index, leaves.get(leaves.size() - 1));
+				leaves.remove(leaves.size() - 1);
+				children(child.eContainer()).remove(child);
+			}
+			best = Math.min(best, (System.nanoTime() - start) / REMOVALS);
+			if (extent.length() != size + size / 100 - REMOVALS) {
+				throw new IllegalStateException("Wrong extent length " + extent.length());
+			}
+		}
+		return best;
+	}
+
+	public static void main(String[] args) {
+		// warm-up
+		removalTime(SIZES[0]);
+		for (int size : SIZES) {
+			System.out.println(size + " objects\t" + removalTime(size) + " ns/removal");
+		}
+	}
+
+}
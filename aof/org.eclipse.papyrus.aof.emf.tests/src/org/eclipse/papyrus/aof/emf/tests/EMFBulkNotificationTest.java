@@ -0,0 +1,304 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.papyrus.aof.core.IBatchObserver;
+import org.eclipse.papyrus.aof.core.IBinaryFunction;
+import org.eclipse.papyrus.aof.core.IBox;
+import org.eclipse.papyrus.aof.core.IChange;
+import org.eclipse.papyrus.aof.core.IFactory;
+import org.eclipse.papyrus.aof.core.IUnaryFunction;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.eclipse.papyrus.aof.emf.EMFFactory;
+import org.eclipse.papyrus.aof.emf.impl.DirectListFeatureDelegate;
+import org.eclipse.papyrus.aof.emf.impl.FeatureDelegate;
+import org.eclipse.papyrus.aof.emf.impl.ListFeatureDelegate;
+import org.eclipse.papyrus.aof.emf.tests.population.Person;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests the EMF notifications of bulk mutations (ADD_MANY, REMOVE_MANY) on large lists, for both the direct delegate
+ * and the proxy box delegate of many-valued features.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class EMFBulkNotificationTest extends BaseTest implements EMFTest {
+
+	private static final int SIZE = 20000;
+
+	@Override
+	protected IFactory createFactory() {
+		return new EMFFactory();
+	}
+
+	// Utilities
+
+	private static IUnaryFunction<String, String> identity = new IUnaryFunction<String, String>() {
+		@Override
+		public String apply(String s) {
+			return s;
+		}
+	};
+
+	private static class CountObserver implements IBatchObserver<String> {
+
+		private int batches;
+
+		private int batchedChanges;
+
+		private int changes;
+
+		@Override
+		public void changed(List<IChange<String>> changes) {
+			batches++;
+			batchedChanges += changes.size();
+		}
+
+		@Override
+		public void added(int index, String element) {
+			changes++;
+		}
+
+		@Override
+		public void removed(int index, String element) {
+			changes++;
+		}
+
+		@Override
+		public void replaced(int index, String newElement, String oldElement) {
+			changes++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, String element) {
+			changes++;
+		}
+
+		@Override
+		public boolean isDisabled() {
+			return false;
+		}
+
+		@Override
+		public void setDisabled(boolean disabled) {
+		}
+
+	}
+
+	private static List<String> createEmails(int from, int count) {
+		List<String> emails = new ArrayList<String>(count);
+		for (int i = from; i < from + count; i++) {
+			emails.add("person" + i + "@hip.com");
+		}
+		return emails;
+	}
+
+	private IBox<String> createEmailsBox(Person person, boolean direct) {
+		EStructuralFeature feature = epackage.getPerson_Emails();
+		FeatureDelegate<String> delegate;
+		if (direct) {
+			delegate = new DirectListFeatureDelegate<String>(person, feature);
+		} else {
+			delegate = new ListFeatureDelegate<String>(person, feature);
+		}
+		return ((EMFFactory) factory).createBox(delegate, delegate);
+	}
+
+	// Add many
+
+	@Test
+	public void testAddAllOnDirectDelegate() {
+		testAddAll(true);
+	}
+
+	@Test
+	public void testAddAllOnProxyDelegate() {
+		testAddAll(false);
+	}
+
+	public void testAddAll(boolean direct) {
+		Person person = efactory.createPerson();
+		person.getEmails().addAll(createEmails(0, 2));
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> copy = emails.collect(identity);
+		CountObserver observer = new CountObserver();
+		emails.addObserver(observer);
+		person.getEmails().addAll(1, createEmails(2, SIZE));
+		assertEquals(person.getEmails(), emails);
+		assertEquals(person.getEmails(), copy);
+		assertEquals(1, observer.batches);
+		assertEquals(SIZE, observer.batchedChanges);
+		assertEquals(0, observer.changes);
+	}
+
+	// Remove many
+
+	@Test
+	public void testRemoveAllOnDirectDelegate() {
+		testRemoveAll(true);
+	}
+
+	@Test
+	public void testRemoveAllOnProxyDelegate() {
+		testRemoveAll(false);
+	}
+
+	// removes runs of various lengths, so that the positions of the removed elements shift after each run
+	public void testRemoveAll(boolean direct) {
+		Person person = efactory.createPerson();
+		person.getEmails().addAll(createEmails(0, SIZE));
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> copy = emails.collect(identity);
+		CountObserver observer = new CountObserver();
+		emails.addObserver(observer);
+		Set<String> removed = new HashSet<String>();
+		for (int i = 0; i < SIZE; i++) {
+			if ((i % 7 < 3) || (i % 11 == 0)) {
+				removed.add(person.getEmails().get(i));
+			}
+		}
+		person.getEmails().removeAll(removed);
+		assertEquals(SIZE - removed.size(), person.getEmails().size());
+		assertEquals(person.getEmails(), emails);
+		assertEquals(person.getEmails(), copy);
+		assertEquals(1, observer.batches);
+		assertEquals(removed.size(), observer.batchedChanges);
+		assertEquals(0, observer.changes);
+	}
+
+	@Test
+	public void testClearOnDirectDelegate() {
+		testClear(true);
+	}
+
+	@Test
+	public void testClearOnProxyDelegate() {
+		testClear(false);
+	}
+
+	public void testClear(boolean direct) {
+		Person person = efactory.createPerson();
+		person.getEmails().addAll(createEmails(0, SIZE));
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> copy = emails.collect(identity);
+		CountObserver observer = new CountObserver();
+		emails.addObserver(observer);
+		person.getEmails().clear();
+		assertEquals(0, emails.length());
+		assertEquals(0, copy.length());
+		assertEquals(1, observer.batches);
+		assertEquals(SIZE, observer.batchedChanges);
+		assertEquals(0, observer.changes);
+	}
+
+	// Element observers
+
+	@Test
+	public void testZipWithOnBulkMutationsOnDirectDelegate() {
+		testZipWithOnBulkMutations(true);
+	}
+
+	@Test
+	public void testZipWithOnBulkMutationsOnProxyDelegate() {
+		testZipWithOnBulkMutations(false);
+	}
+
+	// zipWith is not a batch observer: it reacts to each element change by reading the emails box by index, which must
+	// be consistent with the change while the EMF list already holds its final contents
+	public void testZipWithOnBulkMutations(boolean direct) {
+		Person person = efactory.createPerson();
+		person.getEmails().addAll(Arrays.asList("a", "b", "c"));
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> zipped = emails.zipWith(factory.createSequence("1", "2", "3"), new IBinaryFunction<String, String, String>() {
+			@Override
+			public String apply(String email, String suffix) {
+				return email + suffix;
+			}
+		});
+		person.getEmails().addAll(0, Arrays.asList("d", "e"));
+		assertEquals(Arrays.asList("d1", "e2", "a3"), zipped);
+		person.getEmails().removeAll(Arrays.asList("d", "a"));
+		assertEquals(Arrays.asList("e1", "b2", "c3"), zipped);
+		person.getEmails().addAll(1, Arrays.asList("f", "g"));
+		person.getEmails().removeAll(Arrays.asList("e", "g", "c"));
+		assertEquals(Arrays.asList("f1", "b2"), zipped);
+		person.getEmails().clear();
+		assertEquals(0, zipped.length());
+	}
+
+	// Move
+
+	@Test
+	public void testMoveOnDirectDelegate() {
+		testMove(true);
+	}
+
+	@Test
+	public void testMoveOnProxyDelegate() {
+		testMove(false);
+	}
+
+	public void testMove(boolean direct) {
+		Person person = efactory.createPerson();
+		person.getEmails().addAll(createEmails(0, SIZE));
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> copy = emails.collect(identity);
+		CountObserver observer = new CountObserver();
+		emails.addObserver(observer);
+		Random random = new Random(0);
+		for (int i = 0; i < 1000; i++) {
+			person.getEmails().move(random.nextInt(SIZE), random.nextInt(SIZE));
+		}
+		assertEquals(person.getEmails(), emails);
+		assertEquals(person.getEmails(), copy);
+		assertEquals(0, observer.batches);
+		assertEquals(1000, observer.changes);
+	}
+
+	// Mixed mutations
+
+	@Test
+	public void testBulkMutationsThroughBoxOnDirectDelegate() {
+		testBulkMutationsThroughBox(true);
+	}
+
+	@Test
+	public void testBulkMutationsThroughBoxOnProxyDelegate() {
+		testBulkMutationsThroughBox(false);
+	}
+
+	// the box mutations are reflected to the EMF list, and observed from the resulting notifications
+	public void testBulkMutationsThroughBox(boolean direct) {
+		Person person = efactory.createPerson();
+		IBox<String> emails = createEmailsBox(person, direct);
+		IBox<String> copy = emails.collect(identity);
+		emails.addAll(0, createEmails(0, SIZE));
+		assertEquals(SIZE, person.getEmails().size());
+		emails.removeRange(SIZE / 4, SIZE / 2);
+		emails.addAll(10, createEmails(SIZE, 100));
+		emails.move(0, emails.length() - 1);
+		assertEquals(person.getEmails(), emails);
+		assertEquals(person.getEmails(), copy);
+		emails.clear();
+		assertEquals(0, person.getEmails().size());
+		assertEquals(0, copy.length());
+	}
+
+}
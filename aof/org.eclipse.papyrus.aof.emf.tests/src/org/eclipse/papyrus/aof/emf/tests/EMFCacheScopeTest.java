@@ -0,0 +1,130 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.tests;
+
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.papyrus.aof.core.IFactory;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.IUnaryCache;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesUnaryCache;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.eclipse.papyrus.aof.emf.EMFCacheScope;
+import org.eclipse.papyrus.aof.emf.EMFFactory;
+import org.junit.After;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests the demotion of the entries of {@link EMFCacheScope} when objects are detached from its resource set.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class EMFCacheScopeTest extends BaseTest {
+
+	@Override
+	protected IFactory createFactory() {
+		return new EMFFactory();
+	}
+
+	private static EClass node;
+
+	static {
+		EcoreFactory ecoreFactory = EcoreFactory.eINSTANCE;
+		EPackage ePackage = ecoreFactory.createEPackage();
+		ePackage.setName("scope");
+		ePackage.setNsPrefix("scope");
+		ePackage.setNsURI("http://www.eclipse.org/papyrus/aof-emf-samples/scope");
+		node = ecoreFactory.createEClass();
+		node.setName("Node");
+		ePackage.getEClassifiers().add(node);
+	}
+
+	private IUnaryCache<EObject, Object> globalCache = new WeakKeysWeakValuesUnaryCache<EObject, Object>();
+
+	private ResourceSet resourceSet = new ResourceSetImpl();
+
+	private Resource resource = new ResourceImpl();
+
+	private EObject object = EcoreUtil.create(node);
+
+	@After
+	public void closeScopes() {
+		while (CacheScope.getCurrent() != null) {
+			CacheScope.getCurrent().close();
+		}
+	}
+
+	// collects until the referent has the expected collected state
+	private void collect(WeakReference<?> reference, boolean expectedCollected) throws InterruptedException {
+		for (int i = 0; (i < 100) && ((reference.get() == null) != expectedCollected); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(expectedCollected, reference.get() == null);
+	}
+
+	// puts a value for the object in the scoped cache, and returns a weak reference to this value
+	private WeakReference<Object> putValue() throws InterruptedException {
+		resource.getContents().add(object);
+		resourceSet.getResources().add(resource);
+		EMFCacheScope.open(resourceSet);
+		WeakReference<Object> valueReference = new WeakReference<Object>(new Object());
+		CacheScope.scoped(globalCache).put(object, valueReference.get());
+		// the entry is strongly held while the object belongs to the resource set
+		collect(valueReference, false);
+		assertSame(valueReference.get(), CacheScope.scoped(globalCache).get(object));
+		return valueReference;
+	}
+
+	@Test
+	public void testObjectRemoval() throws InterruptedException {
+		WeakReference<Object> valueReference = putValue();
+		resource.getContents().remove(object);
+		collect(valueReference, true);
+	}
+
+	@Test
+	public void testObjectMovedToAnotherResource() throws InterruptedException {
+		WeakReference<Object> valueReference = putValue();
+		Resource otherResource = new ResourceImpl();
+		resourceSet.getResources().add(otherResource);
+		otherResource.getContents().add(object);
+		collect(valueReference, false);
+	}
+
+	@Test
+	public void testResourceRemoval() throws InterruptedException {
+		WeakReference<Object> valueReference = putValue();
+		resourceSet.getResources().remove(resource);
+		collect(valueReference, true);
+	}
+
+	@Test
+	public void testResourcesCleared() throws InterruptedException {
+		WeakReference<Object> valueReference = putValue();
+		resourceSet.getResources().add(new ResourceImpl());
+		resourceSet.getResources().clear();
+		collect(valueReference, true);
+	}
+
+}
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.tests;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.papyrus.aof.core.IFactory;
+import org.eclipse.papyrus.aof.core.ISet;
+import org.eclipse.papyrus.aof.core.impl.utils.DefaultObserver;
+import org.eclipse.papyrus.aof.core.tests.BaseTest;
+import org.eclipse.papyrus.aof.emf.EMFFactory;
+import org.eclipse.papyrus.aof.emf.impl.ContentsAdapter;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests the allContents extents maintained by {@link ContentsAdapter}, on a dynamic Ecore model with a containment
+ * reference and a class hierarchy: Node (children: Node[*]), Leaf extends Node, Special extends Leaf.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class EMFContentsAdapterTest extends BaseTest {
+
+	@Override
+	protected IFactory createFactory() {
+		return new EMFFactory();
+	}
+
+	// Utilities
+
+	private static EClass node;
+
+	private static EClass leaf;
+
+	private static EClass special;
+
+	private static EReference children;
+
+	static {
+		EcoreFactory ecoreFactory = EcoreFactory.eINSTANCE;
+		EPackage ePackage = ecoreFactory.createEPackage();
+		ePackage.setName("tree");
+		ePackage.setNsPrefix("tree");
+		ePackage.setNsURI("http://www.eclipse.org/papyrus/aof-emf-samples/tree");
+		node = ecoreFactory.createEClass();
+		node.setName("Node");
+		leaf = ecoreFactory.createEClass();
+		leaf.setName("Leaf");
+		leaf.getESuperTypes().add(node);
+		special = ecoreFactory.createEClass();
+		special.setName("Special");
+		special.getESuperTypes().add(leaf);
+		children = ecoreFactory.createEReference();
+		children.setName("children");
+		children.setEType(node);
+		children.setContainment(true);
+		children.setUpperBound(-1);
+		node.getEStructuralFeatures().add(children);
+		ePackage.getEClassifiers().add(node);
+		ePackage.getEClassifiers().add(leaf);
+		ePackage.getEClassifiers().add(special);
+	}
+
+	private static EObject create(EClass eClass, EObject... nodeChildren) {
+		EObject object = EcoreUtil.create(eClass);
+		for (EObject child : nodeChildren) {
+			children(object).add(child);
+		}
+		return object;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static EList<EObject> children(EObject object) {
+		return (EList<EObject>) object.eGet(children);
+	}
+
+	private static class ChangeCounter<E> extends DefaultObserver<E> {
+
+		private int changes;
+
+		@Override
+		public void added(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void removed(int index, E element) {
+			changes++;
+		}
+
+		@Override
+		public void replaced(int index, E newElement, E oldElement) {
+			changes++;
+		}
+
+		@Override
+		public void moved(int newIndex, int oldIndex, E element) {
+			changes++;
+		}
+
+	}
+
+	// the extent must contain the contained instances of the class, including the instances of its sub-classes
+	private void assertExtent(Iterator<? extends EObject> contents, EClass eClass, ISet<EObject> extent) {
+		Set<EObject> expected = new HashSet<EObject>();
+		while (contents.hasNext()) {
+			EObject object = contents.next();
+			if (eClass.isSuperTypeOf(object.eClass())) {
+				expected.add(object);
+			}
+		}
+		assertEquals(expected.size(), extent.length());
+		for (EObject object : extent) {
+			assertTrue(expected.contains(object));
+		}
+	}
+
+	// Extents
+
+	@Test
+	public void testAllInstances() {
+		EObject root = create(node, create(leaf, create(special)), create(node, create(leaf)));
+		ISet<EObject> nodes = ContentsAdapter.allInstances(root, node);
+		ISet<EObject> leaves = ContentsAdapter.allInstances(root, leaf);
+		ISet<EObject> specials = ContentsAdapter.allInstances(root, special);
+		assertExtent(root.eAllContents(), node, nodes);
+		assertExtent(root.eAllContents(), leaf, leaves);
+		assertExtent(root.eAllContents(), special, specials);
+		assertEquals(4, nodes.length());
+		assertEquals(3, leaves.length());
+		assertEquals(1, specials.length());
+		assertTrue(!nodes.contains(root));
+	}
+
+	@Test
+	public void testAllContentsWithoutType() {
+		EObject root = create(node, create(leaf), create(special));
+		assertEquals(2, ContentsAdapter.allContents(root, null).length());
+	}
+
+	// a single adapter is attached to a root, and each type is given a single extent
+	@Test
+	public void testSharedAdapter() {
+		EObject child = create(node);
+		EObject root = create(node, child);
+		ISet<EObject> nodes = ContentsAdapter.allInstances(root, node);
+		assertSame(nodes, ContentsAdapter.allInstances(root, node));
+		ContentsAdapter.allInstances(root, leaf);
+		ContentsAdapter.allInstances(child, leaf);
+		int adapters = 0;
+		for (Adapter adapter : root.eAdapters()) {
+			if (adapter instanceof ContentsAdapter) {
+				adapters++;
+			}
+		}
+		assertEquals(1, adapters);
+		assertSame(ContentsAdapter.adapt(root), ContentsAdapter.adapt(root));
+		assertTrue(ContentsAdapter.adapt(root) != ContentsAdapter.adapt(child));
+	}
+
+	// Containment changes
+
+	@Test
+	public void testAddedAndRemovedSubtree() {
+		EObject root = create(node);
+		ISet<EObject> nodes = ContentsAdapter.allInstances(root, node);
+		ISet<EObject> leaves = ContentsAdapter.allInstances(root, leaf);
+		EObject subtree = create(node, create(leaf, create(special)), create(leaf));
+		children(root).add(subtree);
+		assertExtent(root.eAllContents(), node, nodes);
+		assertExtent(root.eAllContents(), leaf, leaves);
+		assertEquals(4, nodes.length());
+		children(root).remove(subtree);
+		assertEquals(0, nodes.length());
+		assertEquals(0, leaves.length());
+		// the removed objects are no more observed
+		children(subtree).add(create(leaf));
+		assertEquals(0, leaves.length());
+	}
+
+	// an object moved within the contents stays in its extents
+	@Test
+	public void testMovedSubtree() {
+		EObject subtree = create(leaf, create(special));
+		EObject parent = create(node);
+		EObject root = create(node, subtree, parent);
+		ISet<EObject> leaves = ContentsAdapter.allInstances(root, leaf);
+		ChangeCounter<EObject> counter = new ChangeCounter<EObject>();
+		leaves.addObserver(counter);
+		children(parent).add(subtree);
+		assertExtent(root.eAllContents(), leaf, leaves);
+		assertEquals(0, counter.changes);
+	}
+
+	@Test
+	public void testResourceRoot() {
+		Resource resource = new ResourceImpl();
+		resource.getContents().add(create(node, create(leaf)));
+		ISet<EObject> nodes = ContentsAdapter.allInstances(resource, node);
+		assertExtent(resource.getAllContents(), node, nodes);
+		resource.getContents().add(create(special));
+		assertExtent(resource.getAllContents(), node, nodes);
+		resource.getContents().remove(0);
+		assertExtent(resource.getAllContents(), node, nodes);
+		assertEquals(1, nodes.length());
+	}
+
+	// many removals of objects spread over small containers, so that the extent is shuffled by its O(1) removals (see
+	// ContentsAdapterBenchmark for their cost)
+	@Test
+	public void testManyRemovals() {
+		Random random = new Random(0);
+		EObject root = create(node);
+		List<EObject> leaves = new ArrayList<EObject>();
+		for (int i = 0; i < 20; i++) {
+			EObject parent = create(node);
+			for (int j = 0; j < 100; j++) {
+				EObject child = create((j % 10 == 0) ? special : leaf);
+				children(parent).add(child);
+				leaves.add(child);
+			}
+			children(root).add(parent);
+		}
+		ISet<EObject> extent = ContentsAdapter.allInstances(root, leaf);
+		ISet<EObject> specials = ContentsAdapter.allInstances(root, special);
+		for (int i = 0; i < 1500; i++) {
+			EObject child = leaves.remove(random.nextInt(leaves.size()));
+			children(child.eContainer()).remove(child);
+			if (i % 100 == 0) {
+				assertExtent(root.eAllContents(), leaf, extent);
+				assertExtent(root.eAllContents(), special, specials);
+			}
+		}
+		assertEquals(500, extent.length());
+		assertExtent(root.eAllContents(), leaf, extent);
+		assertExtent(root.eAllContents(), special, specials);
+	}
+
+	// Random containment changes against eAllContents
+
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(0);
+		EClass[] classes = { node, leaf, special };
+		EObject root = create(node);
+		ISet<EObject> nodes = ContentsAdapter.allInstances(root, node);
+		ISet<EObject> leaves = ContentsAdapter.allInstances(root, leaf);
+		List<EObject> objects = new ArrayList<EObject>();
+		objects.add(root);
+		for (int i = 0; i < 1000; i++) {
+			EObject parent = objects.get(random.nextInt(objects.size()));
+			int choice = random.nextInt(3);
+			if (choice == 0) {
+				EObject object = create(classes[random.nextInt(3)]);
+				objects.add(object);
+				children(parent).add(object);
+			} else if ((choice == 1) && !children(parent).isEmpty()) {
+				children(parent).remove(random.nextInt(children(parent).size()));
+			} else {
+				// moves an object under a parent that is not one of its descendants
+				EObject object = objects.get(random.nextInt(objects.size()));
+				if ((object != root) && !EcoreUtil.isAncestor(object, parent)) {
+					children(parent).add(object);
+				}
+			}
+			if (i % 100 == 0) {
+				assertExtent(root.eAllContents(), node, nodes);
+				assertExtent(root.eAllContents(), leaf, leaves);
+			}
+		}
+		assertExtent(root.eAllContents(), node, nodes);
+		assertExtent(root.eAllContents(), leaf, leaves);
+		assertExtent(root.eAllContents(), special, ContentsAdapter.<EObject> allInstances(root, special));
+	}
+
+}
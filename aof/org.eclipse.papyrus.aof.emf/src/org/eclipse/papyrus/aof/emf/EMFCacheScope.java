@@ -0,0 +1,130 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
+
+/**
+ * Implements a cache scope bound to the models of a resource set.
+ * <p>
+ * The model elements are the EMF objects. When an object is removed from the resource set contents (i.e. it no
+ * longer belongs to any resource of the resource set, including when its resource is removed from the resource set),
+ * the cache entries of this object and of its contents are demoted to the weak tier of the scoped caches, so that
+ * they can be collected along with the object.
+ */
+public class EMFCacheScope extends CacheScope {
+
+	private ResourceSet resourceSet;
+
+	private EContentAdapter adapter = new EContentAdapter() {
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+			if (isResources(notification)) {
+				switch (notification.getEventType()) {
+				case Notification.REMOVE:
+					detachedResource(notification.getOldValue());
+					break;
+				case Notification.REMOVE_MANY:
+					for (Object oldValue : (Collection<?>) notification.getOldValue()) {
+						detachedResource(oldValue);
+					}
+					break;
+				}
+			} else if (isContainment(notification)) {
+				switch (notification.getEventType()) {
+				case Notification.REMOVE:
+				case Notification.SET:
+				case Notification.UNSET:
+					detached(notification.getOldValue());
+					break;
+				case Notification.REMOVE_MANY:
+					for (Object oldValue : (Collection<?>) notification.getOldValue()) {
+						detached(oldValue);
+					}
+					break;
+				}
+			}
+		}
+	};
+
+	protected EMFCacheScope(ResourceSet resourceSet) {
+		this.resourceSet = resourceSet;
+	}
+
+	/**
+	 * Opens a new scope for the given resource set, which becomes the current one until it is closed.
+	 */
+	public static EMFCacheScope open(ResourceSet resourceSet) {
+		EMFCacheScope scope = new EMFCacheScope(resourceSet);
+		resourceSet.eAdapters().add(scope.adapter);
+		scope.makeCurrent();
+		return scope;
+	}
+
+	@Override
+	protected boolean isElement(Object object) {
+		return object instanceof EObject;
+	}
+
+	private static boolean isContainment(Notification notification) {
+		Object feature = notification.getFeature();
+		if (feature instanceof EReference) {
+			return ((EReference) feature).isContainment();
+		} else {
+			return (notification.getNotifier() instanceof Resource) && (notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS);
+		}
+	}
+
+	private static boolean isResources(Notification notification) {
+		return (notification.getNotifier() instanceof ResourceSet) && (notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES);
+	}
+
+	// the object may have been moved to another container, in which case it is still part of the models
+	private void detached(Object object) {
+		if ((object instanceof EObject) && !isInResourceSet((EObject) object)) {
+			demote(object);
+			for (Iterator<EObject> contents = ((EObject) object).eAllContents(); contents.hasNext();) {
+				demote(contents.next());
+			}
+		}
+	}
+
+	// the objects of the resource still belong to it, but no longer to the models of the resource set
+	private void detachedResource(Object resource) {
+		if (resource instanceof Resource) {
+			for (Iterator<EObject> contents = ((Resource) resource).getAllContents(); contents.hasNext();) {
+				demote(contents.next());
+			}
+		}
+	}
+
+	private boolean isInResourceSet(EObject object) {
+		Resource resource = object.eResource();
+		return (resource != null) && (resource.getResourceSet() == resourceSet);
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		resourceSet.eAdapters().remove(adapter);
+	}
+
+}
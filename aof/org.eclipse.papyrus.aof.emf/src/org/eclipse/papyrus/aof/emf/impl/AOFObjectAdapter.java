@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.impl;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.papyrus.aof.core.IBox;
+
+/**
+ * The single EMF adapter attached to an EMF object for all its observed features.
+ * <p>
+ * Notifications are dispatched to the feature delegates through an array indexed by feature ID, instead of being
+ * filtered by one adapter per observed feature. The observed property boxes of the object (see {@link EMFMetaClass})
+ * are retrieved from their registered delegates, without any map lookup. The adapter is removed from the object once
+ * no feature delegate is registered anymore.
+ */
+public class AOFObjectAdapter extends AdapterImpl {
+
+	// the registered delegates by feature ID, chained when several delegates are bound to the same feature
+	private FeatureDelegate<?>[] delegates;
+
+	private int count = 0;
+
+	private AOFObjectAdapter(EObject object) {
+		delegates = new FeatureDelegate<?>[object.eClass().getFeatureCount()];
+	}
+
+	/**
+	 * Registers the given delegate to the adapter of its object, which is created and attached if needed.
+	 */
+	static void register(FeatureDelegate<?> delegate) {
+		EObject object = delegate.getObject();
+		AOFObjectAdapter adapter = (AOFObjectAdapter) EcoreUtil.getExistingAdapter(object, AOFObjectAdapter.class);
+		if (adapter == null) {
+			adapter = new AOFObjectAdapter(object);
+			object.eAdapters().add(adapter);
+		}
+		int featureID = object.eClass().getFeatureID(delegate.getFeature());
+		delegate.nextDelegate = adapter.delegates[featureID];
+		adapter.delegates[featureID] = delegate;
+		adapter.count++;
+	}
+
+	/**
+	 * Unregisters the given delegate from the adapter of its object, which is detached if it has nothing left.
+	 */
+	static void unregister(FeatureDelegate<?> delegate) {
+		EObject object = delegate.getObject();
+		AOFObjectAdapter adapter = (AOFObjectAdapter) EcoreUtil.getExistingAdapter(object, AOFObjectAdapter.class);
+		if (adapter != null) {
+			int featureID = object.eClass().getFeatureID(delegate.getFeature());
+			FeatureDelegate<?> previous = null;
+			for (FeatureDelegate<?> d = adapter.delegates[featureID]; d != null; previous = d, d = d.nextDelegate) {
+				if (d == delegate) {
+					if (previous == null) {
+						adapter.delegates[featureID] = d.nextDelegate;
+					} else {
+						previous.nextDelegate = d.nextDelegate;
+					}
+					d.nextDelegate = null;
+					adapter.count--;
+					break;
+				}
+			}
+			if (adapter.count == 0) {
+				object.eAdapters().remove(adapter);
+			}
+		}
+	}
+
+	/**
+	 * Returns the property box of the given feature of the given object if it is observed, or null otherwise.
+	 */
+	static IBox<?> getPropertyBox(EObject object, EStructuralFeature feature) {
+		AOFObjectAdapter adapter = (AOFObjectAdapter) EcoreUtil.getExistingAdapter(object, AOFObjectAdapter.class);
+		if (adapter != null) {
+			int featureID = object.eClass().getFeatureID(feature);
+			for (FeatureDelegate<?> d = adapter.delegates[featureID]; d != null; d = d.nextDelegate) {
+				if (d.isPropertyDelegate) {
+					return d.getBox();
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == AOFObjectAdapter.class;
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		Object feature = notification.getFeature();
+		if (feature instanceof EStructuralFeature) {
+			int featureID = ((EObject) notification.getNotifier()).eClass().getFeatureID((EStructuralFeature) feature);
+			if (featureID >= 0) {
+				FeatureDelegate<?> delegate = delegates[featureID];
+				while (delegate != null) {
+					// the delegate may be unregistered by its observers
+					FeatureDelegate<?> next = delegate.nextDelegate;
+					delegate.notifyChanged(notification);
+					delegate = next;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.papyrus.aof.core.AOFFactory;
+import org.eclipse.papyrus.aof.core.IConstraints;
+import org.eclipse.papyrus.aof.core.IMetaClass;
+import org.eclipse.papyrus.aof.core.ISet;
+import org.eclipse.papyrus.aof.core.impl.BaseFactory;
+import org.eclipse.papyrus.aof.core.impl.UnorderedSetDelegate;
+import org.eclipse.papyrus.aof.emf.EMFFactory;
+
+/**
+ * The single content adapter attached to an EMF object, resource or resource set for all the allContents sets
+ * requested on its contents.
+ * <p>
+ * The adapter keeps one set per requested type (the extent of the type), containing the objects of the contents that
+ * are instances of the type or of any of its sub-types. The first request of a type walks the contents once, then the
+ * extent is returned as is and updated on each containment change. The extents fed by the instances of each EClass
+ * are cached by EClass, so that an added or removed object is dispatched to its extents without testing each
+ * requested type, and the extents are backed by {@link UnorderedSetDelegate}, so that an object is added to or
+ * removed from an extent in O(1).
+ * <p>
+ * The root itself is not part of its contents. The adapter is never removed from the root, so that the extents
+ * remain valid as long as the root is.
+ */
+public class ContentsAdapter extends EContentAdapter {
+
+	private Notifier root;
+
+	// the extents by requested type, a null type standing for all the objects
+	private Map<IMetaClass<?>, ISet<Object>> extents = new HashMap<IMetaClass<?>, ISet<Object>>();
+
+	// the extents fed by the instances of each EClass, computed on first use, and reset when a type is requested
+	private Map<EClass, List<ISet<Object>>> extentsByClass = new HashMap<EClass, List<ISet<Object>>>();
+
+	private ContentsAdapter(Notifier root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns the content adapter of the given root, which is created and attached if needed.
+	 * <p>
+	 * The adapters of the containers of the root are also attached to the root, since content adapters attach
+	 * themselves to all the contents of their roots: the adapter of the root is the one whose root it is.
+	 */
+	public static ContentsAdapter adapt(Notifier root) {
+		for (Adapter adapter : root.eAdapters()) {
+			if ((adapter instanceof ContentsAdapter) && (((ContentsAdapter) adapter).root == root)) {
+				return (ContentsAdapter) adapter;
+			}
+		}
+		ContentsAdapter adapter = new ContentsAdapter(root);
+		root.eAdapters().add(adapter);
+		return adapter;
+	}
+
+	/**
+	 * Returns the set of the objects contained (directly or indirectly) in the given root that are instances of the
+	 * given type, which is kept up-to-date with the contents of the root.
+	 * 
+	 * @param root
+	 *            an EMF object, resource or resource set
+	 * @param type
+	 *            the type of the returned objects, or null for all the objects
+	 */
+	public static <C> ISet<C> allContents(Notifier root, IMetaClass<C> type) {
+		return adapt(root).getExtent(type);
+	}
+
+	/**
+	 * Returns the set of the objects contained in the given root that are instances of the given EClass or of any
+	 * of its sub-classes (see {@link #allContents(Notifier, IMetaClass)}).
+	 */
+	public static <C> ISet<C> allInstances(Notifier root, EClass eClass) {
+		IMetaClass<C> type = EMFFactory.INSTANCE.getMetaClass(eClass);
+		return allContents(root, type);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <C> ISet<C> getExtent(IMetaClass<C> type) {
+		ISet<Object> extent = extents.get(type);
+		if (extent == null) {
+			// extents are unordered: an object is removed from them in O(1) by moving the last object in its place
+			extent = (ISet<Object>) ((BaseFactory) AOFFactory.INSTANCE).createBox(IConstraints.SET, new UnorderedSetDelegate<Object>());
+			for (Iterator<?> contents = contents(); contents.hasNext();) {
+				Object object = contents.next();
+				if ((object instanceof EObject) && ((type == null) || type.isInstance(object))) {
+					extent.add(object);
+				}
+			}
+			extents.put(type, extent);
+			extentsByClass.clear();
+		}
+		return (ISet<C>) extent;
+	}
+
+	private Iterator<?> contents() {
+		if (root instanceof EObject) {
+			return ((EObject) root).eAllContents();
+		} else if (root instanceof Resource) {
+			return ((Resource) root).getAllContents();
+		} else if (root instanceof ResourceSet) {
+			return ((ResourceSet) root).getAllContents();
+		} else {
+			throw new IllegalStateException("Notifier " + root + " is neither an EMF object, nor a resource, nor a resource set");
+		}
+	}
+
+	// whether an object is an instance of a type only depends on its EClass, hence the first object of an EClass
+	// decides for all the other ones
+	private List<ISet<Object>> getExtents(EObject object) {
+		List<ISet<Object>> classExtents = extentsByClass.get(object.eClass());
+		if (classExtents == null) {
+			classExtents = new ArrayList<ISet<Object>>();
+			for (Map.Entry<IMetaClass<?>, ISet<Object>> entry : extents.entrySet()) {
+				if ((entry.getKey() == null) || entry.getKey().isInstance(object)) {
+					classExtents.add(entry.getValue());
+				}
+			}
+			extentsByClass.put(object.eClass(), classExtents);
+		}
+		return classExtents;
+	}
+
+	// EContentAdapter
+
+	// an object moved within the contents is first removed from its old container, while its new container already
+	// holds this adapter: it then keeps this adapter, instead of leaving and entering the contents with its subtree
+	@Override
+	protected void removeAdapter(Notifier notifier, boolean checkContainer, boolean checkResource) {
+		super.removeAdapter(notifier, checkContainer || (notifier instanceof EObject), checkResource);
+	}
+
+	// called once per object entering the contents
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if ((target != root) && !extents.isEmpty()) {
+			for (ISet<Object> extent : getExtents(target)) {
+				extent.add(target);
+			}
+		}
+	}
+
+	// called once per object leaving the contents
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if ((target != root) && !extents.isEmpty()) {
+			for (ISet<Object> extent : getExtents(target)) {
+				extent.remove(target);
+			}
+		}
+	}
+
+}
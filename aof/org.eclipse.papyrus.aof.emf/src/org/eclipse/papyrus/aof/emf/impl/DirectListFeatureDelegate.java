@@ -0,0 +1,291 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 ESEO.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     Olivier Beaudoux - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.papyrus.aof.emf.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.papyrus.aof.core.IObserver;
+
+/**
+ * A delegate bound to a many-valued EMF feature that directly reads and writes the EMF list of the feature.
+ * <p>
+ * Unlike {@link ListFeatureDelegate}, it does not keep a copy of the EMF list in a proxy box: mutations are applied
+ * to the EMF list, and the observers are notified from the resulting EMF notifications. Multiple-element
+ * notifications (ADD_MANY, REMOVE_MANY) are notified as a batch of element changes. The EMF list already holds its
+ * final contents when they are received, so that during the batch this delegate is read through an intermediate view
+ * of the EMF list, in which only the already notified elements are added or removed. Observers that react to each
+ * element change (and read this delegate by index) thus see a box consistent with the change they receive.
+ *
+ * @param <E>
+ */
+public class DirectListFeatureDelegate<E> extends FeatureDelegate<E> {
+
+	private EList<E> list;
+
+	// intermediate view of the EMF list during the notification of an ADD_MANY: the elements of the EMF list located
+	// from addedIndex (included) to addedIndex + addedCount (excluded) are not notified yet, hence hidden
+	private int addedIndex;
+
+	private int addedCount;
+
+	// intermediate view of the EMF list during the notification of a REMOVE_MANY: the first removedCount removed
+	// elements are not notified yet, hence still located at their positions before the removal (ascending positions,
+	// null if the list was cleared)
+	private List<E> removedElements;
+
+	private int[] removedPositions;
+
+	private int removedCount;
+
+	@SuppressWarnings("unchecked")
+	public DirectListFeatureDelegate(EObject object, EStructuralFeature feature) {
+		super(object, feature);
+		list = (EList<E>) object.eGet(feature);
+	}
+
+	// Iterable
+
+	@Override
+	public Iterator<E> iterator() {
+		if ((addedCount == 0) && (removedCount == 0)) {
+			return list.iterator();
+		} else {
+			return new Iterator<E>() {
+
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < length();
+				}
+
+				@Override
+				public E next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return get(index++);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+			};
+		}
+	}
+
+	// IReadable
+
+	@Override
+	public E get(int index) {
+		if ((addedCount == 0) && (removedCount == 0)) {
+			return list.get(index);
+		} else if ((index < 0) || (index >= length())) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length());
+		} else if (addedCount > 0) {
+			return list.get((index < addedIndex) ? index : index + addedCount);
+		} else {
+			// the number of not yet removed elements located before index, found by binary search
+			int lower = 0;
+			int upper = removedCount;
+			while (lower < upper) {
+				int middle = (lower + upper) >>> 1;
+				if (removedPosition(middle) < index) {
+					lower = middle + 1;
+				} else {
+					upper = middle;
+				}
+			}
+			if ((lower < removedCount) && (removedPosition(lower) == index)) {
+				return removedElements.get(lower);
+			} else {
+				return list.get(index - lower);
+			}
+		}
+	}
+
+	private int removedPosition(int i) {
+		return (removedPositions == null) ? i : removedPositions[i];
+	}
+
+	@Override
+	public int length() {
+		return list.size() - addedCount + removedCount;
+	}
+
+	@Override
+	public int indexOf(E element) {
+		if ((addedCount == 0) && (removedCount == 0)) {
+			return list.indexOf(element);
+		} else {
+			int index = 0;
+			for (Iterator<E> i = iterator(); i.hasNext(); index++) {
+				E e = i.next();
+				if ((e == null) ? (element == null) : e.equals(element)) {
+					return index;
+				}
+			}
+			return -1;
+		}
+	}
+
+	@Override
+	public boolean contains(E element) {
+		return indexOf(element) != -1;
+	}
+
+	// IWritable
+
+	@Override
+	public void add(E element) {
+		list.add(element);
+	}
+
+	@Override
+	public void add(int index, E element) {
+		list.add(index, element);
+	}
+
+	// a single ADD_MANY notification
+	@Override
+	public void addAll(int index, Iterable<E> elements) {
+		List<E> collection = new ArrayList<E>();
+		for (E element : elements) {
+			collection.add(element);
+		}
+		list.addAll(index, collection);
+	}
+
+	@Override
+	public void remove(E element) {
+		list.remove(element);
+	}
+
+	@Override
+	public void removeAt(int index) {
+		list.remove(index);
+	}
+
+	@Override
+	public void clear() {
+		list.clear();
+	}
+
+	@Override
+	public void set(int index, E element) {
+		list.set(index, element);
+	}
+
+	@Override
+	public void move(int newIndex, int oldIndex) {
+		list.move(newIndex, oldIndex);
+	}
+
+	// IObservable
+
+	// whether this delegate is registered to the adapter of its object
+	private boolean registered;
+
+	@Override
+	public void addObserver(IObserver<E> observer) {
+		super.addObserver(observer);
+		if (!registered) {
+			AOFObjectAdapter.register(this);
+			registered = true;
+		}
+	}
+
+	@Override
+	public void removeObserver(IObserver<E> observer) {
+		super.removeObserver(observer);
+		if (registered && !isObserved()) {
+			AOFObjectAdapter.unregister(this);
+			registered = false;
+		}
+	}
+
+	// EMF notifications
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void notifyChanged(final Notification notification) {
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+			fireAdded(notification.getPosition(), (E) notification.getNewValue());
+			break;
+		case Notification.ADD_MANY:
+			batch(new Runnable() {
+				@Override
+				public void run() {
+					List<E> elements = (List<E>) notification.getNewValue();
+					int index = notification.getPosition();
+					addedCount = elements.size();
+					try {
+						for (E element : elements) {
+							// the element becomes visible before being notified
+							addedIndex = index + 1;
+							addedCount--;
+							fireAdded(index++, element);
+						}
+					} finally {
+						addedCount = 0;
+					}
+				}
+			});
+			break;
+		case Notification.REMOVE:
+			fireRemoved(notification.getPosition(), (E) notification.getOldValue());
+			break;
+		case Notification.REMOVE_MANY:
+			batch(new Runnable() {
+				@Override
+				public void run() {
+					// the positions before the removal are ascending (null when the whole list is cleared): elements
+					// are notified from the last one, so that the positions of the remaining ones are not shifted
+					removedElements = (List<E>) notification.getOldValue();
+					removedPositions = (int[]) notification.getNewValue();
+					removedCount = removedElements.size();
+					try {
+						while (removedCount > 0) {
+							// the element becomes hidden before being notified
+							removedCount--;
+							fireRemoved(removedPosition(removedCount), removedElements.get(removedCount));
+						}
+					} finally {
+						removedCount = 0;
+						removedElements = null;
+						removedPositions = null;
+					}
+				}
+			});
+			break;
+		case Notification.MOVE:
+			fireMoved(notification.getPosition(), (Integer) notification.getOldValue(), (E) notification.getNewValue());
+			break;
+		case Notification.SET:
+			fireReplaced(notification.getPosition(), (E) notification.getNewValue(), (E) notification.getOldValue());
+			break;
+		case Notification.UNSET:
+			throw new UnsupportedOperationException("EMF notification " + notification + " can never occur on a list-based feature");
+		default: // REMOVING_ADAPTER | RESOLVE
+		}
+	}
+
+}
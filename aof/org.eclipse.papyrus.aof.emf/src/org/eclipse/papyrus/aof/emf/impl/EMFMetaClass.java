@@ -20,6 +20,7 @@ import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IMetaClass;
 import org.eclipse.papyrus.aof.core.IUnaryFunction;
 import org.eclipse.papyrus.aof.core.impl.BaseMetaClass;
+import org.eclipse.papyrus.aof.core.impl.utils.cache.CacheScope;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.IUnaryCache;
 import org.eclipse.papyrus.aof.core.impl.utils.cache.WeakKeysWeakValuesUnaryCache;
 import org.eclipse.papyrus.aof.emf.EMFFactory;
@@ -74,6 +75,8 @@ public class EMFMetaClass<C extends EObject> extends BaseMetaClass<C> {
 		} else {
 			throw new IllegalArgumentException("Property " + property + " is neither a Java String, nor an EMF EStructuralFeature");
 		}
+		// the accessor of a feature is the same for all the property types
+		@SuppressWarnings("unchecked")
 		PropertyAccessor<B> ret = (PropertyAccessor<B>) cache.get(feature);
 		if (ret == null) {
 			ret = new PropertyAccessor<B>(feature);
@@ -103,7 +106,7 @@ public class EMFMetaClass<C extends EObject> extends BaseMetaClass<C> {
 
 		private EStructuralFeature feature;
 
-		// cache defined for memory optimization
+		// cache defined for memory optimization (replaced by a strong cache within a CacheScope)
 		private IUnaryCache<EObject, IBox<B>> cache = new WeakKeysWeakValuesUnaryCache<EObject, IBox<B>>();
 
 		public PropertyAccessor(EStructuralFeature feature) {
@@ -131,14 +134,22 @@ public class EMFMetaClass<C extends EObject> extends BaseMetaClass<C> {
 					return (IBox)IBox.ONE;
 				}
 			}
-			IBox<B> box = cache.get(object);
+			// an observed box is retrieved from the adapter of its object, which avoids any map lookup
+			@SuppressWarnings("unchecked")
+			IBox<B> box = (IBox<B>) AOFObjectAdapter.getPropertyBox(object, feature);
+			if (box != null) {
+				return box;
+			}
+			IUnaryCache<EObject, IBox<B>> cache = CacheScope.scoped(this.cache);
+			box = cache.get(object);
 			if (box == null) {
 				FeatureDelegate<B> delegate;
 				if (feature.isMany()) {
-					delegate = new ListFeatureDelegate<B>(object, feature);
+					delegate = new DirectListFeatureDelegate<B>(object, feature);
 				} else {
 					delegate = new GetSetFeatureDelegate<B>(object, feature);
 				}
+				delegate.isPropertyDelegate = true;
 				box = ((EMFFactory) EMFFactory.INSTANCE).createBox(delegate, delegate);
 				cache.put(object, box);
 			}
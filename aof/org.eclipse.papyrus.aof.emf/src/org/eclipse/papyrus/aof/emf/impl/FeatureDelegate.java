@@ -11,8 +11,10 @@
  *******************************************************************************/
 package org.eclipse.papyrus.aof.emf.impl;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.papyrus.aof.core.IBox;
 import org.eclipse.papyrus.aof.core.IConstraints;
 import org.eclipse.papyrus.aof.core.impl.BaseDelegate;
 import org.eclipse.papyrus.aof.core.impl.Constraints;
@@ -31,6 +33,12 @@ public abstract class FeatureDelegate<E> extends BaseDelegate<E> implements ICon
 
 	private EStructuralFeature feature;
 
+	// the next delegate bound to the same feature of the same object (see AOFObjectAdapter)
+	FeatureDelegate<?> nextDelegate;
+
+	// whether this delegate is that of the property box of its object and feature (see EMFMetaClass)
+	boolean isPropertyDelegate;
+
 	protected FeatureDelegate(EObject object, EStructuralFeature feature) {
 		this.object = object;
 		this.feature = feature;
@@ -45,6 +53,18 @@ public abstract class FeatureDelegate<E> extends BaseDelegate<E> implements ICon
 		return feature;
 	}
 
+	IBox<E> getBox() {
+		return getDelegator();
+	}
+
+	// EMF notifications
+
+	/**
+	 * Handles a notification of the object about the feature of this delegate, dispatched by the
+	 * {@link AOFObjectAdapter} of the object.
+	 */
+	protected abstract void notifyChanged(Notification notification);
+
 
 	// IConstraints
 
@@ -14,9 +14,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.Notification;
-import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.papyrus.aof.core.IObserver;
@@ -91,59 +89,58 @@ public class GetSetFeatureDelegate<E> extends FeatureDelegate<E> {
 
 	// IObservable
 
-	private Adapter adapter;
+	// whether this delegate is registered to the adapter of its object
+	private boolean registered;
 
 	@Override
 	public void addObserver(IObserver<E> observer) {
 		super.addObserver(observer);
-		if (adapter == null) {
-			adapter = new NotificationAdapter();
-			getObject().eAdapters().add(adapter);
+		if (!registered) {
+			AOFObjectAdapter.register(this);
+			registered = true;
 		}
 	}
 
 	@Override
 	public void removeObserver(IObserver<E> observer) {
 		super.removeObserver(observer);
-		if (!isObserved()) {
-			getObject().eAdapters().remove(adapter);
-			adapter = null;
+		if (registered && !isObserved()) {
+			AOFObjectAdapter.unregister(this);
+			registered = false;
 		}
 	}
 
-	private class NotificationAdapter extends AdapterImpl {
-
-		@Override
-		public void notifyChanged(Notification notification) {
-			for (IObserver<E> observer : getObservers()) {
-				if (!observer.isDisabled() && (getFeature() == notification.getFeature())) {
-					switch (notification.getEventType()) {
-					case Notification.ADD:
-						observer.added(notification.getPosition(), (E) notification.getNewValue());
-						break;
-					case Notification.REMOVE:
-						observer.removed(notification.getPosition(), (E) notification.getOldValue());
-						break;
-					case Notification.SET:
-						if (notification.wasSet() || !isOptional()) {
-							observer.replaced(0, (E) notification.getNewValue(), (E) notification.getOldValue());
-						} else {
-							observer.added(0, (E) notification.getNewValue());
-						}
-						break;
-					case Notification.UNSET:
-						observer.removed(0, (E) notification.getOldValue());
-						break;
-					case Notification.ADD_MANY:
-					case Notification.REMOVE_MANY:
-					case Notification.MOVE:
-						throw new UnsupportedOperationException("EMF notification " + notification + " can never occur on a list-based feature");
-					default: // REMOVING_ADAPTER | RESOLVE
+	// EMF notifications
+
+	@Override
+	protected void notifyChanged(Notification notification) {
+		for (IObserver<E> observer : getObservers()) {
+			if (!observer.isDisabled()) {
+				switch (notification.getEventType()) {
+				case Notification.ADD:
+					observer.added(notification.getPosition(), (E) notification.getNewValue());
+					break;
+				case Notification.REMOVE:
+					observer.removed(notification.getPosition(), (E) notification.getOldValue());
+					break;
+				case Notification.SET:
+					if (notification.wasSet() || !isOptional()) {
+						observer.replaced(0, (E) notification.getNewValue(), (E) notification.getOldValue());
+					} else {
+						observer.added(0, (E) notification.getNewValue());
 					}
+					break;
+				case Notification.UNSET:
+					observer.removed(0, (E) notification.getOldValue());
+					break;
+				case Notification.ADD_MANY:
+				case Notification.REMOVE_MANY:
+				case Notification.MOVE:
+					throw new UnsupportedOperationException("EMF notification " + notification + " can never occur on a list-based feature");
+				default: // REMOVING_ADAPTER | RESOLVE
 				}
 			}
 		}
-
 	}
 
 }
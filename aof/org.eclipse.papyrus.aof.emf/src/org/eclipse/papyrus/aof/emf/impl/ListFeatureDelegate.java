@@ -13,9 +13,7 @@ package org.eclipse.papyrus.aof.emf.impl;
 import java.util.Iterator;
 import java.util.List;
 
-import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.Notification;
-import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -29,7 +27,7 @@ public class ListFeatureDelegate<E> extends FeatureDelegate<E> {
 	private EList<E> list;
 
 	// Proxy between this EMF delegate and an AOF delegate
-	// - this delegate captures EMF mutation events through the NoticationAdapter inner class, and updates the AOF delegate
+	// - this delegate captures EMF mutation events through the AOFObjectAdapter of its object, and updates the AOF delegate
 	// thus emulating a copy of this EMF delegate => it is thus a double delegation
 	// - the AOF delegate is observed by registered observers while this EMF delegate is not directly observered
 	// end of javadoc
@@ -85,6 +83,11 @@ public class ListFeatureDelegate<E> extends FeatureDelegate<E> {
 		proxyBox.add(index, element);
 	}
 
+	@Override
+	public void addAll(int index, Iterable<E> elements) {
+		proxyBox.addAll(index, elements);
+	}
+
 	@Override
 	public void remove(E element) {
 		proxyBox.remove(element);
@@ -95,6 +98,11 @@ public class ListFeatureDelegate<E> extends FeatureDelegate<E> {
 		proxyBox.removeAt(index);
 	}
 
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		proxyBox.removeRange(fromIndex, toIndex);
+	}
+
 	@Override
 	public void clear() {
 		proxyBox.clear();
@@ -110,24 +118,32 @@ public class ListFeatureDelegate<E> extends FeatureDelegate<E> {
 		proxyBox.move(newIndex, oldIndex);
 	}
 
+	// observers are registered on the proxy box
+	@Override
+	public void batch(Runnable mutations) {
+		proxyBox.batch(mutations);
+	}
+
 	// IObservable
 
-	private Adapter adapter;
+	// whether this delegate is registered to the adapter of its object
+	private boolean registered;
 
 	@Override
 	public void addObserver(IObserver<E> observer) {
 		proxyBox.addObserver(observer);
-		if (adapter == null) {
-			adapter = new ForwardAdapter();
-			getObject().eAdapters().add(adapter);
+		if (!registered) {
+			AOFObjectAdapter.register(this);
+			registered = true;
 		}
 	}
 
 	@Override
 	public void removeObserver(IObserver<E> observer) {
 		proxyBox.removeObserver(observer);
-		if (!proxyBox.isObserved()) {
-			getObject().eAdapters().remove(adapter);
+		if (registered && !proxyBox.isObserved()) {
+			AOFObjectAdapter.unregister(this);
+			registered = false;
 		}
 	}
 
@@ -145,57 +161,63 @@ public class ListFeatureDelegate<E> extends FeatureDelegate<E> {
 
 	private boolean silentReverse;
 
-	private class ForwardAdapter extends AdapterImpl {
-		@Override
-		public void notifyChanged(Notification notification) {
-			if (getFeature() != notification.getFeature()) {
-				return;
-			}
-
-			if (silentForward) {
-				return;
-			}
-			silentReverse = true;
-			switch (notification.getEventType()) {
-			case Notification.ADD:
-				proxyBox.add(notification.getPosition(), (E) notification.getNewValue());
-				break;
-			case Notification.ADD_MANY: {
-				// to be tested
-				int i = notification.getPosition();
-				for (E element : (List<E>) notification.getNewValue()) {
-					proxyBox.add(i++, element);
-				}
-				break;
-			}
-			case Notification.REMOVE:
-				proxyBox.removeAt(notification.getPosition());
-				break;
-			case Notification.REMOVE_MANY: {
-				int[] indices = (int[]) notification.getNewValue();
-				if (indices == null) {
-					proxyBox.clear();
-				} else {
-					// to be tested
-					for (int index : indices) {
-						proxyBox.removeAt(index);
-					}
+	// forwards the EMF notifications to the proxy box
+	@Override
+	protected void notifyChanged(final Notification notification) {
+		if (silentForward) {
+			return;
+		}
+		silentReverse = true;
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+			proxyBox.add(notification.getPosition(), (E) notification.getNewValue());
+			break;
+		case Notification.ADD_MANY:
+			proxyBox.addAll(notification.getPosition(), (List<E>) notification.getNewValue());
+			break;
+		case Notification.REMOVE:
+			proxyBox.removeAt(notification.getPosition());
+			break;
+		case Notification.REMOVE_MANY:
+			// a single batch, as for ADD_MANY
+			proxyBox.batch(new Runnable() {
+				@Override
+				public void run() {
+					removeMany((int[]) notification.getNewValue(), ((List<?>) notification.getOldValue()).size());
 				}
-				break;
+			});
+			break;
+		case Notification.MOVE:
+			proxyBox.move(notification.getPosition(), (Integer) notification.getOldValue());
+			break;
+		case Notification.SET:
+			if (getFeature().isMany()) {
+				proxyBox.set(notification.getPosition(), (E) notification.getNewValue());
 			}
-			case Notification.MOVE:
-				proxyBox.move(notification.getPosition(), (Integer) notification.getOldValue());
-				break;
-			case Notification.SET:
-				if (getFeature().isMany()) {
-					proxyBox.set(notification.getPosition(), (E) notification.getNewValue());
+			break;
+		case Notification.UNSET:
+			throw new UnsupportedOperationException("EMF notification " + notification + " can never occur on a list-based feature");
+		default: // REMOVING_ADAPTER | RESOLVE
+		}
+		silentReverse = false;
+	}
+
+	private void removeMany(int[] indices, int count) {
+		if (indices == null) {
+			proxyBox.clear();
+		} else {
+			// indices are ascending positions before the removal: runs of consecutive indices are removed
+			// from the last one, so that the positions of the remaining ones are not shifted
+			// (EMF may provide an indices array longer than the number of removed elements)
+			int to = count;
+			while (to > 0) {
+				int from = to - 1;
+				while ((from > 0) && (indices[from - 1] == indices[from] - 1)) {
+					from--;
 				}
-				break;
-			case Notification.UNSET:
-				throw new UnsupportedOperationException("EMF notification " + notification + " can never occur on a list-based feature");
-			default: // REMOVING_ADAPTER | RESOLVE
+				proxyBox.removeRange(indices[from], indices[to - 1] + 1);
+				to = from;
 			}
-			silentReverse = false;
 		}
 	}
 
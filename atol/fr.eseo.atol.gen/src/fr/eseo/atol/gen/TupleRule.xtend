@@ -20,6 +20,9 @@ import java.util.HashMap
 import java.util.Map
 import java.util.function.BiConsumer
 import org.eclipse.papyrus.aof.core.IBox
+import org.eclipse.papyrus.aof.core.IUnaryFunction
+import org.eclipse.papyrus.aof.core.impl.utils.Accessors
+import org.eclipse.papyrus.aof.core.impl.utils.Accessors.Instantiator
 
 class TupleRule<S, T> extends AbstractRule {
 	val Class<S> inTypes
@@ -36,6 +39,14 @@ class TupleRule<S, T> extends AbstractRule {
 
 	val Map<S,T> trace = new HashMap
 
+	// the constructors and field reader of the tuple classes are resolved on first use, instead of on each call
+	var Instantiator<T> outConstructor
+	var Instantiator<S> inWrappingConstructor
+	var Instantiator<T> outWrappingConstructor
+	var Instantiator<S> inFirstConstructor
+	var Instantiator<T> outFirstConstructor
+	var IUnaryFunction<T, Object> outFirstField
+
 	static def <S, T> IBox<T> collectTo(IBox<S> source, TupleRule<? extends S, ? extends T>...rules) {
 		source.collect[S it |
 			if(it === null) {
@@ -54,7 +65,10 @@ class TupleRule<S, T> extends AbstractRule {
 	def apply(S in) {
 		var out = trace.get(in)
 		if(out === null) {
-			out = outTypes.newInstance
+			if(outConstructor === null) {
+				outConstructor = Accessors.getDefaultConstructor(outTypes)
+			}
+			out = outConstructor.newInstance
 			trace.put(in, out)
 			if(registerCustomTrace !== null) {
 				registerCustomTrace.accept(in, out)
@@ -65,7 +79,10 @@ class TupleRule<S, T> extends AbstractRule {
 	}
 
 	def apply1To1(Object in_) {
-		outTypes.fields.findFirst[true].get(
+		if(outFirstField === null) {
+			outFirstField = Accessors.getFirstFieldReader(outTypes)
+		}
+		outFirstField.apply(
 			in_.wrapIn.apply
 		)
 	}
@@ -82,8 +99,8 @@ class TupleRule<S, T> extends AbstractRule {
 	// - one without arguments to create new elements
 	//		- for target tuples
 	// This method find the wrapping constructor
-	def <E> wrappingConstructor(Class<E> c) {
-		c.constructors.findFirst[parameterCount > 0]
+	def <E> Instantiator<E> wrappingConstructor(Class<E> c) {
+		Accessors.getFirstConstructor(c, true)
 	}
 
 	def bind(Object...elems) {
@@ -95,13 +112,17 @@ class TupleRule<S, T> extends AbstractRule {
 	}
 
 	def wrap(Object...elems) {
-		val inc = inTypes.wrappingConstructor
+		if(inWrappingConstructor === null) {
+			inWrappingConstructor = inTypes.wrappingConstructor
+			outWrappingConstructor = outTypes.wrappingConstructor
+		}
+		val inc = inWrappingConstructor
 		inc.newInstance(
 			elems.take(inc.parameterCount).toList.toArray
-		) as S ->
-		outTypes.wrappingConstructor.newInstance(
+		) ->
+		outWrappingConstructor.newInstance(
 			elems.drop(inc.parameterCount).toList.toArray
-		) as T
+		)
 	}
 
 	// the first n (= number of args of inTypes constructor) elems correspond to the source elements,
@@ -116,14 +137,20 @@ class TupleRule<S, T> extends AbstractRule {
 
 	// 1-to-1 variant
 	override register1To1(Object in, Object out) {
+		if(outFirstConstructor === null) {
+			outFirstConstructor = Accessors.getFirstConstructor(outTypes, false)
+		}
 		trace.put(
 			in.wrapIn,
-			outTypes.constructors.findFirst[true].newInstance(out) as T
+			outFirstConstructor.newInstance(out)
 		)
 	}
 
 	def wrapIn(Object in) {
-		inTypes.constructors.findFirst[true].newInstance(in) as S
+		if(inFirstConstructor === null) {
+			inFirstConstructor = Accessors.getFirstConstructor(inTypes, false)
+		}
+		inFirstConstructor.newInstance(in)
 	}
 
 	static def <E> <=>(IBox<E> left, IBox<E> right) {